@@ -0,0 +1,44 @@
+package kikaha.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import kikaha.config.Config;
+import kikaha.core.cdi.*;
+import kikaha.core.modules.security.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures how long it takes to find out the {@link AuthenticationRule} of
+ * a request, using the rules defined at {@code conf/application.yml}.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class AuthenticationRuleMatcherBenchmark {
+
+	AuthenticationRuleMatcher matcher;
+
+	@Setup
+	public void loadRules() {
+		final CDI cdi = DefaultCDI.newInstance();
+		final Config config = cdi.load( Config.class );
+		matcher = new AuthenticationRuleMatcher( cdi, config.getConfig( "server.auth" ), cdi.load( AuthenticationEndpoints.class ) );
+	}
+
+	@Benchmark
+	public AuthenticationRule firstRule() {
+		return matcher.retrieveAuthenticationRuleForUrl( "/api/admin/users/123" );
+	}
+
+	@Benchmark
+	public AuthenticationRule lastRule() {
+		return matcher.retrieveAuthenticationRuleForUrl( "/api/catalog/items" );
+	}
+
+	@Benchmark
+	public AuthenticationRule excludedUrl() {
+		return matcher.retrieveAuthenticationRuleForUrl( "/api/public/status" );
+	}
+}
@@ -0,0 +1,51 @@
+package kikaha.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import kikaha.core.cdi.DefaultCDI;
+import kikaha.urouting.api.converter.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the conversion of path, query and header parameters into
+ * their Java representation.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ConverterFactoryBenchmark {
+
+	ConverterFactory factory;
+
+	@Setup
+	public void loadConverterFactory() {
+		factory = DefaultCDI.newInstance().load( ConverterFactory.class );
+	}
+
+	@Benchmark
+	public Integer decodeInteger() throws ConversionException {
+		return factory.decode( "123456", Integer.class );
+	}
+
+	@Benchmark
+	public Long decodePrimitiveLong() throws ConversionException {
+		return factory.decode( "123456789", Long.TYPE );
+	}
+
+	@Benchmark
+	public Double decodeDouble() throws ConversionException {
+		return factory.decode( "1.6", Double.class );
+	}
+
+	@Benchmark
+	public Boolean decodeBoolean() throws ConversionException {
+		return factory.decode( "true", Boolean.class );
+	}
+
+	@Benchmark
+	public String decodeString() throws ConversionException {
+		return factory.decode( "value", String.class );
+	}
+}
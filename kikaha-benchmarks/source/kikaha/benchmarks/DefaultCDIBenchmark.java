@@ -0,0 +1,29 @@
+package kikaha.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import kikaha.core.cdi.*;
+import kikaha.urouting.serializers.SerializerAndUnserializerProvider;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the bootstrap of the dependency injection context: creating a
+ * {@link DefaultCDI} and loading the services needed to serve a request.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class DefaultCDIBenchmark {
+
+	@Benchmark
+	public CDI bootstrap() {
+		return DefaultCDI.newInstance();
+	}
+
+	@Benchmark
+	public SerializerAndUnserializerProvider bootstrapAndLoadServices() {
+		return DefaultCDI.newInstance().load( SerializerAndUnserializerProvider.class );
+	}
+}
@@ -0,0 +1,100 @@
+package kikaha.benchmarks;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.undertow.server.HttpServerExchange;
+import kikaha.core.cdi.*;
+import kikaha.core.test.HttpServerExchangeStub;
+import kikaha.urouting.api.*;
+import kikaha.urouting.serializers.jackson.*;
+import lombok.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the round-trip of a small object through the {@link JSONHttpSerializer},
+ * comparing the {@link JSONCodec} generated at compile time with the reflection
+ * based {@link ObjectMapper}.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class JSONHttpSerializerBenchmark {
+
+	final User user = new User( 123L, "kikaha", "kikaha@example.com", Arrays.asList( "admin", "user" ) );
+	final ByteArrayOutputStream output = new ByteArrayOutputStream( 256 );
+
+	JSONHttpSerializer serializer;
+	JSONCodecs codecs;
+	JSONCodec<User> codec;
+	ObjectMapper mapper;
+	HttpServerExchange exchange;
+	byte[] serializedUser;
+
+	@Setup
+	public void loadSerializer() throws IOException {
+		final CDI cdi = DefaultCDI.newInstance();
+		serializer = cdi.load( JSONHttpSerializer.class );
+		codecs = cdi.load( JSONCodecs.class );
+		codec = codecs.codecFor( User.class );
+		if ( codec == null )
+			throw new IllegalStateException( "No JSON codec was generated for " + User.class );
+		mapper = cdi.load( Jackson.class ).objectMapper();
+		exchange = HttpServerExchangeStub.createHttpExchange();
+		serializedUser = mapper.writeValueAsBytes( user );
+	}
+
+	@Benchmark
+	public byte[] serializeWithObjectMapper() throws IOException {
+		return mapper.writeValueAsBytes( user );
+	}
+
+	@Benchmark
+	public byte[] serializeWithGeneratedCodec() throws IOException {
+		output.reset();
+		codecs.write( codec, user, output );
+		return output.toByteArray();
+	}
+
+	@Benchmark
+	public User unserializeWithObjectMapper() throws IOException {
+		return mapper.readValue( serializedUser, User.class );
+	}
+
+	@Benchmark
+	public User unserializeWithGeneratedCodec() throws IOException {
+		return codecs.read( codec, serializedUser );
+	}
+
+	@Benchmark
+	public User unserialize() throws IOException {
+		return serializer.unserialize( exchange, User.class, serializedUser, "UTF-8" );
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class User {
+		long id;
+		String name;
+		String email;
+		List<String> roles;
+	}
+
+	/**
+	 * Exposes the {@link User} as a routing method entity, so a {@link JSONCodec}
+	 * is generated for it.
+	 */
+	@Path( "users" )
+	public static class UserResource {
+
+		@GET
+		public User retrieveUser() {
+			return new User();
+		}
+	}
+}
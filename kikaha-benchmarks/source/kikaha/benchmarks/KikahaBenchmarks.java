@@ -0,0 +1,30 @@
+package kikaha.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Runs the Kikaha benchmarks. Every suite is profiled with the {@link GCProfiler},
+ * thus allocation rates are reported along with the throughput, and the results
+ * are exported as JSON to {@code output/jmh-result.json} so they could be compared
+ * among releases. Any JMH command line option (e.g. a regexp to select which
+ * benchmarks should run) can be informed as argument.
+ */
+public class KikahaBenchmarks {
+
+	static final String DEFAULT_RESULT_FILE = "output/jmh-result.json";
+
+	public static void main( final String[] args ) throws Exception {
+		final CommandLineOptions commandLineOptions = new CommandLineOptions( args );
+		final ChainedOptionsBuilder options = new OptionsBuilder()
+			.parent( commandLineOptions )
+			.addProfiler( GCProfiler.class )
+			.resultFormat( commandLineOptions.getResultFormat().orElse( ResultFormatType.JSON ) )
+			.result( commandLineOptions.getResult().orElse( DEFAULT_RESULT_FILE ) );
+		if ( commandLineOptions.getIncludes().isEmpty() )
+			options.include( KikahaBenchmarks.class.getPackage().getName() );
+		new Runner( options.build() ).run();
+	}
+}
@@ -0,0 +1,60 @@
+package kikaha.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HeaderMap;
+import kikaha.core.test.HttpServerExchangeStub;
+import kikaha.urouting.RoutingMethodResponseWriter;
+import kikaha.urouting.api.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures how much {@link RoutingMethodResponseWriter} allocates to send the headers
+ * of a {@link Response}, compared to adding them straight to the {@link HeaderMap}.
+ * Both should report the same {@code gc.alloc.rate.norm} through the GC profiler.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ResponseHeadersBenchmark {
+
+	final RoutingMethodResponseWriter writer = new RoutingMethodResponseWriter();
+	final Response response = Response.ok()
+		.header( "Cache-Control", "no-cache" )
+		.header( "X-Custom-Header", "custom" );
+
+	HttpServerExchange exchange;
+	HeaderMap responseHeaders;
+	Header[] headers;
+
+	@Setup
+	public void createExchange() {
+		exchange = HttpServerExchangeStub.createHttpExchange();
+		responseHeaders = exchange.getResponseHeaders();
+		int size = 0;
+		for ( final Header ignored : response.headers() )
+			size++;
+		headers = new Header[ size ];
+		int i = 0;
+		for ( final Header header : response.headers() )
+			headers[ i++ ] = header;
+	}
+
+	@Benchmark
+	public HeaderMap sendHeadersThroughTheWriter() {
+		responseHeaders.clear();
+		writer.sendHeaders( exchange, response );
+		return responseHeaders;
+	}
+
+	@Benchmark
+	public HeaderMap addHeadersDirectly() {
+		responseHeaders.clear();
+		for ( final Header header : headers )
+			responseHeaders.add( header.httpName(), header.values().get( 0 ) );
+		return responseHeaders;
+	}
+}
@@ -0,0 +1,70 @@
+package kikaha.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import io.undertow.server.*;
+import io.undertow.util.*;
+import kikaha.core.SimpleRoutingHandler;
+import kikaha.core.test.HttpServerExchangeStub;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures how long {@link SimpleRoutingHandler} takes to dispatch a request as
+ * the number of registered routes grows.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class RoutingBenchmark {
+
+	static final HttpHandler NOTHING = exchange -> {};
+
+	@Param( { "10", "100", "1000" } )
+	int numberOfRoutes;
+
+	SimpleRoutingHandler routingHandler;
+	HttpServerExchange exchange;
+	String staticPath, parameterizedPath, unknownPath;
+
+	@Setup
+	public void registerRoutes() {
+		routingHandler = new SimpleRoutingHandler();
+		routingHandler.setFallbackHandler( NOTHING );
+		for ( int i = 0; i < numberOfRoutes; i++ ) {
+			final String resource = "/api/v1/resource" + i;
+			routingHandler.add( Methods.GET_STRING, resource, NOTHING );
+			routingHandler.add( Methods.GET_STRING, resource + "/{id}", NOTHING );
+			routingHandler.add( Methods.GET_STRING, resource + "/{id}/items/{item}", NOTHING );
+		}
+		routingHandler.freeze();
+
+		final int lastResource = numberOfRoutes - 1;
+		staticPath = "/api/v1/resource" + lastResource;
+		parameterizedPath = "/api/v1/resource" + lastResource + "/123/items/456";
+		unknownPath = "/api/v2/resource" + lastResource;
+		exchange = HttpServerExchangeStub.createHttpExchange();
+	}
+
+	@Benchmark
+	public Object staticRoute() throws Exception {
+		return route( staticPath );
+	}
+
+	@Benchmark
+	public Object parameterizedRoute() throws Exception {
+		return route( parameterizedPath );
+	}
+
+	@Benchmark
+	public Object unknownRoute() throws Exception {
+		return route( unknownPath );
+	}
+
+	Object route( final String path ) throws Exception {
+		exchange.setRelativePath( path );
+		routingHandler.handleRequest( exchange );
+		return exchange.getAttachment( PathTemplateMatch.ATTACHMENT_KEY );
+	}
+}
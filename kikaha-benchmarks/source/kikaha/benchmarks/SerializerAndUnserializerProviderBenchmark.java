@@ -0,0 +1,48 @@
+package kikaha.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import kikaha.core.cdi.DefaultCDI;
+import kikaha.urouting.api.Mimes;
+import kikaha.urouting.serializers.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures how long it takes to find out the {@link Serializer} and the
+ * {@link Unserializer} of a request, and to negotiate the response content type.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class SerializerAndUnserializerProviderBenchmark {
+
+	SerializerAndUnserializerProvider provider;
+
+	@Setup
+	public void loadProvider() {
+		provider = DefaultCDI.newInstance().load( SerializerAndUnserializerProvider.class );
+	}
+
+	@Benchmark
+	public Serializer serializerForJson() throws IOException {
+		return provider.getSerializerFor( Mimes.JSON );
+	}
+
+	@Benchmark
+	public Unserializer unserializerForJson() throws IOException {
+		return provider.getUnserializerFor( Mimes.JSON );
+	}
+
+	@Benchmark
+	public Unserializer unserializerForJsonWithEncoding() throws IOException {
+		return provider.getUnserializerFor( Mimes.JSON + "; charset=UTF-8" );
+	}
+
+	@Benchmark
+	public String negotiateBrowserAcceptHeader() {
+		return provider.negotiateContentType( "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8" );
+	}
+}
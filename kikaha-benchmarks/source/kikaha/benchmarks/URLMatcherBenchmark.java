@@ -0,0 +1,49 @@
+package kikaha.benchmarks;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import kikaha.commons.url.URLMatcher;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the compilation of URL patterns and the matching of request paths
+ * against them.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class URLMatcherBenchmark {
+
+	static final String PATTERN = "/api/v1/users/{id}/items/{item}";
+	static final String PATH = "/api/v1/users/123/items/456";
+
+	URLMatcher matcher;
+
+	@Setup
+	public void compileMatcher() {
+		matcher = URLMatcher.compile( PATTERN, true );
+	}
+
+	@Benchmark
+	public URLMatcher compile() {
+		return URLMatcher.compile( PATTERN, true );
+	}
+
+	@Benchmark
+	public boolean matchesWithoutCapturing() {
+		return matcher.matches( PATH, null );
+	}
+
+	@Benchmark
+	public Map<String, String> matchesAndCapture() {
+		return matcher.matchAndCapture( PATH );
+	}
+
+	@Benchmark
+	public boolean matchesIntoMap() {
+		return matcher.matches( PATH, new HashMap<>() );
+	}
+}
@@ -10,8 +10,9 @@ public class AnyStringNextValidCharMatcher implements Matcher {
 	final char nextValidChar;
 
 	@Override
-	public boolean matches( final StringCursor string , final Map<String, String> foundParameters  ) {
-		return string.shiftCursorToNextChar( nextValidChar );
+	public int matches( final String string, final int offset, final PlaceholderCaptures captures ) {
+		final int position = string.indexOf( nextValidChar, offset );
+		return position < 0 ? -1 : position + 1;
 	}
 
 	@Override
@@ -5,9 +5,8 @@ import java.util.Map;
 public class AnyStringUntilEndMatcher implements Matcher {
 
 	@Override
-	public boolean matches( final StringCursor string , final Map<String, String> foundParameters  ) {
-		string.end();
-		return true;
+	public int matches( final String string, final int offset, final PlaceholderCaptures captures ) {
+		return string.length();
 	}
 
 	@Override
@@ -5,8 +5,8 @@ import java.util.Map;
 public class EndOfStringMatcher implements Matcher {
 
 	@Override
-	public boolean matches( final StringCursor string , final Map<String, String> foundParameters  ) {
-		return !string.hasNext();
+	public int matches( final String string, final int offset, final PlaceholderCaptures captures ) {
+		return offset == string.length() ? offset : -1;
 	}
 
 	@Override
@@ -3,7 +3,6 @@ package kikaha.commons.url;
 import java.util.Map;
 
 import lombok.RequiredArgsConstructor;
-import lombok.val;
 
 @RequiredArgsConstructor
 public class EndsWithMatcher implements Matcher {
@@ -11,11 +10,14 @@ public class EndsWithMatcher implements Matcher {
 	final char[] patternChars;
 
 	@Override
-	public boolean matches( final StringCursor string , final Map<String, String> foundParameters  ) {
-		val pattern = new StringCursor( patternChars );
-		final char firstPatternChar = pattern.next();
-		return string.shiftCursorToNextChar( firstPatternChar )
-				&& pattern.matches( string );
+	public int matches( final String string, final int offset, final PlaceholderCaptures captures ) {
+		final int position = string.indexOf( patternChars[0], offset );
+		if ( position < 0 || position + patternChars.length > string.length() )
+			return -1;
+		for ( int i = 1; i < patternChars.length; i++ )
+			if ( string.charAt( position + i ) != patternChars[i] )
+				return -1;
+		return position + patternChars.length;
 	}
 
 	@Override
@@ -3,7 +3,6 @@ package kikaha.commons.url;
 import java.util.Map;
 
 import lombok.RequiredArgsConstructor;
-import lombok.val;
 
 @RequiredArgsConstructor
 public class EqualsMatcher implements Matcher {
@@ -15,9 +14,13 @@ public class EqualsMatcher implements Matcher {
 	}
 
 	@Override
-	public boolean matches( final StringCursor string , final Map<String, String> foundParameters  ) {
-		val pattern = new StringCursor( patternChars );
-		return pattern.matches( string );
+	public int matches( final String string, final int offset, final PlaceholderCaptures captures ) {
+		if ( offset + patternChars.length > string.length() )
+			return -1;
+		for ( int i = 0; i < patternChars.length; i++ )
+			if ( string.charAt( offset + i ) != patternChars[i] )
+				return -1;
+		return offset + patternChars.length;
 	}
 
 	@Override
@@ -4,7 +4,39 @@ import java.util.Map;
 
 public interface Matcher {
 
-	boolean matches( final StringCursor string, final Map<String, String> foundParameters );
+	/**
+	 * Check if the {@code string} matches this rule starting at {@code offset}.
+	 * Found placeholders are recorded into {@code captures} as offsets of the
+	 * original {@code string}, avoiding any allocation while the string is matched.
+	 *
+	 * @param string the string that should be matched
+	 * @param offset the position where the match should start
+	 * @param captures the found placeholders. It may be {@code null} when they are not needed.
+	 * @return the position right after the matched characters, or {@code -1} if it doesn't match
+	 */
+	int matches( final String string, final int offset, final PlaceholderCaptures captures );
+
+	/**
+	 * Check if the {@code string} matches this rule starting at its current cursor,
+	 * moving the cursor past the matched characters. Found placeholders are put
+	 * into {@code foundParameters}.
+	 *
+	 * @param string the string that should be matched
+	 * @param foundParameters the found placeholders
+	 * @return {@code true} if the {@code string} matches this rule
+	 * @deprecated use {@link #matches(String, int, PlaceholderCaptures)} instead, which doesn't allocate while matching
+	 */
+	@Deprecated
+	default boolean matches( final StringCursor string, final Map<String, String> foundParameters ) {
+		final String chars = new String( string.chars );
+		final PlaceholderCaptures captures = new PlaceholderCaptures();
+		final int position = matches( chars, string.cursor, captures );
+		captures.copyTo( chars, foundParameters );
+		if ( position < 0 )
+			return false;
+		string.cursorAt( position );
+		return true;
+	}
 
 	void replace( final StringBuilder buffer , final Map<String, String> foundParameters  );
 }
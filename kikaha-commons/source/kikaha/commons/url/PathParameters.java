@@ -0,0 +1,84 @@
+package kikaha.commons.url;
+
+import java.util.*;
+
+/**
+ * An immutable {@link Map} of placeholders found on a matched string. The value
+ * of each placeholder is only extracted from the matched string when it is read.
+ */
+class PathParameters extends AbstractMap<String, String> {
+
+	final String string;
+	final String[] names;
+	final int[] offsets;
+	final String[] values;
+
+	PathParameters( final String string, final String[] names, final int[] offsets ) {
+		this.string = string;
+		this.names = names;
+		this.offsets = offsets;
+		this.values = new String[names.length];
+	}
+
+	@Override
+	public String get( final Object key ) {
+		final int i = indexOf( key );
+		return i < 0 ? null : valueAt( i );
+	}
+
+	@Override
+	public boolean containsKey( final Object key ) {
+		return indexOf( key ) >= 0;
+	}
+
+	@Override
+	public int size() {
+		return names.length;
+	}
+
+	private int indexOf( final Object key ) {
+		for ( int i = 0; i < names.length; i++ )
+			if ( names[i].equals( key ) )
+				return i;
+		return -1;
+	}
+
+	private String valueAt( final int i ) {
+		String value = values[i];
+		if ( value == null )
+			values[i] = value = string.substring( offsets[i * 2], offsets[i * 2 + 1] );
+		return value;
+	}
+
+	@Override
+	public Set<Entry<String, String>> entrySet() {
+		return new AbstractSet<Entry<String, String>>() {
+
+			@Override
+			public Iterator<Entry<String, String>> iterator() {
+				return new Iterator<Entry<String, String>>() {
+
+					int i = 0;
+
+					@Override
+					public boolean hasNext() {
+						return i < names.length;
+					}
+
+					@Override
+					public Entry<String, String> next() {
+						if ( !hasNext() )
+							throw new NoSuchElementException();
+						final int current = i++;
+						return new SimpleImmutableEntry<>( names[current], valueAt( current ) );
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return names.length;
+			}
+		};
+	}
+}
@@ -11,11 +11,11 @@ public class PlaceHolderForAnyStringUntilEndMatcher implements Matcher {
 	final boolean doNotIgnoreSlashes;
 
 	@Override
-	public boolean matches( final StringCursor string , final Map<String, String> foundParameters  ) {
-		string.mark();
-		string.end();
-		foundParameters.put(placeholder, string.substringFromLastMark());
-		return true;
+	public int matches( final String string, final int offset, final PlaceholderCaptures captures ) {
+		final int end = string.length();
+		if ( captures != null )
+			captures.add( placeholder, offset, end );
+		return end;
 	}
 
 	@Override
@@ -0,0 +1,96 @@
+package kikaha.commons.url;
+
+import java.util.*;
+
+/**
+ * Placeholders found while a {@link Matcher} walks through a string. Each
+ * placeholder is stored as a (start,end) pair of offsets of the matched
+ * string, so no {@link String} is created until its value is actually read.<br>
+ * <br>
+ * Instances are meant to be reused: {@link #forCurrentThread()} retrieves a
+ * cleared buffer bound to the current thread.
+ */
+public class PlaceholderCaptures {
+
+	static final ThreadLocal<PlaceholderCaptures> CAPTURES = ThreadLocal.withInitial( PlaceholderCaptures::new );
+
+	String[] names = new String[4];
+	int[] offsets = new int[8];
+	int size;
+
+	/**
+	 * Retrieve an empty buffer bound to the current thread.
+	 *
+	 * @return an empty buffer.
+	 */
+	public static PlaceholderCaptures forCurrentThread() {
+		final PlaceholderCaptures captures = CAPTURES.get();
+		captures.clear();
+		return captures;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Memorize the position of a placeholder. If the same placeholder was
+	 * found before its previous position will be replaced.
+	 *
+	 * @param name
+	 * @param start
+	 * @param end
+	 */
+	public void add( final String name, final int start, final int end ) {
+		int i = indexOf( name );
+		if ( i < 0 ) {
+			if ( size == names.length )
+				grow();
+			i = size++;
+			names[i] = name;
+		}
+		offsets[i * 2] = start;
+		offsets[i * 2 + 1] = end;
+	}
+
+	private int indexOf( final String name ) {
+		for ( int i = 0; i < size; i++ )
+			if ( names[i].equals( name ) )
+				return i;
+		return -1;
+	}
+
+	private void grow() {
+		names = Arrays.copyOf( names, names.length * 2 );
+		offsets = Arrays.copyOf( offsets, offsets.length * 2 );
+	}
+
+	/**
+	 * Put the found placeholders, extracted from {@code string}, into {@code parameters}.
+	 *
+	 * @param string the matched string
+	 * @param parameters
+	 */
+	public void copyTo( final String string, final Map<String, String> parameters ) {
+		for ( int i = 0; i < size; i++ )
+			parameters.put( names[i], string.substring( offsets[i * 2], offsets[i * 2 + 1] ) );
+	}
+
+	/**
+	 * Create an immutable {@link Map} of the found placeholders that only
+	 * extracts their values from {@code string} when they are read.
+	 *
+	 * @param string the matched string
+	 * @return the found placeholders
+	 */
+	public Map<String, String> toMap( final String string ) {
+		if ( size == 0 )
+			return Collections.emptyMap();
+		return new PathParameters( string,
+			Arrays.copyOf( names, size ), Arrays.copyOf( offsets, size * 2 ) );
+	}
+}
@@ -6,8 +6,8 @@ import lombok.RequiredArgsConstructor;
 public class StringCursor {
 
 	final char[] chars;
-	volatile int cursor;
-	volatile int mark;
+	int cursor;
+	int mark;
 
 	public StringCursor( final String chars ) {
 		this( chars.toCharArray() );
@@ -69,20 +69,6 @@ public class StringCursor {
 		cursor = mark;
 	}
 
-	/**
-	 * Check if the following characters in cursor matches the remaining
-	 * characters in {@code string} argument.
-	 *
-	 * @param string
-	 * @return
-	 */
-	boolean matches( final StringCursor string ) {
-		while ( hasNext() && string.hasNext() )
-			if ( next() != string.next() )
-				return false;
-		return !hasNext();
-	}
-
 	/**
 	 * Shift the cursor to the next occurrence of {@code ch} and returns
 	 * {@code true}. Otherwise, it will keep the cursor at same position, but
@@ -121,10 +107,7 @@ public class StringCursor {
 	 * @return
 	 */
 	public String substringFromLastMark( final int ignoredLastChars ) {
-		final StringBuilder buffer = new StringBuilder();
-		for ( int i = mark; i < cursor - ignoredLastChars; i++ )
-			buffer.append( chars[i] );
-		return buffer.toString();
+		return new String( chars, mark, Math.max( 0, cursor - ignoredLastChars - mark ) );
 	}
 
 	@Override
@@ -6,8 +6,96 @@ public interface URL {
 
 	static String removeTrailingCharacter( final String original ) {
 		int offset = original.length() - 1;
-		for ( ; original.charAt( offset ) == '/' && offset > 0; offset-- );
-		return original.substring(0, offset + 1);
+		for ( ; offset > 0 && original.charAt( offset ) == '/'; offset-- );
+		return offset == original.length() - 1 ? original : original.substring(0, offset + 1);
+	}
+
+	/**
+	 * Normalize a request path, removing its trailing slashes and, optionally,
+	 * its duplicated slashes and its {@code .} and {@code ..} segments. The
+	 * {@code path} is scanned once and returned as is when it is already normalized,
+	 * thus no object is created in the common case.
+	 *
+	 * @param path
+	 * @param collapseDuplicateSlashes
+	 * @param removeDotSegments
+	 * @return the normalized path
+	 */
+	static String normalize( final String path, final boolean collapseDuplicateSlashes, final boolean removeDotSegments ) {
+		if ( isNormalized( path, collapseDuplicateSlashes, removeDotSegments ) )
+			return path;
+
+		final int length = path.length();
+		final char[] normalized = new char[ length ];
+		int size = 0;
+		for ( int i = 0; i < length; ) {
+			final char c = path.charAt( i );
+			if ( c == '/' ) {
+				if ( !collapseDuplicateSlashes || size == 0 || normalized[size - 1] != '/' )
+					normalized[size++] = c;
+				i++;
+				continue;
+			}
+
+			int end = path.indexOf( '/', i );
+			if ( end < 0 )
+				end = length;
+			final int dots = removeDotSegments ? countDotsOfSegment( path, i, end ) : 0;
+			if ( dots == 2 )
+				size = startOfPreviousSegment( normalized, size );
+			if ( dots > 0 ) {
+				i = end + 1;
+				continue;
+			}
+			path.getChars( i, end, normalized, size );
+			size += end - i;
+			i = end;
+		}
+
+		for ( ; size > 1 && normalized[size - 1] == '/'; size-- );
+		return new String( normalized, 0, size );
+	}
+
+	static boolean isNormalized( final String path, final boolean collapseDuplicateSlashes, final boolean removeDotSegments ) {
+		final int length = path.length();
+		if ( length > 1 && path.charAt( length - 1 ) == '/' )
+			return false;
+		if ( !collapseDuplicateSlashes && !removeDotSegments )
+			return true;
+
+		char previous = '/';
+		for ( int i = 0; i < length; i++ ) {
+			final char c = path.charAt( i );
+			if ( previous == '/' ) {
+				if ( c == '/' && collapseDuplicateSlashes && i > 0 )
+					return false;
+				if ( c == '.' && removeDotSegments ) {
+					int end = path.indexOf( '/', i );
+					if ( countDotsOfSegment( path, i, end < 0 ? length : end ) > 0 )
+						return false;
+				}
+			}
+			previous = c;
+		}
+		return true;
+	}
+
+	/**
+	 * @return 1 if the segment is {@code .}, 2 if it is {@code ..} or 0 otherwise
+	 */
+	static int countDotsOfSegment( final String path, final int begin, final int end ) {
+		final int length = end - begin;
+		if ( length < 1 || length > 2 || path.charAt( begin ) != '.' )
+			return 0;
+		return length == 1 || path.charAt( begin + 1 ) == '.' ? length : 0;
+	}
+
+	static int startOfPreviousSegment( final char[] normalized, final int size ) {
+		int offset = size - 1;
+		if ( offset < 1 )
+			return size;
+		for ( offset--; offset >= 0 && normalized[offset] != '/'; offset-- );
+		return offset + 1;
 	}
 
 	static Tuple<String, String> fixContentType( String contentType, String defaultEncoding ){
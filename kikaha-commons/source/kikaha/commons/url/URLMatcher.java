@@ -8,24 +8,70 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
-@RequiredArgsConstructor
 public class URLMatcher implements Matcher, Comparable<URLMatcher> {
 
 	public static final URLMatcher EMPTY = new URLMatcher( Collections.emptyList() );
 
 	final List<Matcher> patternMatchers;
+	final Matcher[] matchers;
+
+	public URLMatcher( final List<Matcher> patternMatchers ) {
+		this.patternMatchers = patternMatchers;
+		this.matchers = patternMatchers.toArray( new Matcher[0] );
+	}
 
+	/**
+	 * Check if the {@code string} matches this pattern. Found placeholders are
+	 * put into {@code foundParameters}, even the ones found before the rule that
+	 * didn't match. No object is created when {@code foundParameters} is {@code null}.
+	 *
+	 * @param string
+	 * @param foundParameters
+	 * @return {@code true} if the {@code string} matches this pattern
+	 */
 	public boolean matches( final String string, final Map<String, String> foundParameters ) {
-		return matches( new StringCursor( string ), foundParameters );
+		if ( foundParameters == null )
+			return matches( string, 0, null ) >= 0;
+
+		final PlaceholderCaptures captures = PlaceholderCaptures.forCurrentThread();
+		final boolean matched = matches( string, 0, captures ) >= 0;
+		captures.copyTo( string, foundParameters );
+		return matched;
 	}
 
+	/**
+	 * @deprecated use {@link #matches(String, Map)} instead, which doesn't allocate while matching
+	 */
 	@Override
+	@Deprecated
 	public boolean matches( final StringCursor string, final Map<String, String> foundParameters ) {
 		string.reset();
-		for ( final Matcher matcher : patternMatchers )
-			if ( !matcher.matches( string, foundParameters ) )
-				return false;
-		return true;
+		return Matcher.super.matches( string, foundParameters );
+	}
+
+	/**
+	 * Check if the {@code string} matches this pattern and returns the found
+	 * placeholders. Their values are only extracted from the {@code string}
+	 * when read from the returned {@link Map}.
+	 *
+	 * @param string
+	 * @return the found placeholders or {@code null} if the {@code string} doesn't match this pattern
+	 */
+	public Map<String, String> matchAndCapture( final String string ) {
+		final PlaceholderCaptures captures = PlaceholderCaptures.forCurrentThread();
+		if ( matches( string, 0, captures ) < 0 )
+			return null;
+		return captures.toMap( string );
+	}
+
+	@Override
+	public int matches( final String string, int offset, final PlaceholderCaptures captures ) {
+		for ( final Matcher matcher : matchers ) {
+			offset = matcher.matches( string, offset, captures );
+			if ( offset < 0 )
+				return -1;
+		}
+		return offset;
 	}
 
 	public static URLMatcher compile( final String string ) {
@@ -4,9 +4,12 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.lang.management.ManagementFactory;
 import java.util.HashMap;
 import java.util.Map;
 
+import kikaha.commons.url.EqualsMatcher;
+import kikaha.commons.url.StringCursor;
 import kikaha.commons.url.URLMatcher;
 import lombok.val;
 
@@ -110,4 +113,66 @@ public class URLMatcherTest {
 		assertTrue( "Did not matched /path", matcher.matches( "/path", params ) );
 		assertTrue( "Did not matched /path/user", matcher.matches( "/path/user", params ) );
 	}
+
+	@Test
+	public void ensureThatPlaceholdersFoundBeforeAMismatchAreKept(){
+		val params = new HashMap<String, String>();
+		val matcher = URLMatcher.compile( "/users/{id}/page/{page}/" );
+		assertFalse( matcher.matches( "/users/123/page/10/details", params ) );
+		assertEquals( "123", params.get( "id" ) );
+		assertEquals( "10", params.get( "page" ) );
+		assertTrue( matcher.matches( "/users/456/page/20/", params ) );
+		assertEquals( "456", params.get( "id" ) );
+		assertEquals( "20", params.get( "page" ) );
+	}
+
+	@Test
+	@SuppressWarnings( "deprecation" )
+	public void ensureThatCanStillMatchThroughAStringCursor(){
+		val params = new HashMap<String, String>();
+		val matcher = URLMatcher.compile( "/users/{id}/page/{page}/" );
+		val cursor = new StringCursor( "/users/123/page/10/" );
+		cursor.end();
+		assertTrue( matcher.matches( cursor, params ) );
+		assertFalse( cursor.hasNext() );
+		assertEquals( "123", params.get( "id" ) );
+		assertEquals( "10", params.get( "page" ) );
+
+		val prefix = new StringCursor( "/users/123" );
+		assertTrue( new EqualsMatcher( "/users/" ).matches( prefix, params ) );
+		assertEquals( "/users/", prefix.substringUntilCursor() );
+	}
+
+	@Test
+	public void ensureThatCanMatchAndCapturePlaceholders(){
+		val matcher = URLMatcher.compile( "/users/{id}/page/{page}", true );
+		assertEquals( null, matcher.matchAndCapture( "/users/123" ) );
+		val params = matcher.matchAndCapture( "/users/123/page/10/20" );
+		assertEquals( 2, params.size() );
+		assertEquals( "123", params.get( "id" ) );
+		assertEquals( "10/20", params.get( "page" ) );
+		assertEquals( null, params.get( "unknown" ) );
+		val copy = new HashMap<String, String>( params );
+		assertEquals( "123", copy.get( "id" ) );
+		assertEquals( "10/20", copy.get( "page" ) );
+	}
+
+	@Test
+	public void ensureThatMatchingWithoutParametersDoesNotAllocateMemory(){
+		val matcher = URLMatcher.compile( "/users/{id}/page/*/" );
+		for ( int i = 0; i < MANY_TIMES; i++ ) {
+			assertTrue( matcher.matches( "/users/123/page/10/", null ) );
+			assertFalse( matcher.matches( "/users/123/page", null ) );
+		}
+
+		val threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		final long threadId = Thread.currentThread().getId();
+		final long allocatedBytesBefore = threadMXBean.getThreadAllocatedBytes( threadId );
+		for ( int i = 0; i < MANY_TIMES; i++ ) {
+			assertTrue( matcher.matches( "/users/123/page/10/", null ) );
+			assertFalse( matcher.matches( "/users/123/page", null ) );
+		}
+		final long allocatedBytes = threadMXBean.getThreadAllocatedBytes( threadId ) - allocatedBytesBefore;
+		assertTrue( "Allocated " + allocatedBytes + " bytes", allocatedBytes < 1024 );
+	}
 }
@@ -0,0 +1,48 @@
+package kikaha.commons.url;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link URL}.
+ */
+public class URLTest {
+
+	@Test
+	public void ensureThatReturnsTheSamePathWhenItIsAlreadyNormalized() {
+		for ( final String path : new String[]{ "/", "", "/user", "/user/123/details", "/files/app.js", "/a/.b/c.." } ) {
+			assertSame( path, URL.normalize( path, true, true ) );
+			assertSame( path, URL.normalize( path, false, false ) );
+			assertSame( path, URL.removeTrailingCharacter( path ) );
+		}
+	}
+
+	@Test
+	public void ensureThatRemovesTrailingSlashes() {
+		assertEquals( "/user", URL.normalize( "/user/", false, false ) );
+		assertEquals( "/user", URL.normalize( "/user///", false, false ) );
+		assertEquals( "/", URL.normalize( "//", false, false ) );
+		assertEquals( "/user", URL.removeTrailingCharacter( "/user//" ) );
+	}
+
+	@Test
+	public void ensureThatCollapsesDuplicatedSlashesOnlyWhenAsked() {
+		assertEquals( "/user/123/details", URL.normalize( "//user//123///details/", true, false ) );
+		assertEquals( "//user//123", URL.normalize( "//user//123", false, false ) );
+	}
+
+	@Test
+	public void ensureThatRemovesDotSegmentsOnlyWhenAsked() {
+		assertEquals( "/user/details", URL.normalize( "/user/./details", false, true ) );
+		assertEquals( "/details", URL.normalize( "/user/../details", false, true ) );
+		assertEquals( "/user", URL.normalize( "/user/123/..", false, true ) );
+		assertEquals( "/user", URL.normalize( "/user/.", false, true ) );
+		assertEquals( "/details", URL.normalize( "/../../details", false, true ) );
+		assertEquals( "/user/../details", URL.normalize( "/user/../details", true, false ) );
+	}
+
+	@Test
+	public void ensureThatCollapsesSlashesAndRemovesDotSegmentsAtOnce() {
+		assertEquals( "/files/app.js", URL.normalize( "//files//./static/..//app.js/", true, true ) );
+	}
+}
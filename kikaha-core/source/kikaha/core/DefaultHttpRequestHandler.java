@@ -5,10 +5,22 @@ import io.undertow.server.HttpServerExchange;
 import kikaha.commons.url.URL;
 import lombok.RequiredArgsConstructor;
 
+/**
+ * The entry point of every request. It canonicalizes the relative path once,
+ * thus the routing handler, the authentication rules and the static resource
+ * handlers can rely on {@link HttpServerExchange#getRelativePath()} without
+ * normalizing it again.
+ */
 @RequiredArgsConstructor
 public class DefaultHttpRequestHandler implements HttpHandler {
 
 	final DeploymentContext context;
+	final boolean collapseDuplicateSlashes;
+	final boolean removeDotSegments;
+
+	public DefaultHttpRequestHandler( final DeploymentContext context ) {
+		this( context, false, false );
+	}
 
 	@Override
 	public void handleRequest( final HttpServerExchange exchange ) throws Exception {
@@ -17,9 +29,9 @@ public class DefaultHttpRequestHandler implements HttpHandler {
 	}
 
 	void fixRelativePath( final HttpServerExchange exchange ) {
-		final String relativePath = exchange.getRelativePath().equals("/")
-			? exchange.getRelativePath()
-			: URL.removeTrailingCharacter( exchange.getRelativePath() );
-		exchange.setRelativePath( relativePath );
+		final String relativePath = exchange.getRelativePath();
+		final String normalizedPath = URL.normalize( relativePath, collapseDuplicateSlashes, removeDotSegments );
+		if ( normalizedPath != relativePath )
+			exchange.setRelativePath( normalizedPath );
 	}
-}
\ No newline at end of file
+}
@@ -5,6 +5,7 @@ import javax.inject.*;
 import io.undertow.server.HttpHandler;
 import io.undertow.util.Methods;
 import kikaha.commons.url.*;
+import kikaha.config.Config;
 import lombok.*;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
@@ -24,9 +25,17 @@ public class DeploymentContext {
 	@Inject
 	NotFoundHandler notFoundHandler;
 
+	@Inject
+	Config config;
+
 	@PostConstruct
-	public void ensureThatUseNotFoundHandlerAsDefaultFallbackHandler(){
+	public void configureRoutingHandler(){
 		routingHandler.setFallbackHandler( notFoundHandler );
+		if ( config.getBoolean( "server.routing.cache.enabled", false ) ) {
+			final int maxSize = config.getInteger( "server.routing.cache.max-size", 1000 );
+			log.info( "Caching up to " + maxSize + " resolved routes" );
+			routingHandler.setRouteCache( new RouteResolutionCache( maxSize ) );
+		}
 	}
 
 	public DeploymentContext register(final String uri, final HttpHandler handler ) {
@@ -45,6 +54,20 @@ public class DeploymentContext {
 		return this;
 	}
 
+	/**
+	 * Register a route that will only be served to requests sent to {@code host}.
+	 * Wildcard subdomains, like {@code *.example.com}, are also accepted.
+	 */
+	public DeploymentContext register(final String host, String uri, final String method, final HttpHandler handler ) {
+		if ( SimpleRoutingHandler.isAnyHost( host ) )
+			return register( uri, method, handler );
+		uri = URL.removeTrailingCharacter( uri );
+		log.info( "Registering route: " + method + ":" + host + uri );
+		log.debug( "  > " + handler.toString() + " (" + handler.getClass().getCanonicalName() + ")" );
+		this.routingHandler.add( host, method, uri, handler );
+		return this;
+	}
+
 	public DeploymentContext fallbackHandler(final HttpHandler fallbackHandler ) {
 		routingHandler.setFallbackHandler( fallbackHandler );
 		return this;
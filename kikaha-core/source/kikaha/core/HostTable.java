@@ -0,0 +1,81 @@
+package kikaha.core;
+
+/**
+ * An open-addressing hash table of host names that can be queried with a region
+ * of the {@code Host} header, avoiding the creation of substrings. Host names
+ * are compared ignoring their case.
+ */
+class HostTable<V> {
+
+	String[] keys = new String[0];
+	Object[] values = new Object[0];
+	int size;
+
+	@SuppressWarnings( "unchecked" )
+	V get( final String host, final int begin, final int end ) {
+		if ( size == 0 )
+			return null;
+		final int length = end - begin;
+		final int mask = keys.length - 1;
+		int i = hash( host, begin, end ) & mask;
+		String key;
+		while ( ( key = keys[i] ) != null ) {
+			if ( key.length() == length && key.regionMatches( true, 0, host, begin, length ) )
+				return (V)values[i];
+			i = ( i + 1 ) & mask;
+		}
+		return null;
+	}
+
+	void put( final String host, final V value ) {
+		if ( ( size + 1 ) * 2 > keys.length )
+			resize( Math.max( 4, keys.length * 2 ) );
+		if ( insert( host, value ) )
+			size++;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	private void resize( final int capacity ) {
+		final String[] oldKeys = keys;
+		final Object[] oldValues = values;
+		keys = new String[capacity];
+		values = new Object[capacity];
+		for ( int i = 0; i < oldKeys.length; i++ )
+			if ( oldKeys[i] != null )
+				insert( oldKeys[i], oldValues[i] );
+	}
+
+	private boolean insert( final String host, final Object value ) {
+		final int mask = keys.length - 1;
+		int i = hash( host, 0, host.length() ) & mask;
+		while ( keys[i] != null ) {
+			if ( keys[i].equalsIgnoreCase( host ) ) {
+				values[i] = value;
+				return false;
+			}
+			i = ( i + 1 ) & mask;
+		}
+		keys[i] = host;
+		values[i] = value;
+		return true;
+	}
+
+	static int hash( final String host, final int begin, final int end ) {
+		int hash = 0;
+		for ( int i = begin; i < end; i++ )
+			hash = 31 * hash + Character.toLowerCase( host.charAt( i ) );
+		return hash ^ ( hash >>> 16 );
+	}
+
+	/**
+	 * @return the position where the host name of a {@code Host} header ends, ignoring its port
+	 */
+	static int endOfHost( final String hostHeader ) {
+		final int begin = hostHeader.startsWith( "[" ) ? hostHeader.indexOf( ']' ) : 0;
+		final int portSeparator = hostHeader.indexOf( ':', Math.max( begin, 0 ) );
+		return portSeparator < 0 ? hostHeader.length() : portSeparator;
+	}
+}
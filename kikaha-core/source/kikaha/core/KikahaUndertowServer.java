@@ -1,6 +1,7 @@
 package kikaha.core;
 
 import io.undertow.Undertow;
+import kikaha.config.Config;
 import kikaha.core.cdi.Application;
 import kikaha.core.modules.ModuleLoader;
 import lombok.Getter;
@@ -23,6 +24,9 @@ public class KikahaUndertowServer implements Application {
 	@Inject
 	ModuleLoader loader;
 
+	@Inject
+	Config config;
+
 	Undertow server;
 
 	@Override
@@ -40,7 +44,10 @@ public class KikahaUndertowServer implements Application {
 		Runtime.getRuntime().addShutdownHook( new UndertowShutdownHook() );
 		final Undertow.Builder undertow = Undertow.builder();
 		loader.load( undertow, deploymentContext );
-		undertow.setHandler( new DefaultHttpRequestHandler( deploymentContext ) );
+		deploymentContext.routingHandler().freeze();
+		undertow.setHandler( new DefaultHttpRequestHandler( deploymentContext,
+			config.getBoolean( "server.routing.collapse-duplicate-slashes" ),
+			config.getBoolean( "server.routing.remove-dot-segments" ) ) );
 		server = undertow.build();
 	}
 
@@ -0,0 +1,15 @@
+package kikaha.core;
+
+import io.undertow.server.HttpHandler;
+
+/**
+ * An {@link HttpHandler} that never blocks, thus it is meant to run on the IO thread.<br>
+ * <br>
+ * Handlers that wrap the root handler and would otherwise dispatch the request
+ * to a worker thread (e.g. the authentication handler, when no authentication
+ * is required) call the route in place once {@link SimpleRoutingHandler#isRoutedToNonBlockingHandler}
+ * tells them the request will be served by one of these. Wrapping it into another
+ * handler before registering the route opts the route out of this behavior.
+ */
+public interface NonBlockingHttpHandler extends HttpHandler {
+}
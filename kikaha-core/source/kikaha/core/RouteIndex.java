@@ -0,0 +1,230 @@
+package kikaha.core;
+
+import java.util.*;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A segment-trie index of the routes registered for a single HTTP method.<br>
+ * <br>
+ * Static segments are resolved through a hash lookup over the request path, while
+ * segments made of a single {@code {placeholder}} or {@code *} are resolved through
+ * a typed child edge. Patterns that can't be expressed as a sequence of whole
+ * segments (e.g. {@code /files/*.js}) are kept aside and evaluated with their
+ * {@link kikaha.commons.url.URLMatcher}. When more than one route matches a given
+ * path, the one that would be found first by a linear scan ordered by
+ * {@link kikaha.commons.url.URLMatcher#compareTo(kikaha.commons.url.URLMatcher)}
+ * wins.
+ */
+class RouteIndex {
+
+	final Node root = new Node();
+	final List<Route> unindexedRoutes = new ArrayList<>();
+	int sequence;
+
+	public void add( final Entry entry ) {
+		final Route route = new Route( entry, sequence++ );
+		final List<String> segments = splitIntoSegments( entry.getUrl() );
+		if ( isIndexable( segments ) )
+			index( route, segments );
+		else {
+			unindexedRoutes.add( route );
+			Collections.sort( unindexedRoutes );
+		}
+	}
+
+	private void index( final Route route, final List<String> segments ) {
+		Node node = root;
+		node.memorize( route );
+		final int lastSegment = segments.size() - 1;
+		for ( int i = 0; i <= lastSegment; i++ ) {
+			final String segment = segments.get( i );
+			if ( !isWildcard( segment ) )
+				node = node.literals.computeIfAbsent( segment );
+			else if ( i == lastSegment ) {
+				node.tail = Route.better( node.tail, route );
+				return;
+			} else {
+				if ( node.wildcard == null )
+					node.wildcard = new Node();
+				node = node.wildcard;
+			}
+			node.memorize( route );
+		}
+		node.terminal = Route.better( node.terminal, route );
+	}
+
+	/**
+	 * Retrieve the {@link Entry} that matches the {@code url}.
+	 *
+	 * @param url
+	 * @return the matched entry or {@code null} if no route matches the {@code url}
+	 */
+	public Entry retrieveEntryThatMatches( final String url ) {
+		Route best = find( root, url, 0, null );
+		best = findUnindexedRouteThatMatches( url, best );
+		return best != null ? best.entry : null;
+	}
+
+	private Route find( final Node node, final String url, final int begin, Route best ) {
+		if ( node.best == null || ( best != null && node.best.compareTo( best ) >= 0 ) )
+			return best;
+
+		final int length = url.length();
+		if ( begin > length )
+			return Route.better( best, node.terminal );
+
+		best = Route.better( best, node.tail );
+		int end = url.indexOf( '/', begin );
+		if ( end < 0 )
+			end = length;
+
+		final Node literal = node.literals.get( url, begin, end );
+		if ( literal != null )
+			best = find( literal, url, end + 1, best );
+		if ( node.wildcard != null )
+			best = find( node.wildcard, url, end + 1, best );
+		return best;
+	}
+
+	private Route findUnindexedRouteThatMatches( final String url, final Route best ) {
+		for ( final Route route : unindexedRoutes ) {
+			if ( best != null && route.compareTo( best ) >= 0 )
+				break;
+			if ( route.entry.getMatcher().matches( url, null ) )
+				return route;
+		}
+		return best;
+	}
+
+	static List<String> splitIntoSegments( final String url ) {
+		final List<String> segments = new ArrayList<>();
+		int begin = 0, end;
+		while ( ( end = url.indexOf( '/', begin ) ) >= 0 ) {
+			segments.add( url.substring( begin, end ) );
+			begin = end + 1;
+		}
+		segments.add( url.substring( begin ) );
+		return segments;
+	}
+
+	static boolean isIndexable( final List<String> segments ) {
+		for ( final String segment : segments )
+			if ( !isWildcard( segment ) && !isLiteral( segment ) )
+				return false;
+		return true;
+	}
+
+	static boolean isWildcard( final String segment ) {
+		return "*".equals( segment )
+			|| ( segment.length() > 2 && segment.charAt( 0 ) == '{' && segment.indexOf( '}' ) == segment.length() - 1
+				&& isLiteral( segment.substring( 1, segment.length() - 1 ) ) );
+	}
+
+	static boolean isLiteral( final String segment ) {
+		return segment.indexOf( '{' ) < 0 && segment.indexOf( '*' ) < 0;
+	}
+
+	/**
+	 * A registered route and the order it was registered.
+	 */
+	@RequiredArgsConstructor
+	static class Route implements Comparable<Route> {
+
+		final Entry entry;
+		final int sequence;
+
+		@Override
+		public int compareTo( final Route route ) {
+			final int comparison = entry.compareTo( route.entry );
+			return comparison != 0 ? comparison : Integer.compare( sequence, route.sequence );
+		}
+
+		static Route better( final Route current, final Route candidate ) {
+			if ( candidate == null )
+				return current;
+			if ( current == null || candidate.compareTo( current ) < 0 )
+				return candidate;
+			return current;
+		}
+	}
+
+	static class Node {
+
+		final SegmentTable literals = new SegmentTable();
+		Node wildcard;
+		/* a route whose last segment is a wildcard that consumes the rest of the path */
+		Route tail;
+		/* a route that ends exactly at this node */
+		Route terminal;
+		/* the route with the highest precedence reachable from this node */
+		Route best;
+
+		void memorize( final Route route ) {
+			best = Route.better( best, route );
+		}
+	}
+
+	/**
+	 * An open-addressing hash table of static segments that can be queried
+	 * with a region of the request path, avoiding the creation of substrings.
+	 */
+	static class SegmentTable {
+
+		String[] keys = new String[0];
+		Node[] values = new Node[0];
+		int size;
+
+		Node get( final String url, final int begin, final int end ) {
+			if ( size == 0 )
+				return null;
+			final int length = end - begin;
+			final int mask = keys.length - 1;
+			int i = hash( url, begin, end ) & mask;
+			String key;
+			while ( ( key = keys[i] ) != null ) {
+				if ( key.length() == length && key.regionMatches( 0, url, begin, length ) )
+					return values[i];
+				i = ( i + 1 ) & mask;
+			}
+			return null;
+		}
+
+		Node computeIfAbsent( final String segment ) {
+			Node node = get( segment, 0, segment.length() );
+			if ( node == null ) {
+				if ( ( size + 1 ) * 2 > keys.length )
+					resize( Math.max( 4, keys.length * 2 ) );
+				node = new Node();
+				put( segment, node );
+				size++;
+			}
+			return node;
+		}
+
+		private void resize( final int capacity ) {
+			final String[] oldKeys = keys;
+			final Node[] oldValues = values;
+			keys = new String[capacity];
+			values = new Node[capacity];
+			for ( int i = 0; i < oldKeys.length; i++ )
+				if ( oldKeys[i] != null )
+					put( oldKeys[i], oldValues[i] );
+		}
+
+		private void put( final String segment, final Node node ) {
+			final int mask = keys.length - 1;
+			int i = hash( segment, 0, segment.length() ) & mask;
+			while ( keys[i] != null )
+				i = ( i + 1 ) & mask;
+			keys[i] = segment;
+			values[i] = node;
+		}
+
+		static int hash( final String url, final int begin, final int end ) {
+			int hash = 0;
+			for ( int i = begin; i < end; i++ )
+				hash = 31 * hash + url.charAt( i );
+			return hash ^ ( hash >>> 16 );
+		}
+	}
+}
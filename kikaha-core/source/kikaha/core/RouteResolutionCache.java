@@ -0,0 +1,163 @@
+package kikaha.core;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+
+/**
+ * A size-bounded cache of routes already resolved by the {@link SimpleRoutingHandler},
+ * keyed by the request relative path and the route index (one per host and HTTP method)
+ * that resolved it. At most {@code maxSize} routes are kept, whatever the number of
+ * hosts and methods, spread among a few LRU segments, thus concurrent requests rarely
+ * contend for the same lock.
+ */
+public class RouteResolutionCache {
+
+	static final int MAX_NUMBER_OF_SEGMENTS = 16;
+
+	final LongAdder hits = new LongAdder();
+	final LongAdder misses = new LongAdder();
+
+	@Getter
+	final int maxSize;
+	final Segment[] segments;
+
+	public RouteResolutionCache( final int maxSize ) {
+		if ( maxSize < 1 )
+			throw new IllegalArgumentException( "The route resolution cache should hold at least one entry" );
+		this.maxSize = maxSize;
+		final int numberOfSegments = Math.min( MAX_NUMBER_OF_SEGMENTS, Integer.highestOneBit( maxSize ) );
+		this.segments = new Segment[ numberOfSegments ];
+		for ( int i = 0; i < numberOfSegments; i++ )
+			segments[i] = new Segment( maxSize / numberOfSegments );
+	}
+
+	ResolvedEntry get( final RouteIndex index, final String relativePath ) {
+		final ResolvedEntry entry = segmentFor( relativePath ).get( index, relativePath );
+		if ( entry != null )
+			hits.increment();
+		else
+			misses.increment();
+		return entry;
+	}
+
+	void put( final RouteIndex index, final String relativePath, final ResolvedEntry entry ) {
+		segmentFor( relativePath ).put( index, relativePath, entry );
+	}
+
+	/**
+	 * Forget every resolved route. It should be called whenever a route is registered,
+	 * as the new route may take precedence over the cached ones.
+	 */
+	public void clear() {
+		for ( final Segment segment : segments )
+			segment.clear();
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public int size() {
+		int size = 0;
+		for ( final Segment segment : segments )
+			size += segment.size();
+		return size;
+	}
+
+	private Segment segmentFor( final String relativePath ) {
+		final int hash = relativePath.hashCode();
+		return segments[ ( hash ^ ( hash >>> 16 ) ) & ( segments.length - 1 ) ];
+	}
+
+	/**
+	 * A synchronized LRU map of request paths, each one holding the routes resolved
+	 * for it by every route index, that evicts its least recently used paths once
+	 * it holds more than {@code maxSize} routes.
+	 */
+	static class Segment {
+
+		final LinkedHashMap<String, Resolutions> entries = new LinkedHashMap<>( 16, 0.75f, true );
+		final int maxSize;
+		int size;
+
+		Segment( final int maxSize ) {
+			this.maxSize = maxSize;
+		}
+
+		synchronized ResolvedEntry get( final RouteIndex index, final String relativePath ) {
+			final Resolutions resolutions = entries.get( relativePath );
+			return resolutions != null ? resolutions.get( index ) : null;
+		}
+
+		synchronized void put( final RouteIndex index, final String relativePath, final ResolvedEntry entry ) {
+			final Resolutions resolutions = entries.get( relativePath );
+			if ( resolutions == null ) {
+				entries.put( relativePath, new Resolutions( index, entry ) );
+				size++;
+			} else if ( resolutions.put( index, entry ) )
+				size++;
+
+			final Iterator<Resolutions> iterator = entries.values().iterator();
+			while ( size > maxSize && iterator.hasNext() ) {
+				size -= iterator.next().size();
+				iterator.remove();
+			}
+		}
+
+		synchronized void clear() {
+			entries.clear();
+			size = 0;
+		}
+
+		synchronized int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * The routes resolved for a single request path, one per route index. Requests
+	 * usually reach a path through a single method and host, thus it is searched linearly.
+	 */
+	static class Resolutions {
+
+		RouteIndex[] indexes;
+		ResolvedEntry[] entries;
+
+		Resolutions( final RouteIndex index, final ResolvedEntry entry ) {
+			indexes = new RouteIndex[]{ index };
+			entries = new ResolvedEntry[]{ entry };
+		}
+
+		ResolvedEntry get( final RouteIndex index ) {
+			for ( int i = 0; i < indexes.length; i++ )
+				if ( indexes[i] == index )
+					return entries[i];
+			return null;
+		}
+
+		/**
+		 * @return {@code true} if {@code index} had no route resolved yet
+		 */
+		boolean put( final RouteIndex index, final ResolvedEntry entry ) {
+			for ( int i = 0; i < indexes.length; i++ )
+				if ( indexes[i] == index ) {
+					entries[i] = entry;
+					return false;
+				}
+			indexes = Arrays.copyOf( indexes, indexes.length + 1 );
+			entries = Arrays.copyOf( entries, entries.length + 1 );
+			indexes[ indexes.length - 1 ] = index;
+			entries[ entries.length - 1 ] = entry;
+			return true;
+		}
+
+		int size() {
+			return indexes.length;
+		}
+	}
+}
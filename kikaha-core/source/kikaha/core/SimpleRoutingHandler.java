@@ -6,62 +6,302 @@ import io.undertow.util.*;
 import kikaha.commons.url.URLMatcher;
 import lombok.*;
 
+/**
+ * Routes requests to the handlers registered for its host, method and path.<br>
+ * <br>
+ * Routes are registered in two phases: they are staged through {@code add} methods
+ * and, once every module has been loaded, {@link #freeze()} sorts and indexes
+ * them a single time into an immutable {@link RoutingSnapshot}. Requests are
+ * served from that snapshot without any lock. Registering a route after
+ * it has been frozen discards the snapshot, which is lazily rebuilt by the
+ * next request.<br>
+ * <br>
+ * Routes bound to a host (e.g. {@code api.example.com}) or to a wildcard
+ * subdomain (e.g. {@code *.example.com}) are looked up by the {@code Host}
+ * header before the path is matched, falling back to the routes that
+ * are served regardless of the host.<br>
+ * <br>
+ * Handlers that wrap the router may ask whether a request will be served by a
+ * {@link NonBlockingHttpHandler} through {@link #isRoutedToNonBlockingHandler}.
+ * The route resolved to answer it is attached to the request, thus it is not
+ * resolved again once the request reaches the router.
+ */
 @Getter
-@Setter
 public class SimpleRoutingHandler implements HttpHandler {
 
+	static final AttachmentKey<ResolvedRoute> RESOLVED_ROUTE = AttachmentKey.create( ResolvedRoute.class );
+
+	/* routes served regardless of the requested host */
 	final Map<HttpString, List<Entry>> matchersByMethod = new HashMap<>();
 
-	@NonNull
-	volatile HttpHandler fallbackHandler;
+	/* routes bound to a host, indexed by its lower-cased name */
+	final Map<String, Map<HttpString, List<Entry>>> matchersByHost = new HashMap<>();
+
+	/* optional cache of parameterized routes already resolved, keyed by route index and path */
+	RouteResolutionCache routeCache;
+
+	HttpHandler fallbackHandler;
+
+	@Getter( AccessLevel.NONE )
+	boolean hasNonBlockingRoutes;
 
-	public synchronized void add( final String method, final String url, final HttpHandler handler ) {
+	/* volatile, so routes registered after freezing are seen by every I/O thread without a lock */
+	@Getter( AccessLevel.NONE )
+	volatile RoutingSnapshot snapshot;
+
+	public void add( final String method, final String url, final HttpHandler handler ) {
 		final HttpString methodAsHttpString = new HttpString( method );
 		add( methodAsHttpString, url, handler );
 	}
 
-	public void add( final HttpString method, final String url, final HttpHandler handler ) {
-		List<Entry> list = matchersByMethod.get( method );
-		if ( list == null )
-			matchersByMethod.put( method, list = new ArrayList<>() );
-		list.add( new Entry( url, handler ) );
-		Collections.sort( list );
+	public synchronized void add( final HttpString method, final String url, final HttpHandler handler ) {
+		stage( matchersByMethod, method, url, handler );
+	}
+
+	public void add( final String host, final String method, final String url, final HttpHandler handler ) {
+		add( host, new HttpString( method ), url, handler );
+	}
+
+	/**
+	 * Register a route that will only be served to requests sent to {@code host}.
+	 * Wildcard subdomains (e.g. {@code *.example.com}) are also accepted. An empty
+	 * (or {@code *}) host means the route is served regardless of the requested host.
+	 */
+	public synchronized void add( final String host, final HttpString method, final String url, final HttpHandler handler ) {
+		if ( isAnyHost( host ) )
+			stage( matchersByMethod, method, url, handler );
+		else
+			stage( matchersByHost.computeIfAbsent( host.toLowerCase( Locale.ENGLISH ), h -> new HashMap<>() ), method, url, handler );
+	}
+
+	private void stage( final Map<HttpString, List<Entry>> matchers, final HttpString method, final String url, final HttpHandler handler ) {
+		final Entry entry = new Entry( url, handler );
+		matchers.computeIfAbsent( method, m -> new ArrayList<>() ).add( entry );
+		hasNonBlockingRoutes |= entry.isNonBlocking();
+		snapshot = null;
+	}
+
+	public synchronized void setFallbackHandler( @NonNull final HttpHandler fallbackHandler ) {
+		this.fallbackHandler = fallbackHandler;
+		snapshot = null;
+	}
+
+	public synchronized void setRouteCache( final RouteResolutionCache routeCache ) {
+		this.routeCache = routeCache;
+		snapshot = null;
 	}
 
-	MatchedEntry retrieveEntryThatMatchesUrlFromList( final List<Entry> list, final String url ) {
-		final Map<String, String> matchedPathParameters = new HashMap<>();
-		for ( final Entry entry : list )
-			if ( entry.getMatcher().matches( url, matchedPathParameters ) )
-				return new MatchedEntry( url, entry.getHandler(), matchedPathParameters );
-		return null;
+	/**
+	 * Sort and index the registered routes into an immutable snapshot that will
+	 * be used to route the requests from now on.
+	 */
+	public synchronized void freeze() {
+		snapshot = createSnapshot();
+	}
+
+	synchronized RoutingSnapshot retrieveSnapshot() {
+		if ( snapshot == null )
+			freeze();
+		return snapshot;
+	}
+
+	private RoutingSnapshot createSnapshot() {
+		final HostTable<Routes> routesByHost = new HostTable<>();
+		final HostTable<Routes> routesByWildcardHost = new HostTable<>();
+		for ( final Map.Entry<String, Map<HttpString, List<Entry>>> entries : matchersByHost.entrySet() ) {
+			final String host = entries.getKey();
+			final Routes routes = createRoutes( entries.getValue() );
+			if ( host.startsWith( "*." ) )
+				routesByWildcardHost.put( host.substring( 1 ), routes );
+			else
+				routesByHost.put( host, routes );
+		}
+		if ( routeCache != null )
+			routeCache.clear();
+		return new RoutingSnapshot( createRoutes( matchersByMethod ), routesByHost, routesByWildcardHost,
+			fallbackHandler, routeCache, hasNonBlockingRoutes );
+	}
+
+	private Routes createRoutes( final Map<HttpString, List<Entry>> matchers ) {
+		final Map<HttpString, RouteIndex> indexesByMethod = new HashMap<>();
+		final Map<HttpString, Map<String, ResolvedEntry>> staticRoutesByMethod = new HashMap<>();
+		for ( final Map.Entry<HttpString, List<Entry>> entries : matchers.entrySet() ) {
+			final List<Entry> list = entries.getValue();
+			Collections.sort( list );
+			final RouteIndex index = new RouteIndex();
+			for ( final Entry entry : list )
+				index.add( entry );
+			indexesByMethod.put( entries.getKey(), index );
+			staticRoutesByMethod.put( entries.getKey(), retrieveStaticRoutes( list, index ) );
+		}
+		return new Routes( indexesByMethod, staticRoutesByMethod );
+	}
+
+	/**
+	 * Retrieve routes that have no placeholders and could be served by an
+	 * exact match of the request path. Static routes that would be shadowed
+	 * by a route with higher precedence are ignored.
+	 */
+	Map<String, ResolvedEntry> retrieveStaticRoutes( final List<Entry> entries, final RouteIndex index ) {
+		final Map<String, ResolvedEntry> staticRoutes = new HashMap<>();
+		for ( final Entry entry : entries )
+			if ( entry.isStatic() && index.retrieveEntryThatMatches( entry.getUrl() ) == entry )
+				staticRoutes.put( entry.getUrl(), new ResolvedEntry( entry.getHandler(),
+					new PathTemplateMatch( entry.getUrl(), Collections.emptyMap() ), entry.isNonBlocking() ) );
+		return staticRoutes;
+	}
+
+	ResolvedEntry retrieveEntryThatMatchesUrl( final RouteIndex index, final String url ) {
+		final Entry entry = index.retrieveEntryThatMatches( url );
+		if ( entry == null )
+			return null;
+		final Map<String, String> matchedPathParameters = entry.getMatcher().matchAndCapture( url );
+		return new ResolvedEntry( entry.getHandler(), new PathTemplateMatch( url, matchedPathParameters ), entry.isNonBlocking() );
 	}
 
 	// UNCHECKED: It throws Exception because it implements a superinterface method
 	@Override
 	public void handleRequest( final HttpServerExchange exchange ) throws Exception {
 	// CHECKED
+		RoutingSnapshot snapshot = this.snapshot;
+		if ( snapshot == null )
+			snapshot = retrieveSnapshot();
+
+		final ResolvedEntry entry = snapshot.hasNonBlockingRoutes
+			? retrieveRouteResolvedBefore( snapshot, exchange ) : resolve( snapshot, exchange );
+		if ( entry != null )
+			handleRequest( exchange, entry );
+		else
+			snapshot.fallbackHandler.handleRequest( exchange );
+	}
+
+	/**
+	 * Check whether {@code exchange} will be routed to a {@link NonBlockingHttpHandler}.
+	 * It costs nothing while no such handler is registered.
+	 *
+	 * @param exchange
+	 * @return {@code true} if the request will be served by a {@link NonBlockingHttpHandler}
+	 */
+	public boolean isRoutedToNonBlockingHandler( final HttpServerExchange exchange ) {
+		RoutingSnapshot snapshot = this.snapshot;
+		if ( snapshot == null )
+			snapshot = retrieveSnapshot();
+		if ( !snapshot.hasNonBlockingRoutes )
+			return false;
+		final ResolvedEntry entry = resolve( snapshot, exchange );
+		if ( entry == null )
+			return false;
+		exchange.putAttachment( RESOLVED_ROUTE, new ResolvedRoute( snapshot, exchange.getRequestMethod(), exchange.getRelativePath(), entry ) );
+		return entry.isNonBlocking();
+	}
+
+	/**
+	 * Retrieve the route resolved by {@link #isRoutedToNonBlockingHandler}, unless
+	 * the request (or the routes) has changed since then, in which case it is resolved again.
+	 */
+	ResolvedEntry retrieveRouteResolvedBefore( final RoutingSnapshot snapshot, final HttpServerExchange exchange ) {
+		final ResolvedRoute route = exchange.removeAttachment( RESOLVED_ROUTE );
+		return route != null && route.isStillValidFor( snapshot, exchange ) ? route.entry : resolve( snapshot, exchange );
+	}
+
+	ResolvedEntry resolve( final RoutingSnapshot snapshot, final HttpServerExchange exchange ) {
 		final HttpString method = exchange.getRequestMethod();
-		final List<Entry> list = matchersByMethod.get( method );
-
-		if ( list != null ) {
-			final String relativePath = exchange.getRelativePath();
-			final MatchedEntry entry = retrieveEntryThatMatchesUrlFromList( list, relativePath );
-			if ( entry != null ) {
-				handleRequest( exchange, entry );
-				return;
-			}
+		final String relativePath = exchange.getRelativePath();
+
+		if ( snapshot.hasRoutesBoundToHosts ) {
+			final Routes routes = snapshot.retrieveRoutesForHost( exchange.getRequestHeaders().getFirst( Headers.HOST ) );
+			final ResolvedEntry entry = routes != null ? resolve( routes, method, relativePath, snapshot.routeCache ) : null;
+			if ( entry != null )
+				return entry;
+		}
+
+		return resolve( snapshot.defaultRoutes, method, relativePath, snapshot.routeCache );
+	}
+
+	ResolvedEntry resolve( final Routes routes, final HttpString method, final String relativePath, final RouteResolutionCache routeCache ) {
+		final Map<String, ResolvedEntry> staticRoutes = routes.staticRoutesByMethod.get( method );
+		if ( staticRoutes != null ) {
+			final ResolvedEntry entry = staticRoutes.get( relativePath );
+			if ( entry != null )
+				return entry;
 		}
 
-		fallbackHandler.handleRequest( exchange );
+		final RouteIndex index = routes.indexesByMethod.get( method );
+		if ( index == null )
+			return null;
+		ResolvedEntry entry = routeCache != null ? routeCache.get( index, relativePath ) : null;
+		if ( entry == null ) {
+			entry = retrieveEntryThatMatchesUrl( index, relativePath );
+			if ( entry != null && routeCache != null )
+				routeCache.put( index, relativePath, entry );
+		}
+		return entry;
+	}
+
+	static boolean isAnyHost( final String host ) {
+		return host == null || host.isEmpty() || "*".equals( host );
 	}
 
-	void handleRequest( final HttpServerExchange exchange, final MatchedEntry entry ) throws Exception {
-		final PathTemplateMatch templateMatch = new PathTemplateMatch( entry.getUrl(), entry.getMatchedPathParameters() );
-		exchange.putAttachment( PathTemplateMatch.ATTACHMENT_KEY, templateMatch );
+	void handleRequest( final HttpServerExchange exchange, final ResolvedEntry entry ) throws Exception {
+		exchange.putAttachment( PathTemplateMatch.ATTACHMENT_KEY, entry.getTemplateMatch() );
 		entry.getHandler().handleRequest( exchange );
 	}
 }
 
+/**
+ * An immutable view of the routes registered at the {@link SimpleRoutingHandler}.
+ */
+class RoutingSnapshot {
+
+	final Routes defaultRoutes;
+	final HostTable<Routes> routesByHost;
+	final HostTable<Routes> routesByWildcardHost;
+	final boolean hasRoutesBoundToHosts;
+	final HttpHandler fallbackHandler;
+	final RouteResolutionCache routeCache;
+	final boolean hasNonBlockingRoutes;
+
+	RoutingSnapshot( final Routes defaultRoutes, final HostTable<Routes> routesByHost, final HostTable<Routes> routesByWildcardHost,
+					 final HttpHandler fallbackHandler, final RouteResolutionCache routeCache, final boolean hasNonBlockingRoutes )
+	{
+		this.defaultRoutes = defaultRoutes;
+		this.routesByHost = routesByHost;
+		this.routesByWildcardHost = routesByWildcardHost;
+		this.hasRoutesBoundToHosts = !routesByHost.isEmpty() || !routesByWildcardHost.isEmpty();
+		this.fallbackHandler = fallbackHandler;
+		this.routeCache = routeCache;
+		this.hasNonBlockingRoutes = hasNonBlockingRoutes;
+	}
+
+	/**
+	 * Retrieve the routes bound to the host informed by the {@code Host} header. Hosts
+	 * are looked up by their exact name first, then by their longest wildcard suffix.
+	 *
+	 * @param hostHeader
+	 * @return the routes bound to the host or {@code null} if there is none
+	 */
+	Routes retrieveRoutesForHost( final String hostHeader ) {
+		if ( hostHeader == null )
+			return null;
+		final int end = HostTable.endOfHost( hostHeader );
+		Routes routes = routesByHost.get( hostHeader, 0, end );
+		if ( routes == null && !routesByWildcardHost.isEmpty() )
+			for ( int dot = hostHeader.indexOf( '.' ); routes == null && dot >= 0 && dot < end; dot = hostHeader.indexOf( '.', dot + 1 ) )
+				routes = routesByWildcardHost.get( hostHeader, dot, end );
+		return routes;
+	}
+}
+
+/**
+ * The routes of a host, indexed by HTTP method.
+ */
+@RequiredArgsConstructor
+class Routes {
+
+	final Map<HttpString, RouteIndex> indexesByMethod;
+	final Map<HttpString, Map<String, ResolvedEntry>> staticRoutesByMethod;
+}
+
 @Value
 class Entry implements Comparable<Entry> {
 
@@ -69,22 +309,48 @@ class Entry implements Comparable<Entry> {
 		this.handler = handler;
 		this.matcher = URLMatcher.compile( url, true );
 		this.url = url;
+		this.nonBlocking = handler instanceof NonBlockingHttpHandler;
 	}
 
 	final String url;
 	final URLMatcher matcher;
 	final HttpHandler handler;
 
+	/* whether the registered handler is a NonBlockingHttpHandler */
+	final boolean nonBlocking;
+
 	@Override
 	public int compareTo(Entry entry) {
 		return matcher.compareTo( entry.matcher );
 	}
+
+	boolean isStatic() {
+		return RouteIndex.isLiteral( url );
+	}
+}
+
+/**
+ * A route resolved ahead of the router, along with the request it was resolved for.
+ */
+@RequiredArgsConstructor
+class ResolvedRoute {
+
+	final RoutingSnapshot snapshot;
+	final HttpString method;
+	final String relativePath;
+	final ResolvedEntry entry;
+
+	boolean isStillValidFor( final RoutingSnapshot snapshot, final HttpServerExchange exchange ) {
+		return this.snapshot == snapshot
+			&& method.equals( exchange.getRequestMethod() )
+			&& relativePath.equals( exchange.getRelativePath() );
+	}
 }
 
 @Value
-class MatchedEntry {
+class ResolvedEntry {
 
-	final String url;
 	final HttpHandler handler;
-	final Map<String, String> matchedPathParameters;
-}
\ No newline at end of file
+	final PathTemplateMatch templateMatch;
+	final boolean nonBlocking;
+}
@@ -0,0 +1,167 @@
+package kikaha.core.modules.compression;
+
+import java.util.List;
+import io.undertow.server.ConduitWrapper;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.AttachmentKey;
+import io.undertow.util.ConduitFactory;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+import lombok.RequiredArgsConstructor;
+import org.xnio.conduits.StreamSinkConduit;
+
+/**
+ * Compresses responses with the {@link Compressor} that best matches the
+ * {@code Accept-Encoding} header sent by the client. Whether a response is
+ * compressed is only decided once its body starts to be written, thus its
+ * {@code Content-Type} and {@code Content-Length} headers are already known:
+ * responses known to be smaller than {@code minSize}, whose content type is not
+ * allowed, or whose route {@link #disable(HttpServerExchange) disabled} it
+ * are sent uncompressed.
+ */
+@RequiredArgsConstructor
+public class CompressionHttpHandler implements HttpHandler {
+
+	static final AttachmentKey<Boolean> DISABLED = AttachmentKey.create( Boolean.class );
+
+	final HttpHandler next;
+	final List<Compressor> compressors;
+	final long minSize;
+	final List<String> contentTypes;
+
+	/**
+	 * Sends the response of {@code exchange} uncompressed. It should be called
+	 * before the response body starts to be written.
+	 *
+	 * @param exchange
+	 */
+	public static void disable( final HttpServerExchange exchange ) {
+		exchange.putAttachment( DISABLED, Boolean.TRUE );
+	}
+
+	@Override
+	public void handleRequest( final HttpServerExchange exchange ) throws Exception {
+		final Compressor compressor = negotiate( exchange.getRequestHeaders().get( Headers.ACCEPT_ENCODING ) );
+		if ( compressor != null )
+			exchange.addResponseWrapper( new CompressingConduitWrapper( compressor ) );
+		next.handleRequest( exchange );
+	}
+
+	/**
+	 * @param acceptEncoding the {@code Accept-Encoding} header values
+	 * @return the compressor with the highest quality ({@code q}), or {@code null}
+	 *         if the client accepts none of them. Ties are broken by the order of {@link #compressors}.
+	 */
+	Compressor negotiate( final HeaderValues acceptEncoding ) {
+		if ( acceptEncoding == null )
+			return null;
+		Compressor best = null;
+		float bestQuality = 0;
+		for ( final Compressor compressor : compressors ) {
+			final float quality = qualityOf( compressor.encoding(), acceptEncoding );
+			if ( quality > bestQuality ) {
+				best = compressor;
+				bestQuality = quality;
+			}
+		}
+		return best;
+	}
+
+	static float qualityOf( final String encoding, final HeaderValues acceptEncoding ) {
+		float wildcard = 0;
+		for ( final String value : acceptEncoding )
+			for ( final String coding : value.split( "," ) ) {
+				final int separator = coding.indexOf( ';' );
+				final String name = ( separator < 0 ? coding : coding.substring( 0, separator ) ).trim();
+				if ( name.equalsIgnoreCase( encoding ) )
+					return parseQuality( coding, separator );
+				if ( name.equals( "*" ) )
+					wildcard = parseQuality( coding, separator );
+			}
+		return wildcard;
+	}
+
+	static float parseQuality( final String coding, final int separator ) {
+		if ( separator < 0 )
+			return 1;
+		final String parameter = coding.substring( separator + 1 ).trim();
+		if ( parameter.length() < 2 || Character.toLowerCase( parameter.charAt( 0 ) ) != 'q' || parameter.charAt( 1 ) != '=' )
+			return 1;
+		try {
+			final float quality = Float.parseFloat( parameter.substring( 2 ).trim() );
+			return Float.isNaN( quality ) ? 0 : Math.max( 0, Math.min( 1, quality ) );
+		} catch ( NumberFormatException cause ) {
+			return 0;
+		}
+	}
+
+	boolean shouldCompress( final HttpServerExchange exchange ) {
+		if ( exchange.getAttachment( DISABLED ) != null || Methods.HEAD.equals( exchange.getRequestMethod() ) )
+			return false;
+		final int statusCode = exchange.getStatusCode();
+		if ( statusCode < 200 || statusCode == 204 || statusCode == 304 )
+			return false;
+		final HeaderMap headers = exchange.getResponseHeaders();
+		if ( headers.contains( Headers.CONTENT_ENCODING ) || headers.contains( Headers.CONTENT_RANGE ) )
+			return false;
+		final long contentLength = exchange.getResponseContentLength();
+		if ( contentLength >= 0 && contentLength < minSize )
+			return false;
+		return isCompressible( headers.getFirst( Headers.CONTENT_TYPE ) );
+	}
+
+	/**
+	 * @param contentType
+	 * @return {@code true} if {@code contentType} matches one of the allowed
+	 *         content types, where {@code text/*} matches any text content type.
+	 */
+	boolean isCompressible( final String contentType ) {
+		if ( contentType == null )
+			return false;
+		for ( final String allowed : contentTypes ) {
+			if ( allowed.endsWith( "/*" ) ) {
+				if ( contentType.regionMatches( true, 0, allowed, 0, allowed.length() - 1 ) )
+					return true;
+			} else if ( contentType.regionMatches( true, 0, allowed, 0, allowed.length() ) ) {
+				if ( contentType.length() == allowed.length() )
+					return true;
+				final char next = contentType.charAt( allowed.length() );
+				if ( next == ';' || next == ' ' )
+					return true;
+			}
+		}
+		return false;
+	}
+
+	@RequiredArgsConstructor
+	class CompressingConduitWrapper implements ConduitWrapper<StreamSinkConduit> {
+
+		final Compressor compressor;
+
+		@Override
+		public StreamSinkConduit wrap( final ConduitFactory<StreamSinkConduit> factory, final HttpServerExchange exchange ) {
+			if ( !shouldCompress( exchange ) )
+				return factory.create();
+
+			final HeaderMap headers = exchange.getResponseHeaders();
+			headers.remove( Headers.CONTENT_LENGTH );
+			headers.put( Headers.CONTENT_ENCODING, compressor.encoding() );
+			headers.add( Headers.VARY, Headers.ACCEPT_ENCODING_STRING );
+			weakenETag( headers );
+			return compressor.wrap( factory.create(), exchange );
+		}
+
+		/**
+		 * A strong {@code ETag} identifies the uncompressed bytes of the response,
+		 * thus it is sent as a weak one once they are compressed.
+		 */
+		void weakenETag( final HeaderMap headers ) {
+			final String etag = headers.getFirst( Headers.ETAG );
+			if ( etag != null && !etag.startsWith( "W/" ) )
+				headers.put( Headers.ETAG, "W/" + etag );
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package kikaha.core.modules.compression;
+
+import java.util.*;
+import javax.enterprise.inject.Typed;
+import javax.inject.*;
+import io.undertow.Undertow;
+import kikaha.config.Config;
+import kikaha.core.DeploymentContext;
+import kikaha.core.modules.Module;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compresses the responses sent to clients that accept it, including the
+ * ones sent by static resources.
+ */
+@Slf4j
+@Getter
+@Singleton
+public class CompressionModule implements Module {
+
+	final String name = "compression";
+
+	@Inject
+	Config config;
+
+	@Inject
+	@Typed( Compressor.class )
+	Iterable<Compressor> availableCompressors;
+
+	@Override
+	public void load( final Undertow.Builder server, final DeploymentContext context ) {
+		if ( !config.getBoolean( "server.compression.enabled", false ) )
+			return;
+
+		final List<Compressor> compressors = loadCompressors();
+		if ( compressors.isEmpty() ) {
+			log.warn( "No compressor available for the configured encodings. Responses won't be compressed." );
+			return;
+		}
+
+		final CompressionHttpHandler handler = new CompressionHttpHandler(
+			context.rootHandler(), compressors,
+			config.getLong( "server.compression.min-size", 1024 ),
+			config.getStringList( "server.compression.content-types" ) );
+		log.info( "Compressing responses with: " + config.getStringList( "server.compression.encodings" ) );
+		context.rootHandler( handler );
+	}
+
+	/**
+	 * @return the compressors of the configured encodings, in the order they were configured
+	 */
+	List<Compressor> loadCompressors() {
+		final Map<String, Compressor> compressorsByEncoding = new HashMap<>();
+		for ( final Compressor compressor : availableCompressors )
+			compressorsByEncoding.put( compressor.encoding().toLowerCase(), compressor );
+
+		final List<Compressor> compressors = new ArrayList<>();
+		for ( final String encoding : config.getStringList( "server.compression.encodings" ) ) {
+			final Compressor compressor = compressorsByEncoding.get( encoding.toLowerCase() );
+			if ( compressor != null )
+				compressors.add( compressor );
+			else
+				log.warn( "No compressor available for the '" + encoding + "' encoding" );
+		}
+		return compressors;
+	}
+}
@@ -0,0 +1,28 @@
+package kikaha.core.modules.compression;
+
+import io.undertow.server.HttpServerExchange;
+import org.xnio.conduits.StreamSinkConduit;
+
+/**
+ * Compresses response bodies with a content coding (e.g. {@code gzip}). Besides
+ * the built-in {@code gzip} and {@code deflate} compressors, others may be provided
+ * by implementing this interface and listing its encoding at {@code server.compression.encodings}.
+ */
+public interface Compressor {
+
+	/**
+	 * @return the content coding, as sent on the {@code Accept-Encoding} and
+	 *         {@code Content-Encoding} headers (e.g. {@code gzip})
+	 */
+	String encoding();
+
+	/**
+	 * Wraps the conduit the response body is written to, thus the body is
+	 * compressed as it is written, instead of being buffered first.
+	 *
+	 * @param next the conduit the compressed body should be written to
+	 * @param exchange
+	 * @return the conduit that compresses the response body
+	 */
+	StreamSinkConduit wrap( StreamSinkConduit next, HttpServerExchange exchange );
+}
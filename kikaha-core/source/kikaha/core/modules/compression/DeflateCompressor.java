@@ -0,0 +1,41 @@
+package kikaha.core.modules.compression;
+
+import io.undertow.server.HttpServerExchange;
+import kikaha.config.Config;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.xnio.conduits.StreamSinkConduit;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Compresses response bodies with {@code deflate}, as the {@code zlib} format (RFC 1950).
+ */
+@Singleton
+public class DeflateCompressor implements Compressor {
+
+	@Getter
+	@Accessors( fluent = true )
+	final String encoding = "deflate";
+
+	@Inject
+	Config config;
+
+	@Getter
+	DeflaterPool pool;
+
+	@PostConstruct
+	public void createPool(){
+		pool = new DeflaterPool(
+			config.getInteger( "server.compression.level", -1 ), false,
+			config.getInteger( "server.compression.pool-size", 64 ),
+			config.getInteger( "server.compression.buffer-size", 8192 ) );
+	}
+
+	@Override
+	public StreamSinkConduit wrap( final StreamSinkConduit next, final HttpServerExchange exchange ) {
+		return new DeflatingConduit( next, pool );
+	}
+}
@@ -0,0 +1,54 @@
+package kikaha.core.modules.compression;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import lombok.Getter;
+
+/**
+ * Keeps up to {@code maxSize} idle {@link PooledDeflater}s for reuse, as creating
+ * a {@link java.util.zip.Deflater} allocates its native state, which is only
+ * released once it is ended (or finalized). When the pool is empty a new one
+ * is created, and when it is full released ones are ended.
+ */
+public class DeflaterPool {
+
+	static final int MIN_BUFFER_SIZE = 64;
+
+	final BlockingQueue<PooledDeflater> idle;
+	final int level;
+	final boolean nowrap;
+	final int bufferSize;
+
+	@Getter
+	final int maxSize;
+
+	public DeflaterPool( final int level, final boolean nowrap, final int maxSize, final int bufferSize ) {
+		if ( maxSize < 1 )
+			throw new IllegalArgumentException( "The deflater pool size should be positive" );
+		if ( bufferSize < MIN_BUFFER_SIZE )
+			throw new IllegalArgumentException( "The deflater buffer size should be at least " + MIN_BUFFER_SIZE + " bytes" );
+		this.idle = new ArrayBlockingQueue<>( maxSize );
+		this.level = level;
+		this.nowrap = nowrap;
+		this.maxSize = maxSize;
+		this.bufferSize = bufferSize;
+	}
+
+	public PooledDeflater borrow() {
+		final PooledDeflater deflater = idle.poll();
+		return deflater != null ? deflater : new PooledDeflater( level, nowrap, bufferSize );
+	}
+
+	public void release( final PooledDeflater deflater ) {
+		deflater.reset();
+		if ( !idle.offer( deflater ) )
+			deflater.deflater.end();
+	}
+
+	/**
+	 * @return how many deflaters are idle, waiting to be reused
+	 */
+	public int size() {
+		return idle.size();
+	}
+}
@@ -0,0 +1,210 @@
+package kikaha.core.modules.compression;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.zip.Deflater;
+import org.xnio.IoUtils;
+import org.xnio.channels.StreamSourceChannel;
+import org.xnio.conduits.AbstractStreamSinkConduit;
+import org.xnio.conduits.ConduitWritableByteChannel;
+import org.xnio.conduits.Conduits;
+import org.xnio.conduits.StreamSinkConduit;
+
+/**
+ * Compresses, with a {@link PooledDeflater}, the bytes written to it before
+ * sending them to the {@code next} conduit. It never holds more than one buffer
+ * of compressed data: whenever the {@code next} conduit can't take it, no more
+ * bytes are accepted, thus it behaves like any other non-blocking conduit.
+ * Flushing it before the body is finished sends everything written so far,
+ * through a {@link Deflater#SYNC_FLUSH}, thus streamed responses reach the client
+ * without waiting for the deflater to fill a block.
+ * The {@link PooledDeflater} is released once the body is completely sent.
+ */
+public class DeflatingConduit extends AbstractStreamSinkConduit<StreamSinkConduit> {
+
+	final DeflaterPool pool;
+	PooledDeflater deflater;
+	final ByteBuffer output;
+	boolean finishing;
+	boolean trailerWritten;
+	boolean nextTerminated;
+
+	public DeflatingConduit( final StreamSinkConduit next, final DeflaterPool pool ) {
+		super( next );
+		this.pool = pool;
+		this.deflater = pool.borrow();
+		this.output = ByteBuffer.wrap( deflater.output );
+		output.limit( header( deflater.output ) );
+	}
+
+	/**
+	 * Writes the bytes that precede the compressed data.
+	 *
+	 * @return how many bytes were written into {@code buffer}
+	 */
+	protected int header( final byte[] buffer ) {
+		return 0;
+	}
+
+	/**
+	 * Writes the bytes that follow the compressed data.
+	 *
+	 * @return how many bytes were written into {@code buffer}
+	 */
+	protected int trailer( final PooledDeflater deflater, final byte[] buffer ) {
+		return 0;
+	}
+
+	/**
+	 * Called with every chunk of uncompressed data, before it is compressed.
+	 */
+	protected void update( final PooledDeflater deflater, final int length ) {
+	}
+
+	@Override
+	public int write( final ByteBuffer src ) throws IOException {
+		if ( finishing )
+			throw new ClosedChannelException();
+		if ( !src.hasRemaining() || !drain() )
+			return 0;
+
+		final int length = Math.min( src.remaining(), deflater.input.length );
+		src.get( deflater.input, 0, length );
+		update( deflater, length );
+		deflater.deflater.setInput( deflater.input, 0, length );
+		drain();
+		return length;
+	}
+
+	@Override
+	public long write( final ByteBuffer[] srcs, final int offset, final int length ) throws IOException {
+		long written = 0;
+		for ( int i = offset; i < offset + length; i++ )
+			while ( srcs[i].hasRemaining() ) {
+				final int chunk = write( srcs[i] );
+				if ( chunk == 0 )
+					return written;
+				written += chunk;
+			}
+		return written;
+	}
+
+	@Override
+	public int writeFinal( final ByteBuffer src ) throws IOException {
+		return Conduits.writeFinalBasic( this, src );
+	}
+
+	@Override
+	public long writeFinal( final ByteBuffer[] srcs, final int offset, final int length ) throws IOException {
+		return Conduits.writeFinalBasic( this, srcs, offset, length );
+	}
+
+	@Override
+	public long transferFrom( final FileChannel src, final long position, final long count ) throws IOException {
+		if ( finishing )
+			throw new ClosedChannelException();
+		return src.transferTo( position, count, new ConduitWritableByteChannel( this ) );
+	}
+
+	@Override
+	public long transferFrom( final StreamSourceChannel source, final long count, final ByteBuffer throughBuffer ) throws IOException {
+		if ( finishing )
+			throw new ClosedChannelException();
+		return IoUtils.transfer( source, count, throughBuffer, new ConduitWritableByteChannel( this ) );
+	}
+
+	@Override
+	public void terminateWrites() throws IOException {
+		if ( !finishing ) {
+			finishing = true;
+			deflater.deflater.finish();
+		}
+	}
+
+	@Override
+	public boolean isWriteShutdown() {
+		return finishing;
+	}
+
+	@Override
+	public boolean flush() throws IOException {
+		if ( nextTerminated )
+			return next.flush();
+		if ( !drain() )
+			return false;
+		if ( finishing ) {
+			release();
+			next.terminateWrites();
+			nextTerminated = true;
+		} else if ( !syncFlush() )
+			return false;
+		return next.flush();
+	}
+
+	@Override
+	public void truncateWrites() throws IOException {
+		finishing = true;
+		nextTerminated = true;
+		release();
+		next.truncateWrites();
+	}
+
+	/**
+	 * Sends the pending compressed data to the {@code next} conduit, compressing
+	 * the input given to the deflater as long as the {@code next} conduit takes it.
+	 *
+	 * @return {@code true} if the deflater is ready to take more input
+	 *         (or, once finishing, if the whole body was sent)
+	 */
+	boolean drain() throws IOException {
+		while ( true ) {
+			if ( output.hasRemaining() ) {
+				next.write( output );
+				if ( output.hasRemaining() )
+					return false;
+			}
+
+			if ( deflater.deflater.finished() ) {
+				if ( trailerWritten )
+					return true;
+				trailerWritten = true;
+				output.clear();
+				output.limit( trailer( deflater, deflater.output ) );
+			} else if ( !finishing && deflater.deflater.needsInput() )
+				return true;
+			else {
+				final int length = deflater.deflater.deflate( deflater.output, 0, deflater.output.length );
+				output.clear();
+				output.limit( length );
+			}
+		}
+	}
+
+	/**
+	 * Sends to the {@code next} conduit the compressed form of every input given
+	 * to the deflater so far, until the deflater has nothing else to flush.
+	 *
+	 * @return {@code true} if everything was sent
+	 */
+	boolean syncFlush() throws IOException {
+		while ( true ) {
+			final int length = deflater.deflater.deflate( deflater.output, 0, deflater.output.length, Deflater.SYNC_FLUSH );
+			if ( length == 0 )
+				return true;
+			output.clear();
+			output.limit( length );
+			next.write( output );
+			if ( output.hasRemaining() )
+				return false;
+		}
+	}
+
+	void release() {
+		if ( deflater != null ) {
+			pool.release( deflater );
+			deflater = null;
+		}
+	}
+}
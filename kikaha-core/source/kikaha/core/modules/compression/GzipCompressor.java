@@ -0,0 +1,41 @@
+package kikaha.core.modules.compression;
+
+import io.undertow.server.HttpServerExchange;
+import kikaha.config.Config;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.xnio.conduits.StreamSinkConduit;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Compresses response bodies with {@code gzip} (RFC 1952).
+ */
+@Singleton
+public class GzipCompressor implements Compressor {
+
+	@Getter
+	@Accessors( fluent = true )
+	final String encoding = "gzip";
+
+	@Inject
+	Config config;
+
+	@Getter
+	DeflaterPool pool;
+
+	@PostConstruct
+	public void createPool(){
+		pool = new DeflaterPool(
+			config.getInteger( "server.compression.level", -1 ), true,
+			config.getInteger( "server.compression.pool-size", 64 ),
+			config.getInteger( "server.compression.buffer-size", 8192 ) );
+	}
+
+	@Override
+	public StreamSinkConduit wrap( final StreamSinkConduit next, final HttpServerExchange exchange ) {
+		return new GzipConduit( next, pool );
+	}
+}
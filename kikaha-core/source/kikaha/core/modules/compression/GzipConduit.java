@@ -0,0 +1,41 @@
+package kikaha.core.modules.compression;
+
+import org.xnio.conduits.StreamSinkConduit;
+
+/**
+ * Compresses the bytes written to it with the {@code gzip} format (RFC 1952),
+ * thus its {@link DeflaterPool} should create raw ({@code nowrap}) deflaters.
+ */
+public class GzipConduit extends DeflatingConduit {
+
+	static final byte[] HEADER = { 0x1f, (byte)0x8b, 8, 0, 0, 0, 0, 0, 0, (byte)0xff };
+
+	public GzipConduit( final StreamSinkConduit next, final DeflaterPool pool ) {
+		super( next, pool );
+	}
+
+	@Override
+	protected int header( final byte[] buffer ) {
+		System.arraycopy( HEADER, 0, buffer, 0, HEADER.length );
+		return HEADER.length;
+	}
+
+	@Override
+	protected void update( final PooledDeflater deflater, final int length ) {
+		deflater.checksum.update( deflater.input, 0, length );
+	}
+
+	@Override
+	protected int trailer( final PooledDeflater deflater, final byte[] buffer ) {
+		writeLittleEndian( buffer, 0, (int)deflater.checksum.getValue() );
+		writeLittleEndian( buffer, 4, (int)deflater.deflater.getBytesRead() );
+		return 8;
+	}
+
+	static void writeLittleEndian( final byte[] buffer, final int offset, final int value ) {
+		buffer[offset] = (byte)value;
+		buffer[offset + 1] = (byte)( value >> 8 );
+		buffer[offset + 2] = (byte)( value >> 16 );
+		buffer[offset + 3] = (byte)( value >> 24 );
+	}
+}
@@ -0,0 +1,27 @@
+package kikaha.core.modules.compression;
+
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A {@link Deflater} and the buffers it needs to compress a response body,
+ * kept together as they are borrowed from (and released to) a {@link DeflaterPool}.
+ */
+public class PooledDeflater {
+
+	final Deflater deflater;
+	final CRC32 checksum = new CRC32();
+	final byte[] input;
+	final byte[] output;
+
+	PooledDeflater( final int level, final boolean nowrap, final int bufferSize ) {
+		this.deflater = new Deflater( level, nowrap );
+		this.input = new byte[ bufferSize ];
+		this.output = new byte[ bufferSize ];
+	}
+
+	void reset() {
+		deflater.reset();
+		checksum.reset();
+	}
+}
@@ -48,7 +48,10 @@ public class HttpHandlerDeploymentModule implements Module {
 				if ( newHandler != null )
 					handler = newHandler;
 			}
-		context.register( resource.path(), resource.method(), handler );
+		if ( resource.host().isEmpty() )
+			context.register( resource.path(), resource.method(), handler );
+		else
+			context.register( resource.host(), resource.path(), resource.method(), handler );
 	}
 
 	/**
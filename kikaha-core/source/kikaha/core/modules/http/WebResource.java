@@ -15,4 +15,10 @@ public @interface WebResource {
 	String path();
 
 	String method() default "GET";
+
+	/**
+	 * The host (e.g. {@code api.example.com} or {@code *.example.com}) this
+	 * resource is bound to. When empty, it is served regardless of the requested host.
+	 */
+	String host() default "";
 }
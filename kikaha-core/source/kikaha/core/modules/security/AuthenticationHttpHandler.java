@@ -2,6 +2,7 @@ package kikaha.core.modules.security;
 
 import io.undertow.server.*;
 import io.undertow.util.Headers;
+import kikaha.core.SimpleRoutingHandler;
 import lombok.*;
 
 @RequiredArgsConstructor
@@ -12,18 +13,26 @@ class AuthenticationHttpHandler implements HttpHandler {
 	@NonNull final HttpHandler next;
 	@NonNull final SecurityConfiguration securityConfiguration;
 
+	/* when set, requests that need no authentication skip the worker thread if routed to a non-blocking handler */
+	final SimpleRoutingHandler routingHandler;
+
 	@Override
 	public void handleRequest(final HttpServerExchange exchange) throws Exception {
 		AuthenticationRule rule = retrieveRuleThatEnsureRequestShouldBeAuthenticated( exchange );
 		if ( rule == null )
 			rule = AuthenticationRule.EMPTY;
 		final SecurityContext securityContext = getOrCreateSecurityContext(exchange, rule);
-		if ( securityContext.isAuthenticated() )
+		if ( securityContext.isAuthenticated() || isNonBlockingRouteThatSkipsAuthentication( exchange, securityContext ) )
 			next.handleRequest(exchange);
 		else
 			runAuthenticationInIOThread( exchange, rule, securityContext );
 	}
 
+	private boolean isNonBlockingRouteThatSkipsAuthentication( final HttpServerExchange exchange, final SecurityContext securityContext ) {
+		return routingHandler != null && !securityContext.isAuthenticationRequired()
+			&& routingHandler.isRoutedToNonBlockingHandler( exchange );
+	}
+
 	private AuthenticationRule retrieveRuleThatEnsureRequestShouldBeAuthenticated( final HttpServerExchange exchange ) {
 		final AuthenticationRequestMatcher authRequestMatcher = securityConfiguration.getAuthenticationRequestMatcher();
 		return authRequestMatcher != null && !authRequestMatcher.matches( exchange ) ? null
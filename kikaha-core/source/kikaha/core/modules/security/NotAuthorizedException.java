@@ -8,4 +8,28 @@ public class NotAuthorizedException extends RuntimeException {
 	public NotAuthorizedException( Throwable cause ) {
 		super(cause);
 	}
+
+	/**
+	 * Creates a {@link NotAuthorizedException} that doesn't capture its stack trace. Use it
+	 * when rejecting an unauthenticated request is expected, thus its stack trace is not
+	 * worth the cost of capturing it. The stack trace of {@code cause}, if any, is kept.
+	 *
+	 * @param cause
+	 * @return the exception to be thrown
+	 */
+	public static NotAuthorizedException withoutStackTrace( Throwable cause ) {
+		return new Stackless( cause );
+	}
+
+	static class Stackless extends NotAuthorizedException {
+
+		Stackless( Throwable cause ) {
+			super( cause );
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+	}
 }
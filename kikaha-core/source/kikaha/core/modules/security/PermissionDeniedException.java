@@ -8,4 +8,28 @@ public class PermissionDeniedException extends RuntimeException {
 	public PermissionDeniedException( Throwable cause ) {
 		super(cause);
 	}
+
+	/**
+	 * Creates a {@link PermissionDeniedException} that doesn't capture its stack trace. Use it
+	 * when rejecting a request whose user lacks the expected roles is expected, thus its stack trace is not
+	 * worth the cost of capturing it. The stack trace of {@code cause}, if any, is kept.
+	 *
+	 * @param cause
+	 * @return the exception to be thrown
+	 */
+	public static PermissionDeniedException withoutStackTrace( Throwable cause ) {
+		return new Stackless( cause );
+	}
+
+	static class Stackless extends PermissionDeniedException {
+
+		Stackless( Throwable cause ) {
+			super( cause );
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+	}
 }
@@ -36,7 +36,7 @@ public class SecurityModule implements Module {
 			final HttpHandler rootHandler = context.rootHandler();
 			final AuthenticationHttpHandler authenticationHandler = new AuthenticationHttpHandler(
 					ruleMatcher, authenticationEndpoints.getPermissionDeniedPage(),
-					rootHandler, securityConfiguration );
+					rootHandler, securityConfiguration, context.routingHandler() );
 			context.rootHandler(authenticationHandler);
 		}
 	}
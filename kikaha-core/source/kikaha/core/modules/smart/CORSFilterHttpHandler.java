@@ -19,7 +19,6 @@ public class CORSFilterHttpHandler implements HttpHandler {
 	static final HttpString ALLOWED_HEADERS = new HttpString( "Access-Control-Allow-Headers" );
 	static final HttpString ALLOWED_METHOD = new HttpString( "Access-Control-Allow-Methods" );
 	static final HttpString ALLOWED_CREDENTIALS = new HttpString( "Access-Control-Allow-Credentials" );
-	static final Map<String, String> EMPTY_URL_PARAMS = new HashMap<>();
 	static final String TRUE = "true";
 
 	final CORSConfig config;
@@ -52,7 +51,7 @@ public class CORSFilterHttpHandler implements HttpHandler {
 		if ( config.alwaysAllowOrigin) return true;
 		else
 			for (URLMatcher matcher : config.allowedOriginMatchers)
-				if ( matcher.matches( originHost, EMPTY_URL_PARAMS ) )
+				if ( matcher.matches( originHost, null ) )
 					return true;
 		return false;
 	}
@@ -25,8 +25,8 @@ public class StaticHeadersHttpHandler implements HttpHandler {
 
 	private void sendHeaders( HttpServerExchange exchange ){
 		final String relativePath = exchange.getRelativePath();
-		final Map<String, String> variables = new HashMap<>();
-		if ( matcher.matches( relativePath, variables ) ) {
+		final Map<String, String> variables = matcher.matchAndCapture( relativePath );
+		if ( variables != null ) {
 			for ( final Entry<String, URLMatcher> entry : headers.entrySet() ) {
 				final HttpString header = new HttpString( entry.getKey() );
 				final String value = entry.getValue().replace( variables );
@@ -5,7 +5,6 @@ import io.undertow.util.Headers;
 
 import java.util.Map;
 
-import kikaha.commons.url.StringCursor;
 import kikaha.commons.url.URLMatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
@@ -31,13 +30,8 @@ public class VirtualHostMatcher implements RequestMatcher {
 
 	String stripHostFromHeader( final String hostHeader )
 	{
-		val cursor = new StringCursor( hostHeader );
-		if ( !cursor.shiftCursorToNextChar( ':' ) )
-			cursor.end();
-		else
-			cursor.prev();
-		val host = cursor.substringUntilCursor();
-		return host;
+		final int portSeparator = hostHeader.indexOf( ':' );
+		return portSeparator < 0 ? hostHeader : hostHeader.substring( 0, portSeparator );
 	}
 
 	@Override
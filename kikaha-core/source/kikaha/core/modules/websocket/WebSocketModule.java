@@ -107,7 +107,11 @@ public class WebSocketModule implements Module {
 			log.warn( "No WebResource annotation found for " + handler.getClass().getCanonicalName() + ": Skipped!" );
 			return;
 		}
-		context.register( webResource.path(), "GET", wrappedWebsocketHandlerFrom( handler, webResource ) );
+		final HttpHandler websocketHandler = wrappedWebsocketHandlerFrom( handler, webResource );
+		if ( webResource.host().isEmpty() )
+			context.register( webResource.path(), "GET", websocketHandler );
+		else
+			context.register( webResource.host(), webResource.path(), "GET", websocketHandler );
 	}
 
 	HttpHandler wrappedWebsocketHandlerFrom( final WebSocketHandler handler, final WebResource webResource ) {
@@ -1,6 +1,6 @@
 package kikaha.core;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.*;
 import io.undertow.server.*;
@@ -60,4 +60,20 @@ public class DefaultHttpRequestHandlerTest {
 		handler.handleRequest( exchange );
 		verify( rootHandler ).handleRequest( eq( exchange ) );
 	}
+
+	@Test
+	public void ensureThatLeavesTheExchangeUntouchedWhenThePathIsAlreadyNormalized() throws Exception {
+		final String relativePath = "/url/that/does/not/ends/with/slash";
+		exchange.setRelativePath( relativePath );
+		handler.handleRequest( exchange );
+		assertSame( relativePath, exchange.getRelativePath() );
+	}
+
+	@Test
+	public void ensureThatCanCollapseDuplicatedSlashesAndDotSegments() throws Exception {
+		handler = new DefaultHttpRequestHandler( context, true, true );
+		exchange.setRelativePath( "//url/./that//was/../is/normalized/" );
+		handler.handleRequest( exchange );
+		assertEquals( "/url/that/is/normalized", exchange.getRelativePath() );
+	}
 }
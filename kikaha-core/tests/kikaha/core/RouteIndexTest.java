@@ -0,0 +1,75 @@
+package kikaha.core;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import java.util.*;
+import io.undertow.server.HttpHandler;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RouteIndex}.
+ */
+public class RouteIndexTest {
+
+	static final String[] PATTERNS = {
+		"/", "/*", "/user", "/user/{id}", "/user/{id}/details", "/user/{id}/details/",
+		"/user/me", "/user/*/page/{page}", "/files/*.js", "/files/{name}.json",
+		"/panel/*/page/*/", "/panel/admin", "{everything}", "/sameurl/{id}", "/sameurl"
+	};
+
+	static final String[] URLS = {
+		"", "/", "/user", "/user/", "/user/me", "/user/123", "/user/123/details",
+		"/user/123/details/", "/user/123/page/10", "/user//details", "/user/1/2/details",
+		"/files/app.js", "/files/app.json", "/files/app.css", "/panel/admin", "/panel/x/page//",
+		"/panel/x/page/1/", "/sameurl", "/sameurl/", "/sameurl/1/2", "/unknown/path"
+	};
+
+	@Test
+	public void ensureThatMatchesTheSameRouteAsALinearScan() {
+		final List<List<String>> permutations = Arrays.asList(
+			Arrays.asList( PATTERNS ), reversed( PATTERNS ), shuffled( PATTERNS, 1 ), shuffled( PATTERNS, 2 ) );
+
+		for ( final List<String> patterns : permutations ) {
+			final List<Entry> entries = new ArrayList<>();
+			final RouteIndex index = new RouteIndex();
+			for ( final String pattern : patterns ) {
+				final Entry entry = new Entry( pattern, mock( HttpHandler.class ) );
+				entries.add( entry );
+				index.add( entry );
+			}
+			Collections.sort( entries );
+
+			for ( final String url : URLS )
+				assertSame( "Wrong route for " + url + " using " + patterns,
+					retrieveEntryThroughLinearScan( entries, url ), index.retrieveEntryThatMatches( url ) );
+		}
+	}
+
+	@Test
+	public void ensureThatLiteralRoutesAreIndexed() {
+		final RouteIndex index = new RouteIndex();
+		index.add( new Entry( "/user/{id}/details", mock( HttpHandler.class ) ) );
+		index.add( new Entry( "/files/*.js", mock( HttpHandler.class ) ) );
+		assertEquals( 1, index.unindexedRoutes.size() );
+		assertNotNull( index.root.literals.get( "", 0, 0 ) );
+	}
+
+	static Entry retrieveEntryThroughLinearScan( final List<Entry> entries, final String url ) {
+		for ( final Entry entry : entries )
+			if ( entry.getMatcher().matches( url, new HashMap<>() ) )
+				return entry;
+		return null;
+	}
+
+	static List<String> reversed( final String[] patterns ) {
+		final List<String> list = new ArrayList<>( Arrays.asList( patterns ) );
+		Collections.reverse( list );
+		return list;
+	}
+
+	static List<String> shuffled( final String[] patterns, final long seed ) {
+		final List<String> list = new ArrayList<>( Arrays.asList( patterns ) );
+		Collections.shuffle( list, new Random( seed ) );
+		return list;
+	}
+}
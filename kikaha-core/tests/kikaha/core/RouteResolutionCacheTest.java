@@ -0,0 +1,72 @@
+package kikaha.core;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import io.undertow.server.HttpHandler;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RouteResolutionCache}.
+ */
+public class RouteResolutionCacheTest {
+
+	final ResolvedEntry entry = new ResolvedEntry( mock( HttpHandler.class ), null, false );
+	final RouteIndex getRoutes = new RouteIndex();
+	final RouteIndex postRoutes = new RouteIndex();
+
+	@Test
+	public void ensureThatEntriesAreCachedPerRouteIndex() {
+		final RouteResolutionCache cache = new RouteResolutionCache( 100 );
+		cache.put( getRoutes, "/user/1", entry );
+		assertSame( entry, cache.get( getRoutes, "/user/1" ) );
+		assertNull( cache.get( postRoutes, "/user/1" ) );
+		assertNull( cache.get( getRoutes, "/user/2" ) );
+		assertEquals( 1, cache.getHits() );
+		assertEquals( 2, cache.getMisses() );
+	}
+
+	@Test
+	public void ensureThatNeverHoldsMoreEntriesThanItsMaxSize() {
+		final RouteResolutionCache cache = new RouteResolutionCache( 32 );
+		for ( int i = 0; i < 10000; i++ )
+			cache.put( getRoutes, "/user/" + i, entry );
+		assertTrue( cache.size() <= 32 );
+		assertNotNull( cache.get( getRoutes, "/user/9999" ) );
+	}
+
+	@Test
+	public void ensureThatTheMaxSizeBoundsEveryRouteIndexTogether() {
+		final RouteResolutionCache cache = new RouteResolutionCache( 32 );
+		for ( int i = 0; i < 100; i++ ) {
+			final RouteIndex hostRoutes = new RouteIndex();
+			for ( int j = 0; j < 100; j++ )
+				cache.put( hostRoutes, "/user/" + j, entry );
+		}
+		assertTrue( cache.size() <= 32 );
+	}
+
+	@Test
+	public void ensureThatKeepsTheEntriesOfEveryRouteIndexForTheSamePath() {
+		final RouteResolutionCache cache = new RouteResolutionCache( 100 );
+		final ResolvedEntry postEntry = new ResolvedEntry( mock( HttpHandler.class ), null, false );
+		cache.put( getRoutes, "/user/1", entry );
+		cache.put( postRoutes, "/user/1", postEntry );
+		assertSame( entry, cache.get( getRoutes, "/user/1" ) );
+		assertSame( postEntry, cache.get( postRoutes, "/user/1" ) );
+		assertEquals( 2, cache.size() );
+	}
+
+	@Test
+	public void ensureThatEvictsTheLeastRecentlyUsedEntry() {
+		final RouteResolutionCache cache = new RouteResolutionCache( 1 );
+		cache.put( getRoutes, "/user/1", entry );
+		cache.put( getRoutes, "/user/2", entry );
+		assertEquals( 1, cache.size() );
+		assertNotNull( cache.get( getRoutes, "/user/2" ) );
+	}
+
+	@Test( expected = IllegalArgumentException.class )
+	public void ensureThatCantBeCreatedWithoutRoom() {
+		new RouteResolutionCache( 0 );
+	}
+}
@@ -1,11 +1,14 @@
 package kikaha.core;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
-import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.*;
 import java.util.List;
 import io.undertow.server.*;
+import io.undertow.util.Headers;
 import io.undertow.util.Methods;
+import io.undertow.util.PathTemplateMatch;
 import kikaha.core.Entry;
 import kikaha.core.SimpleRoutingHandler;
 import kikaha.core.test.HttpServerExchangeStub;
@@ -23,6 +26,7 @@ public class SimpleRoutingHandlerTest {
 	SimpleRoutingHandler handler;
 	@Mock HttpHandler httpHandler;
 	@Mock HttpHandler simplerHttpHandler;
+	@Mock HttpHandler staticHttpHandler;
 
 	@Before
 	public void configureRouting(){
@@ -33,6 +37,7 @@ public class SimpleRoutingHandlerTest {
 
 	@Test
 	public void simplerRulesWillBeTheLastOnes(){
+		handler.freeze();
 		final List<Entry> entries = handler.matchersByMethod.get(Methods.GET);
 		assertEquals( httpHandler, entries.get(0).getHandler() );
 		assertEquals( simplerHttpHandler, entries.get(1).getHandler() );
@@ -53,4 +58,168 @@ public class SimpleRoutingHandlerTest {
 		handler.handleRequest( exchange );
 		verify( simplerHttpHandler ).handleRequest( eq(exchange) );
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void canMatchStaticRulesWithoutPathParameters() throws Exception {
+		handler.add(Methods.GET, "/health", staticHttpHandler );
+		final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
+		exchange.setRelativePath( "/health" );
+		handler.handleRequest( exchange );
+		verify( staticHttpHandler ).handleRequest( eq(exchange) );
+
+		final PathTemplateMatch templateMatch = exchange.getAttachment( PathTemplateMatch.ATTACHMENT_KEY );
+		assertTrue( templateMatch.getParameters().isEmpty() );
+		assertSame( templateMatch, handler.retrieveSnapshot().defaultRoutes.staticRoutesByMethod.get(Methods.GET).get("/health").getTemplateMatch() );
+	}
+
+	@Test
+	public void staticRulesShouldNotOverrideRulesWithHigherPrecedence() throws Exception {
+		handler.add(Methods.GET, "/user/me", staticHttpHandler );
+		assertFalse( handler.retrieveSnapshot().defaultRoutes.staticRoutesByMethod.get(Methods.GET).containsKey( "/user/me" ) );
+
+		final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
+		exchange.setRelativePath( "/user/me" );
+		handler.handleRequest( exchange );
+		verify( simplerHttpHandler ).handleRequest( eq(exchange) );
+	}
+
+	@Test
+	public void routesShouldBeSortedAndIndexedOnlyWhenFrozen() throws Exception {
+		handler.freeze();
+		final RoutingSnapshot snapshot = handler.snapshot;
+		assertNotNull( snapshot );
+
+		handler.add(Methods.GET, "/health", staticHttpHandler );
+		assertNull( handler.snapshot );
+
+		final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
+		exchange.setRelativePath( "/health" );
+		handler.handleRequest( exchange );
+		verify( staticHttpHandler ).handleRequest( eq(exchange) );
+		assertNotNull( handler.snapshot );
+		assertNotSame( snapshot, handler.snapshot );
+	}
+
+	@Test
+	public void canReuseCachedRoutesForRepeatedParameterizedPaths() throws Exception {
+		final RouteResolutionCache routeCache = new RouteResolutionCache( 10 );
+		handler.setRouteCache( routeCache );
+
+		final HttpServerExchange first = HttpServerExchangeStub.createHttpExchange();
+		first.setRelativePath( "/user/123" );
+		handler.handleRequest( first );
+		final HttpServerExchange second = HttpServerExchangeStub.createHttpExchange();
+		second.setRelativePath( "/user/123" );
+		handler.handleRequest( second );
+
+		verify( simplerHttpHandler ).handleRequest( eq(second) );
+		final PathTemplateMatch templateMatch = second.getAttachment( PathTemplateMatch.ATTACHMENT_KEY );
+		assertEquals( "123", templateMatch.getParameters().get( "id" ) );
+		assertEquals( 1, routeCache.getHits() );
+		assertEquals( 1, routeCache.getMisses() );
+	}
+
+	@Test
+	public void registeringARouteShouldInvalidateTheCachedRoutes() throws Exception {
+		final RouteResolutionCache routeCache = new RouteResolutionCache( 10 );
+		handler.setRouteCache( routeCache );
+
+		final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
+		exchange.setRelativePath( "/user/123/details" );
+		handler.handleRequest( exchange );
+		assertEquals( 1, routeCache.size() );
+
+		handler.add(Methods.GET, "/user/{id}/{page}", staticHttpHandler );
+		handler.freeze();
+		assertEquals( 0, routeCache.size() );
+	}
+
+	@Test
+	public void routesResolvedToAnswerWhetherTheyAreNonBlockingShouldNotBeResolvedAgain() throws Exception {
+		final RouteResolutionCache routeCache = new RouteResolutionCache( 10 );
+		handler.setRouteCache( routeCache );
+		handler.add(Methods.GET, "/non-blocking", mock( NonBlockingHttpHandler.class ) );
+
+		final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
+		exchange.setRelativePath( "/user/123" );
+		assertFalse( handler.isRoutedToNonBlockingHandler( exchange ) );
+		handler.handleRequest( exchange );
+
+		verify( simplerHttpHandler ).handleRequest( eq(exchange) );
+		assertEquals( 0, routeCache.getHits() );
+		assertEquals( 1, routeCache.getMisses() );
+		assertNull( exchange.getAttachment( SimpleRoutingHandler.RESOLVED_ROUTE ) );
+	}
+
+	@Test
+	public void routesResolvedBeforeThePathWasRewrittenShouldBeResolvedAgain() throws Exception {
+		handler.add(Methods.GET, "/non-blocking", mock( NonBlockingHttpHandler.class ) );
+
+		final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
+		exchange.setRelativePath( "/user/123" );
+		assertFalse( handler.isRoutedToNonBlockingHandler( exchange ) );
+		exchange.setRelativePath( "/user/123/details" );
+		handler.handleRequest( exchange );
+
+		verify( httpHandler ).handleRequest( eq(exchange) );
+		verify( simplerHttpHandler, never() ).handleRequest( any() );
+	}
+
+	@Test
+	public void canRouteRequestsByTheirHost() throws Exception {
+		handler.add( "api.example.com", "GET", "/user/{id}", httpHandler );
+		handler.add( "*.tenants.example.com", "GET", "/health", staticHttpHandler );
+
+		final HttpServerExchange apiExchange = createExchangeFor( "API.example.com:8080", "/user/123" );
+		handler.handleRequest( apiExchange );
+		verify( httpHandler ).handleRequest( eq(apiExchange) );
+		final PathTemplateMatch templateMatch = apiExchange.getAttachment( PathTemplateMatch.ATTACHMENT_KEY );
+		assertEquals( "123", templateMatch.getParameters().get( "id" ) );
+
+		final HttpServerExchange tenantExchange = createExchangeFor( "acme.tenants.example.com", "/health" );
+		handler.handleRequest( tenantExchange );
+		verify( staticHttpHandler ).handleRequest( eq(tenantExchange) );
+	}
+
+	@Test
+	public void requestsToUnboundHostsShouldFallbackToTheRoutesServedToAnyHost() throws Exception {
+		final HttpHandler fallbackHandler = mock( HttpHandler.class );
+		handler.setFallbackHandler( fallbackHandler );
+		handler.add( "api.example.com", "GET", "/order/{id}", staticHttpHandler );
+
+		final HttpServerExchange otherHost = createExchangeFor( "www.example.com", "/order/123" );
+		handler.handleRequest( otherHost );
+		verify( fallbackHandler ).handleRequest( eq(otherHost) );
+		verify( staticHttpHandler, never() ).handleRequest( eq(otherHost) );
+
+		final HttpServerExchange pathNotBoundToTheHost = createExchangeFor( "api.example.com", "/user/123/details" );
+		handler.handleRequest( pathNotBoundToTheHost );
+		verify( httpHandler ).handleRequest( eq(pathNotBoundToTheHost) );
+		verify( staticHttpHandler, never() ).handleRequest( eq(pathNotBoundToTheHost) );
+	}
+
+	@Test
+	public void ensureThatRetrieveTheLongestWildcardHost() {
+		final HttpHandler anyTenant = mock( HttpHandler.class );
+		handler.add( "*.example.com", "GET", "/", anyTenant );
+		handler.add( "*.tenants.example.com", "GET", "/", staticHttpHandler );
+		handler.add( "example.com", "GET", "/", httpHandler );
+
+		final RoutingSnapshot snapshot = handler.retrieveSnapshot();
+		assertSame( snapshot.routesByWildcardHost.get( ".tenants.example.com", 0, 20 ),
+			snapshot.retrieveRoutesForHost( "acme.tenants.example.com" ) );
+		assertSame( snapshot.routesByWildcardHost.get( ".example.com", 0, 12 ),
+			snapshot.retrieveRoutesForHost( "www.example.com:8080" ) );
+		assertSame( snapshot.routesByHost.get( "example.com", 0, 11 ),
+			snapshot.retrieveRoutesForHost( "example.com" ) );
+		assertNull( snapshot.retrieveRoutesForHost( "example.org" ) );
+		assertNull( snapshot.retrieveRoutesForHost( null ) );
+	}
+
+	static HttpServerExchange createExchangeFor( final String host, final String relativePath ) {
+		final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
+		exchange.getRequestHeaders().put( Headers.HOST, host );
+		exchange.setRelativePath( relativePath );
+		return exchange;
+	}
+}
@@ -0,0 +1,104 @@
+package kikaha.core.modules.compression;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.*;
+import kikaha.core.test.HttpServerExchangeStub;
+import org.junit.Test;
+import org.xnio.conduits.StreamSinkConduit;
+
+/**
+ * Unit tests for {@link CompressionHttpHandler}.
+ */
+public class CompressionHttpHandlerTest {
+
+	final Compressor gzip = new FakeCompressor( "gzip" ), deflate = new FakeCompressor( "deflate" );
+	final CompressionHttpHandler handler = new CompressionHttpHandler( null,
+		Arrays.asList( gzip, deflate ), 1024, Arrays.asList( "text/*", "application/json" ) );
+	final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
+
+	@Test
+	public void ensureThatNegotiatesTheEncodingPreferredByTheClient() {
+		assertSame( gzip, negotiate( "gzip, deflate, br" ) );
+		assertSame( deflate, negotiate( "gzip;q=0.5, deflate" ) );
+		assertSame( deflate, negotiate( "DEFLATE" ) );
+		assertSame( gzip, negotiate( "*" ) );
+		assertSame( deflate, negotiate( "gzip;q=0, *;q=0.1" ) );
+		assertNull( negotiate( "br, identity" ) );
+		assertNull( negotiate( "gzip;q=0" ) );
+		assertNull( handler.negotiate( null ) );
+	}
+
+	@Test
+	public void ensureThatOnlyCompressesTheAllowedContentTypes() {
+		assertTrue( handler.isCompressible( "text/html; charset=UTF-8" ) );
+		assertTrue( handler.isCompressible( "Application/JSON" ) );
+		assertFalse( handler.isCompressible( "application/jsonp" ) );
+		assertFalse( handler.isCompressible( "image/png" ) );
+		assertFalse( handler.isCompressible( null ) );
+	}
+
+	@Test
+	public void ensureThatCompressesResponsesWithUnknownOrLargeEnoughLength() {
+		exchange.getResponseHeaders().put( Headers.CONTENT_TYPE, "application/json" );
+		assertTrue( handler.shouldCompress( exchange ) );
+		exchange.setResponseContentLength( 1024 );
+		assertTrue( handler.shouldCompress( exchange ) );
+		exchange.setResponseContentLength( 1023 );
+		assertFalse( handler.shouldCompress( exchange ) );
+	}
+
+	@Test
+	public void ensureThatDoesNotCompressResponsesOfRoutesThatDisabledIt() {
+		exchange.getResponseHeaders().put( Headers.CONTENT_TYPE, "application/json" );
+		CompressionHttpHandler.disable( exchange );
+		assertFalse( handler.shouldCompress( exchange ) );
+	}
+
+	@Test
+	public void ensureThatDoesNotCompressResponsesWithoutBodyOrAlreadyEncoded() {
+		exchange.getResponseHeaders().put( Headers.CONTENT_TYPE, "application/json" );
+		exchange.setStatusCode( 304 );
+		assertFalse( handler.shouldCompress( exchange ) );
+		exchange.setStatusCode( 200 );
+		exchange.getResponseHeaders().put( Headers.CONTENT_ENCODING, "br" );
+		assertFalse( handler.shouldCompress( exchange ) );
+	}
+
+	@Test
+	public void ensureThatWeakensTheETagOfCompressedResponses() {
+		final HeaderMap headers = exchange.getResponseHeaders();
+		headers.put( Headers.ETAG, "\"v1\"" );
+		handler.new CompressingConduitWrapper( gzip ).weakenETag( headers );
+		assertEquals( "W/\"v1\"", headers.getFirst( Headers.ETAG ) );
+		handler.new CompressingConduitWrapper( gzip ).weakenETag( headers );
+		assertEquals( "W/\"v1\"", headers.getFirst( Headers.ETAG ) );
+	}
+
+	Compressor negotiate( final String acceptEncoding ) {
+		final HeaderMap headers = new HeaderMap();
+		headers.put( Headers.ACCEPT_ENCODING, acceptEncoding );
+		return handler.negotiate( headers.get( Headers.ACCEPT_ENCODING ) );
+	}
+
+	static class FakeCompressor implements Compressor {
+
+		final String encoding;
+
+		FakeCompressor( final String encoding ) {
+			this.encoding = encoding;
+		}
+
+		@Override
+		public String encoding() {
+			return encoding;
+		}
+
+		@Override
+		public StreamSinkConduit wrap( final StreamSinkConduit next, final HttpServerExchange exchange ) {
+			return next;
+		}
+	}
+}
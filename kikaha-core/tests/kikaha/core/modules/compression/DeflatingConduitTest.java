@@ -0,0 +1,157 @@
+package kikaha.core.modules.compression;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.*;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.xnio.conduits.AbstractStreamSinkConduit;
+import org.xnio.conduits.StreamSinkConduit;
+
+/**
+ * Unit tests for {@link DeflatingConduit} and {@link GzipConduit}.
+ */
+public class DeflatingConduitTest {
+
+	final byte[] body = createBody();
+	final CapturingConduit capturingConduit = new CapturingConduit();
+
+	@Test
+	public void ensureThatCompressesWithGzip() throws IOException {
+		final DeflaterPool pool = new DeflaterPool( -1, true, 1, 64 );
+		writeAndFinish( new GzipConduit( capturingConduit, pool ) );
+		assertArrayEquals( body, readFully( new GZIPInputStream( capturingConduit.asInputStream() ) ) );
+		assertTrue( capturingConduit.output.size() < body.length );
+	}
+
+	@Test
+	public void ensureThatCompressesWithDeflate() throws IOException {
+		final DeflaterPool pool = new DeflaterPool( -1, false, 1, 64 );
+		writeAndFinish( new DeflatingConduit( capturingConduit, pool ) );
+		assertArrayEquals( body, readFully( new InflaterInputStream( capturingConduit.asInputStream() ) ) );
+	}
+
+	@Test
+	public void ensureThatReleasesTheDeflaterToBeReusedOnceTheBodyIsSent() throws IOException {
+		final DeflaterPool pool = new DeflaterPool( -1, true, 1, 64 );
+		final GzipConduit conduit = new GzipConduit( capturingConduit, pool );
+		final PooledDeflater deflater = conduit.deflater;
+		assertEquals( 0, pool.size() );
+		writeAndFinish( conduit );
+		assertEquals( 1, pool.size() );
+		assertSame( deflater, pool.borrow() );
+	}
+
+	@Test
+	public void ensureThatReleasesTheDeflaterWhenTheBodyIsTruncated() throws IOException {
+		final DeflaterPool pool = new DeflaterPool( -1, true, 1, 64 );
+		final GzipConduit conduit = new GzipConduit( capturingConduit, pool );
+		conduit.write( ByteBuffer.wrap( body ) );
+		conduit.truncateWrites();
+		assertEquals( 1, pool.size() );
+		assertTrue( capturingConduit.truncated );
+	}
+
+	@Test
+	public void ensureThatFlushingSendsEverythingWrittenSoFar() throws IOException {
+		final DeflaterPool pool = new DeflaterPool( -1, false, 1, 64 );
+		final DeflatingConduit conduit = new DeflatingConduit( capturingConduit, pool );
+		final byte[] chunk = "{\"id\":1,\"name\":\"kikaha\"}".getBytes( StandardCharsets.UTF_8 );
+		conduit.write( ByteBuffer.wrap( chunk ) );
+		capturingConduit.writable = true;
+		while ( !conduit.flush() )
+			capturingConduit.writable = true;
+
+		final Inflater inflater = new Inflater();
+		inflater.setInput( capturingConduit.output.toByteArray() );
+		final byte[] inflated = new byte[ chunk.length * 2 ];
+		try {
+			assertEquals( chunk.length, inflater.inflate( inflated ) );
+		} catch ( final DataFormatException cause ) {
+			throw new IOException( cause );
+		}
+		assertFalse( inflater.finished() );
+
+		final int flushedBytes = capturingConduit.output.size();
+		assertTrue( conduit.flush() );
+		assertEquals( flushedBytes, capturingConduit.output.size() );
+	}
+
+	/**
+	 * Writes the body as a non-blocking writer would, retrying whenever the
+	 * {@link CapturingConduit} refuses to take more bytes.
+	 */
+	void writeAndFinish( final StreamSinkConduit conduit ) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.wrap( body );
+		while ( buffer.hasRemaining() ) {
+			conduit.write( buffer );
+			capturingConduit.writable = true;
+		}
+		conduit.terminateWrites();
+		while ( !conduit.flush() )
+			capturingConduit.writable = true;
+		assertTrue( capturingConduit.terminated );
+	}
+
+	static byte[] readFully( final InputStream input ) throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[ 1024 ];
+		int read;
+		while ( ( read = input.read( buffer ) ) > 0 )
+			output.write( buffer, 0, read );
+		return output.toByteArray();
+	}
+
+	static byte[] createBody() {
+		final StringBuilder builder = new StringBuilder();
+		for ( int i = 0; i < 2000; i++ )
+			builder.append( "{\"id\":" ).append( i ).append( ",\"name\":\"kikaha\"}," );
+		return builder.toString().getBytes( StandardCharsets.UTF_8 );
+	}
+
+	/**
+	 * Takes at most 10 bytes at a time, and refuses every other write, as a slow client would.
+	 */
+	static class CapturingConduit extends AbstractStreamSinkConduit<StreamSinkConduit> {
+
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		boolean writable = true, terminated, truncated;
+
+		CapturingConduit() {
+			super( Mockito.mock( StreamSinkConduit.class ) );
+		}
+
+		@Override
+		public int write( final ByteBuffer src ) {
+			if ( !writable )
+				return 0;
+			writable = false;
+			final int length = Math.min( 10, src.remaining() );
+			for ( int i = 0; i < length; i++ )
+				output.write( src.get() );
+			return length;
+		}
+
+		@Override
+		public void terminateWrites() {
+			terminated = true;
+		}
+
+		@Override
+		public void truncateWrites() {
+			truncated = true;
+		}
+
+		@Override
+		public boolean flush() {
+			return true;
+		}
+
+		InputStream asInputStream() {
+			return new ByteArrayInputStream( output.toByteArray() );
+		}
+	}
+}
@@ -63,6 +63,22 @@ public class HttpHandlerDeploymentModuleTest {
 
 		verify( context ).register( eq("/path"), eq("POST"), eq(handler) );
 	}
+
+	@Test
+	public void ensureThatDeploysHandlersBoundToAHost() throws IOException {
+		final MyHostBoundHandler handler = new MyHostBoundHandler();
+		module.handlers = Arrays.asList( handler );
+		module.customizers = Arrays.asList();
+		module.load( null, context );
+
+		verify( context ).register( eq("*.example.com"), eq("/path"), eq("GET"), eq(handler) );
+	}
+}
+
+@WebResource(path="/path", host="*.example.com")
+class MyHostBoundHandler implements HttpHandler {
+	@Override
+	public void handleRequest(HttpServerExchange exchange) throws Exception {}
 }
 
 @WebResource(path="/path",method = "POST")
@@ -7,6 +7,8 @@ import static org.mockito.Mockito.*;
 import javax.inject.Inject;
 import io.undertow.server.*;
 import kikaha.config.Config;
+import kikaha.core.NonBlockingHttpHandler;
+import kikaha.core.SimpleRoutingHandler;
 import kikaha.core.cdi.CDI;
 import kikaha.core.test.*;
 import lombok.SneakyThrows;
@@ -35,12 +37,20 @@ public class AuthenticationHttpHandlerTest {
 	public void initializeMocks() {
 		MockitoAnnotations.initMocks( this );
 		AuthenticationRuleMatcher authenticationRuleMatcher = new AuthenticationRuleMatcher( provider, config.getConfig("server.auth"), authenticationEndpoints);
-		authenticationHook = spy( new AuthenticationHttpHandler(
-				authenticationRuleMatcher, authenticationEndpoints.getPermissionDeniedPage(),
-				rootHandler, securityConfiguration ) );
+		authenticationHook = createAuthenticationHook( authenticationRuleMatcher, null );
 		securityConfiguration.setFactory( factory );
 	}
 
+	AuthenticationHttpHandler createAuthenticationHook( final AuthenticationRuleMatcher authenticationRuleMatcher, final SimpleRoutingHandler routingHandler ) {
+		return spy( new AuthenticationHttpHandler(
+				authenticationRuleMatcher, authenticationEndpoints.getPermissionDeniedPage(),
+				rootHandler, securityConfiguration, routingHandler ) );
+	}
+
+	void routeThrough( final SimpleRoutingHandler routingHandler ) {
+		authenticationHook = createAuthenticationHook( authenticationHook.authenticationRuleMatcher, routingHandler );
+	}
+
 	@Test
 	@SneakyThrows
 	public void ensureThatCallTheHookInIOThreadWhenHasRuleThatMatchesTheRelativePath() {
@@ -65,4 +75,52 @@ public class AuthenticationHttpHandlerTest {
 		verify( authenticationHook ).runAuthenticationInIOThread( eq(exchange), eq(AuthenticationRule.EMPTY), eq(securityContext) );
 		assertNotNull( exchange.getSecurityContext() );
 	}
+
+	@Test
+	@SneakyThrows
+	public void ensureThatCallTheNextHandlerInSameThreadWhenRoutedToANonBlockingHandlerThatRequiresNoAuthentication() {
+		routeThrough( createRoutingHandlerWithNonBlockingRoute( "/non-blocking" ) );
+		doNothing().when(authenticationHook).runAuthenticationInIOThread( any(), any(), any());
+		doReturn(securityContext).when(factory).createSecurityContextFor(
+				eq(exchange), any( AuthenticationRule.class ), eq( securityConfiguration ) );
+		exchange.setRelativePath( "/non-blocking" );
+		authenticationHook.handleRequest(exchange);
+		verify( authenticationHook, never() ).runAuthenticationInIOThread( any(), any(), any() );
+		verify( rootHandler ).handleRequest( eq(exchange) );
+	}
+
+	@Test
+	@SneakyThrows
+	public void ensureThatCallTheHookInIOThreadWhenRoutedToANonBlockingHandlerThatRequiresAuthentication() {
+		routeThrough( createRoutingHandlerWithNonBlockingRoute( "/non-blocking" ) );
+		doNothing().when(authenticationHook).runAuthenticationInIOThread( any(), any(), any());
+		doReturn(securityContext).when(factory).createSecurityContextFor(
+				eq(exchange), any( AuthenticationRule.class ), eq( securityConfiguration ) );
+		doReturn( true ).when( securityContext ).isAuthenticationRequired();
+		exchange.setRelativePath( "/non-blocking" );
+		authenticationHook.handleRequest(exchange);
+		verify( authenticationHook ).runAuthenticationInIOThread( eq(exchange), any( AuthenticationRule.class ), eq(securityContext) );
+		verify( rootHandler, never() ).handleRequest( any() );
+	}
+
+	@Test
+	@SneakyThrows
+	public void ensureThatCallTheHookInIOThreadWhenRoutedToABlockingHandler() {
+		final SimpleRoutingHandler routingHandler = createRoutingHandlerWithNonBlockingRoute( "/non-blocking" );
+		routingHandler.add( "GET", "/blocking", mock( HttpHandler.class ) );
+		routeThrough( routingHandler );
+		doNothing().when(authenticationHook).runAuthenticationInIOThread( any(), any(), any());
+		doReturn(securityContext).when(factory).createSecurityContextFor(
+				eq(exchange), any( AuthenticationRule.class ), eq( securityConfiguration ) );
+		exchange.setRelativePath( "/blocking" );
+		authenticationHook.handleRequest(exchange);
+		verify( authenticationHook ).runAuthenticationInIOThread( eq(exchange), any( AuthenticationRule.class ), eq(securityContext) );
+	}
+
+	static SimpleRoutingHandler createRoutingHandlerWithNonBlockingRoute( final String url ) {
+		final SimpleRoutingHandler routingHandler = new SimpleRoutingHandler();
+		routingHandler.setFallbackHandler( mock( HttpHandler.class ) );
+		routingHandler.add( "GET", url, mock( NonBlockingHttpHandler.class ) );
+		return routingHandler;
+	}
 }
@@ -0,0 +1,24 @@
+package kikaha.core.modules.security;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class NotAuthorizedExceptionTest {
+
+	final IllegalStateException cause = new IllegalStateException( "token expired" );
+
+	@Test
+	public void ensureThatKeepsTheStackTraceByDefault(){
+		final NotAuthorizedException exception = new NotAuthorizedException( cause );
+		assertTrue( exception.getStackTrace().length > 0 );
+	}
+
+	@Test
+	public void ensureThatCanSkipTheStackTraceButKeepTheStackTraceOfItsCause(){
+		final NotAuthorizedException exception = NotAuthorizedException.withoutStackTrace( cause );
+		assertEquals( 0, exception.getStackTrace().length );
+		assertSame( cause, exception.getCause() );
+		assertEquals( cause.toString(), exception.getMessage() );
+		assertTrue( cause.getStackTrace().length > 0 );
+	}
+}
@@ -34,4 +34,18 @@ public class StaticHeaderModuleTest {
 		assertEquals( handler, staticHeadersHttpHandler.nextHandler );
 		assertNotNull( staticHeadersHttpHandler.matcher );
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void ensureThatSendHeadersOnResponsesThatNeverReachARoute() throws Exception {
+		final DeploymentContext deploymentContext = new DeploymentContext();
+		deploymentContext.rootHandler( exchange -> exchange.setStatusCode( 401 ) );
+
+		module.load( null, deploymentContext );
+
+		final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
+		exchange.setRelativePath( "/static/url" );
+		deploymentContext.rootHandler().handleRequest( exchange );
+		assertEquals( 401, exchange.getStatusCode() );
+		assertEquals( "/invalid/url", exchange.getResponseHeaders().getFirst( "Location" ) );
+	}
+}
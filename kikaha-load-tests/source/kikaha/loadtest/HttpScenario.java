@@ -0,0 +1,37 @@
+package kikaha.loadtest;
+
+import java.io.IOException;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import okhttp3.*;
+
+/**
+ * A {@link Scenario} that sends the same HTTP request over and over,
+ * reusing the keep-alive connections of the {@link LoadTestContext#client()}.
+ */
+@RequiredArgsConstructor
+public class HttpScenario implements Scenario {
+
+	final String name;
+	final Function<String, Request> requestFactory;
+
+	@Override
+	public String name() {
+		return name;
+	}
+
+	@Override
+	public Session openSession( final LoadTestContext context ) {
+		final Request request = requestFactory.apply( context.baseUrl() );
+		final Call.Factory client = context.client();
+		return () -> execute( client, request );
+	}
+
+	static void execute( final Call.Factory client, final Request request ) throws IOException {
+		try ( final Response response = client.newCall( request ).execute() ) {
+			if ( !response.isSuccessful() )
+				throw new IOException( "Unexpected response: " + response.code() );
+			response.body().bytes();
+		}
+	}
+}
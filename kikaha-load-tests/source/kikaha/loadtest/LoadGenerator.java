@@ -0,0 +1,127 @@
+package kikaha.loadtest;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Drives a {@link Scenario} through a fixed number of connections, each one
+ * handled by its own thread. Latencies are recorded in microseconds.<br>
+ * <br>
+ * On open loop mode requests are scheduled at a fixed rate and their latency is
+ * measured from the moment they should have been sent, thus a stalled server is
+ * also charged for the requests it prevented from being sent. On closed loop
+ * mode requests are sent back to back and the latencies are corrected through
+ * {@link Histogram#recordValueWithExpectedInterval(long, long)}, using the mean
+ * latency observed while warming up as the expected interval.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LoadGenerator {
+
+	final LoadTestContext context;
+
+	public LoadTestReport run( final Scenario scenario ) throws Exception {
+		log.info( "Warming up " + scenario.name() + "..." );
+		final Measurement warmup = measure( scenario, context.warmupMillis(), 0 );
+		final long expectedInterval = context.isOpenLoop() ? 0 : (long)warmup.histogram.getMean();
+
+		log.info( "Measuring " + scenario.name() + "..." );
+		final Measurement measurement = measure( scenario, context.durationMillis(), expectedInterval );
+		return new LoadTestReport( scenario.name(), context, expectedInterval,
+			measurement.histogram, measurement.requests, measurement.errors, measurement.elapsedNanos );
+	}
+
+	Measurement measure( final Scenario scenario, final long durationMillis, final long expectedInterval ) throws Exception {
+		final int connections = context.connections();
+		final ExecutorService executor = Executors.newFixedThreadPool( connections );
+		try {
+			final long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( 100 );
+			final long deadline = start + TimeUnit.MILLISECONDS.toNanos( durationMillis );
+			final List<Future<Measurement>> futures = new ArrayList<>();
+			for ( int i = 0; i < connections; i++ )
+				futures.add( executor.submit( new Connection( scenario, start, deadline, expectedInterval ) ) );
+
+			final Measurement measurement = new Measurement( newHistogram() );
+			for ( final Future<Measurement> future : futures )
+				measurement.add( future.get() );
+			measurement.elapsedNanos = System.nanoTime() - start;
+			return measurement;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	Histogram newHistogram() {
+		return new Histogram( TimeUnit.MILLISECONDS.toMicros( context.maxLatencyMillis() ), 3 );
+	}
+
+	@RequiredArgsConstructor
+	class Connection implements Callable<Measurement> {
+
+		final Scenario scenario;
+		final long start;
+		final long deadline;
+		final long expectedInterval;
+
+		@Override
+		public Measurement call() throws Exception {
+			final Measurement measurement = new Measurement( newHistogram() );
+			final long highestTrackableValue = measurement.histogram.getHighestTrackableValue();
+			final long intervalNanos = context.isOpenLoop()
+				? TimeUnit.SECONDS.toNanos( context.connections() ) / context.rate() : 0;
+
+			try ( final Scenario.Session session = scenario.openSession( context ) ) {
+				long intendedStart = start;
+				waitUntil( start );
+				while ( intendedStart < deadline ) {
+					final long requestStart = context.isOpenLoop() ? intendedStart : System.nanoTime();
+					try {
+						session.execute();
+					} catch ( Exception cause ) {
+						if ( measurement.errors++ == 0 )
+							log.warn( scenario.name() + ": " + cause );
+					}
+					final long end = System.nanoTime();
+					final long latency = Math.min( highestTrackableValue, TimeUnit.NANOSECONDS.toMicros( end - requestStart ) );
+					if ( expectedInterval > 0 )
+						measurement.histogram.recordValueWithExpectedInterval( latency, expectedInterval );
+					else
+						measurement.histogram.recordValue( latency );
+					measurement.requests++;
+
+					if ( context.isOpenLoop() ) {
+						intendedStart += intervalNanos;
+						waitUntil( intendedStart );
+					} else
+						intendedStart = end;
+				}
+			}
+			return measurement;
+		}
+
+		void waitUntil( final long time ) {
+			long remaining;
+			while ( ( remaining = time - System.nanoTime() ) > 0 && System.nanoTime() < deadline )
+				LockSupport.parkNanos( remaining );
+		}
+	}
+
+	@RequiredArgsConstructor
+	static class Measurement {
+
+		final Histogram histogram;
+		long requests;
+		long errors;
+		long elapsedNanos;
+
+		void add( final Measurement measurement ) {
+			histogram.add( measurement.histogram );
+			requests += measurement.requests;
+			errors += measurement.errors;
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package kikaha.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import kikaha.config.Config;
+import lombok.*;
+import lombok.experimental.Accessors;
+import okhttp3.*;
+
+/**
+ * The load test configuration, read from the {@code load-test} entry of
+ * {@code conf/application.yml}, and the client shared among the connections.
+ */
+@Getter
+@Accessors( fluent = true )
+public class LoadTestContext {
+
+	final String baseUrl;
+	final String outputDir;
+	final int connections;
+	final long warmupMillis;
+	final long durationMillis;
+	final int rate;
+	final long maxLatencyMillis;
+	final OkHttpClient client;
+
+	public LoadTestContext( final Config config ) {
+		final Config loadTestConfig = config.getConfig( "load-test" );
+		baseUrl = "http://" + config.getString( "server.http.host" ) + ":" + config.getInteger( "server.http.port" );
+		outputDir = loadTestConfig.getString( "output-dir", "output/load-tests" );
+		connections = loadTestConfig.getInteger( "connections", 16 );
+		warmupMillis = loadTestConfig.getLong( "warmup", 10000 );
+		durationMillis = loadTestConfig.getLong( "duration", 30000 );
+		rate = loadTestConfig.getInteger( "rate", 0 );
+		maxLatencyMillis = loadTestConfig.getLong( "max-latency", 60000 );
+		client = new OkHttpClient.Builder()
+			.connectionPool( new ConnectionPool( connections, 5, TimeUnit.MINUTES ) )
+			.readTimeout( maxLatencyMillis, TimeUnit.MILLISECONDS )
+			.retryOnConnectionFailure( false )
+			.build();
+	}
+
+	/**
+	 * @return whether requests are sent at a fixed {@link #rate()} (open loop)
+	 * or back to back (closed loop)
+	 */
+	public boolean isOpenLoop() {
+		return rate > 0;
+	}
+}
@@ -0,0 +1,59 @@
+package kikaha.loadtest;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+import lombok.*;
+import lombok.experimental.Accessors;
+import org.HdrHistogram.Histogram;
+
+/**
+ * The outcome of a {@link Scenario}. Latencies are expressed in microseconds.
+ */
+@Getter
+@Accessors( fluent = true )
+@RequiredArgsConstructor
+public class LoadTestReport {
+
+	final String scenario;
+	final LoadTestContext context;
+	final long expectedInterval;
+	final Histogram histogram;
+	final long requests;
+	final long errors;
+	final long elapsedNanos;
+
+	public double requestsPerSecond() {
+		return requests / ( elapsedNanos / (double)TimeUnit.SECONDS.toNanos( 1 ) );
+	}
+
+	public String summary() {
+		return String.format( "%-18s %10.1f req/s  p50=%dus  p99=%dus  p99.9=%dus  max=%dus  requests=%d  errors=%d",
+			scenario, requestsPerSecond(),
+			histogram.getValueAtPercentile( 50 ), histogram.getValueAtPercentile( 99 ),
+			histogram.getValueAtPercentile( 99.9 ), histogram.getMaxValue(), requests, errors );
+	}
+
+	/**
+	 * Write the summary and the latency percentile distribution (in the
+	 * HdrHistogram {@code .hgrm} format, with values in milliseconds) of this
+	 * scenario into {@code directory}.
+	 *
+	 * @param directory
+	 * @return the written file
+	 * @throws IOException
+	 */
+	public Path writeTo( final Path directory ) throws IOException {
+		Files.createDirectories( directory );
+		final Path file = directory.resolve( scenario + ".hgrm" );
+		try ( final PrintStream output = new PrintStream( Files.newOutputStream( file ), false, "UTF-8" ) ) {
+			output.println( "# " + summary() );
+			output.println( "# connections=" + context.connections() + " duration=" + context.durationMillis() + "ms"
+				+ ( context.isOpenLoop()
+					? " mode=open-loop rate=" + context.rate() + "req/s"
+					: " mode=closed-loop expected-interval=" + expectedInterval + "us" ) );
+			histogram.outputPercentileDistribution( output, 1000.0 );
+		}
+		return file;
+	}
+}
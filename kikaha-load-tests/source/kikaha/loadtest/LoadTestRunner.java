@@ -0,0 +1,45 @@
+package kikaha.loadtest;
+
+import java.nio.file.*;
+import java.util.*;
+import kikaha.config.Config;
+import kikaha.core.KikahaUndertowServer;
+import kikaha.core.cdi.*;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Boots a Kikaha server with the sample resources on the loopback interface
+ * and measures the throughput and latency of each scenario against it. The
+ * scenarios to run can be informed as arguments; when none is informed the
+ * ones listed at {@code load-test.scenarios} will run. The process exits with
+ * status {@code 1} when any request has failed.
+ */
+@Slf4j
+public class LoadTestRunner {
+
+	public static void main( final String[] args ) throws Exception {
+		final CDI cdi = DefaultCDI.newInstance();
+		final Config config = cdi.load( Config.class );
+		cdi.load( KikahaUndertowServer.class ).run();
+
+		final LoadTestContext context = new LoadTestContext( config );
+		final List<String> scenarios = args.length > 0
+			? Arrays.asList( args ) : config.getStringList( "load-test.scenarios" );
+		final LoadGenerator generator = new LoadGenerator( context );
+		final List<LoadTestReport> reports = new ArrayList<>();
+		for ( final String name : scenarios ) {
+			final LoadTestReport report = generator.run( Scenarios.named( name ) );
+			final Path file = report.writeTo( Paths.get( context.outputDir() ) );
+			log.info( report.summary() + "  (" + file + ")" );
+			reports.add( report );
+		}
+
+		log.info( "Summary:" );
+		boolean failed = false;
+		for ( final LoadTestReport report : reports ) {
+			log.info( "  " + report.summary() );
+			failed |= report.errors() > 0;
+		}
+		System.exit( failed ? 1 : 0 );
+	}
+}
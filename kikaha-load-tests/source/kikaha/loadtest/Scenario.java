@@ -0,0 +1,35 @@
+package kikaha.loadtest;
+
+/**
+ * A kind of request the load generator sends to the server.
+ */
+public interface Scenario {
+
+	String name();
+
+	/**
+	 * Open a session to the server. Each connection of the load generator
+	 * holds its own session, which is used by a single thread.
+	 *
+	 * @param context
+	 * @return the opened session
+	 * @throws Exception
+	 */
+	Session openSession( LoadTestContext context ) throws Exception;
+
+	/**
+	 * A sequence of requests sent by the same connection.
+	 */
+	interface Session extends AutoCloseable {
+
+		/**
+		 * Send a request and wait for its response.
+		 *
+		 * @throws Exception when the request could not be completed
+		 */
+		void execute() throws Exception;
+
+		@Override
+		default void close() {}
+	}
+}
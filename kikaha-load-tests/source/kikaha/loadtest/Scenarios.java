@@ -0,0 +1,39 @@
+package kikaha.loadtest;
+
+import java.util.*;
+import okhttp3.*;
+
+/**
+ * The scenarios available to the {@link LoadTestRunner}, indexed by name.
+ */
+public abstract class Scenarios {
+
+	static final MediaType JSON = MediaType.parse( "application/json" );
+	static final String JSON_MESSAGE = "{\"id\":1,\"author\":\"kikaha\",\"text\":\"Hello, World!\",\"tags\":[\"load\",\"test\"]}";
+	static final String BASIC_CREDENTIALS = Credentials.basic( "admin", "admin" );
+
+	static final Map<String, Scenario> AVAILABLE_SCENARIOS = new LinkedHashMap<>();
+
+	static {
+		register( new HttpScenario( "plain-text-get", url -> new Request.Builder()
+			.url( url + "/load/plain" ).build() ) );
+		register( new HttpScenario( "json-post", url -> new Request.Builder()
+			.url( url + "/load/json" ).post( RequestBody.create( JSON, JSON_MESSAGE ) ).build() ) );
+		register( new HttpScenario( "authenticated-get", url -> new Request.Builder()
+			.url( url + "/load/secured" ).header( "Authorization", BASIC_CREDENTIALS ).build() ) );
+		register( new HttpScenario( "form-post", url -> new Request.Builder()
+			.url( url + "/load/form" ).post( new FormBody.Builder().add( "id", "1" ).add( "name", "kikaha" ).build() ).build() ) );
+		register( new WebSocketEchoScenario( "/load/websocket", JSON_MESSAGE ) );
+	}
+
+	static void register( final Scenario scenario ) {
+		AVAILABLE_SCENARIOS.put( scenario.name(), scenario );
+	}
+
+	public static Scenario named( final String name ) {
+		final Scenario scenario = AVAILABLE_SCENARIOS.get( name );
+		if ( scenario == null )
+			throw new IllegalArgumentException( "Unknown scenario '" + name + "'. Available scenarios: " + AVAILABLE_SCENARIOS.keySet() );
+		return scenario;
+	}
+}
@@ -0,0 +1,77 @@
+package kikaha.loadtest;
+
+import java.io.IOException;
+import java.util.concurrent.*;
+import lombok.RequiredArgsConstructor;
+import okhttp3.*;
+
+/**
+ * A {@link Scenario} that sends a text message through a WebSocket and waits
+ * until the server sends it back.
+ */
+@RequiredArgsConstructor
+public class WebSocketEchoScenario implements Scenario {
+
+	final String path;
+	final String message;
+
+	@Override
+	public String name() {
+		return "websocket-echo";
+	}
+
+	@Override
+	public Session openSession( final LoadTestContext context ) throws Exception {
+		final EchoSession session = new EchoSession( context.maxLatencyMillis() );
+		final Request request = new Request.Builder().url( context.baseUrl() + path ).build();
+		session.webSocket = context.client().newWebSocket( request, session );
+		session.awaitToBeOpened();
+		return session;
+	}
+
+	@RequiredArgsConstructor
+	class EchoSession extends WebSocketListener implements Session {
+
+		final BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+		final CountDownLatch opened = new CountDownLatch( 1 );
+		final long timeoutMillis;
+		WebSocket webSocket;
+
+		void awaitToBeOpened() throws InterruptedException, IOException {
+			if ( !opened.await( timeoutMillis, TimeUnit.MILLISECONDS ) )
+				throw new IOException( "Could not open the WebSocket connection" );
+		}
+
+		@Override
+		public void execute() throws Exception {
+			if ( !webSocket.send( message ) )
+				throw new IOException( "The WebSocket connection is closed" );
+			final Object response = received.poll( timeoutMillis, TimeUnit.MILLISECONDS );
+			if ( response instanceof Throwable )
+				throw new IOException( (Throwable)response );
+			if ( !message.equals( response ) )
+				throw new IOException( "Unexpected message: " + response );
+		}
+
+		@Override
+		public void close() {
+			webSocket.close( 1000, null );
+		}
+
+		@Override
+		public void onOpen( final WebSocket webSocket, final Response response ) {
+			opened.countDown();
+		}
+
+		@Override
+		public void onMessage( final WebSocket webSocket, final String text ) {
+			received.offer( text );
+		}
+
+		@Override
+		public void onFailure( final WebSocket webSocket, final Throwable cause, final Response response ) {
+			received.offer( cause );
+			opened.countDown();
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package kikaha.loadtest.samples;
+
+import javax.inject.Singleton;
+import kikaha.core.modules.websocket.WebSocketSession;
+import kikaha.urouting.api.*;
+
+/**
+ * Sends every received message back to its sender.
+ */
+@Singleton
+@WebSocket( "load/websocket" )
+public class EchoWebSocketResource {
+
+	@OnMessage
+	public void onMessage( final WebSocketSession session, final String message ) {
+		session.send( message ).to( session.channel() );
+	}
+}
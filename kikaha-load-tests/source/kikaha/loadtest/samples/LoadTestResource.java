@@ -0,0 +1,43 @@
+package kikaha.loadtest.samples;
+
+import javax.inject.Singleton;
+import kikaha.urouting.api.*;
+
+/**
+ * The HTTP endpoints exercised by the load test scenarios.
+ */
+@Singleton
+@Path( "load" )
+public class LoadTestResource {
+
+	static final String HELLO_WORLD = "Hello, World!";
+
+	@GET
+	@Path( "plain" )
+	@Produces( Mimes.PLAIN_TEXT )
+	public String plainText() {
+		return HELLO_WORLD;
+	}
+
+	@POST
+	@Path( "json" )
+	@Consumes( Mimes.JSON )
+	@Produces( Mimes.JSON )
+	public Message json( final Message message ) {
+		return message;
+	}
+
+	@GET
+	@Path( "secured" )
+	@Produces( Mimes.PLAIN_TEXT )
+	public String secured() {
+		return HELLO_WORLD;
+	}
+
+	@POST
+	@Path( "form" )
+	@Produces( Mimes.PLAIN_TEXT )
+	public String form( @FormParam( "id" ) long id, @FormParam( "name" ) String name ) {
+		return name + id;
+	}
+}
@@ -0,0 +1,18 @@
+package kikaha.loadtest.samples;
+
+import java.util.List;
+import lombok.*;
+
+/**
+ * The payload sent by the JSON scenario.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Message {
+
+	long id;
+	String author;
+	String text;
+	List<String> tags;
+}
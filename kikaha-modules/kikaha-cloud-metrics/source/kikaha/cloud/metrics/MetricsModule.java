@@ -14,6 +14,8 @@ import io.undertow.Undertow;
 import io.undertow.server.*;
 import kikaha.config.Config;
 import kikaha.core.DeploymentContext;
+import kikaha.core.RouteResolutionCache;
+import kikaha.core.cdi.CDI;
 import kikaha.core.modules.Module;
 import kikaha.core.modules.http.*;
 import lombok.*;
@@ -29,8 +31,10 @@ public class MetricsModule implements HttpHandlerDeploymentModule.HttpHandlerDep
 
     final static String
         NAMESPACE_WEB = "kikaha.transactions", NAMESPACE_JVM = "kikaha.jvm",
+        NAMESPACE_ROUTE_CACHE = "kikaha.routing.cache",
         SUMMARIZED = "summarized",
-        JVM_METRICS = "server.metrics.jvm"
+        JVM_METRICS = "server.metrics.jvm",
+        UROUTING_CLASS = "kikaha.urouting.serializers.SerializerAndUnserializerProvider"
     ;
 
     final String name = "metrics";
@@ -39,6 +43,7 @@ public class MetricsModule implements HttpHandlerDeploymentModule.HttpHandlerDep
     @Inject MetricRegistry metricRegistry;
     @Inject MBeanServer mBeanServer;
     @Inject Config config;
+    @Inject CDI cdi;
 
     @Inject @Typed( MetricRegistryConfiguration.class )
     Iterable<MetricRegistryConfiguration> metricConfigurations;
@@ -77,6 +82,8 @@ public class MetricsModule implements HttpHandlerDeploymentModule.HttpHandlerDep
         runExternalMetricConfigurations();
         loadJvmMetrics();
         registerSummarizedMetricsForWebRequests( context );
+        registerRouteResolutionCacheMetrics( context );
+        registerURoutingMetrics();
 
         final ReporterConfiguration reporterConfiguration = configuration.reporterConfiguration();
         reporterConfiguration.configureAndStartReportFor( metricRegistry );
@@ -92,6 +99,29 @@ public class MetricsModule implements HttpHandlerDeploymentModule.HttpHandlerDep
         context.rootHandler( httpHandler );
     }
 
+    private void registerRouteResolutionCacheMetrics( final DeploymentContext context ){
+        final RouteResolutionCache routeCache = context.routingHandler().getRouteCache();
+        if ( routeCache == null ) return;
+        metricRegistry.register( MetricRegistry.name(NAMESPACE_ROUTE_CACHE, "hits"), (Gauge<Long>)routeCache::getHits );
+        metricRegistry.register( MetricRegistry.name(NAMESPACE_ROUTE_CACHE, "misses"), (Gauge<Long>)routeCache::getMisses );
+        metricRegistry.register( MetricRegistry.name(NAMESPACE_ROUTE_CACHE, "size"), (Gauge<Integer>)routeCache::size );
+        log.debug( "  Registered route resolution cache metrics" );
+    }
+
+    private void registerURoutingMetrics(){
+        if ( !isURoutingAvailable() ) return;
+        new URoutingMetrics( metricRegistry, cdi ).register();
+    }
+
+    boolean isURoutingAvailable(){
+        try {
+            Class.forName( UROUTING_CLASS, false, getClass().getClassLoader() );
+            return true;
+        } catch ( ClassNotFoundException | NoClassDefFoundError cause ) {
+            return false;
+        }
+    }
+
     private void runExternalMetricConfigurations() {
         for ( final MetricRegistryConfiguration configuration : metricConfigurations )
             configuration.configure( metricRegistry );
@@ -0,0 +1,73 @@
+package kikaha.cloud.metrics;
+
+import java.util.Map;
+import com.codahale.metrics.*;
+import kikaha.core.cdi.CDI;
+import kikaha.urouting.BulkheadExecutor;
+import kikaha.urouting.Bulkheads;
+import kikaha.urouting.ResponseCache;
+import kikaha.urouting.serializers.SerializerAndUnserializerProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registers the metrics of the uRouting module. uRouting is an optional dependency,
+ * thus {@link MetricsModule} only loads this class once it knows uRouting is available.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class URoutingMetrics {
+
+    final static String
+        NAMESPACE_CONTENT_NEGOTIATION = "kikaha.urouting.content-negotiation",
+        NAMESPACE_RESPONSE_CACHE = "kikaha.urouting.response-cache",
+        NAMESPACE_BULKHEADS = "kikaha.urouting.bulkheads"
+    ;
+
+    final MetricRegistry metricRegistry;
+    final CDI cdi;
+
+    void register(){
+        registerContentNegotiationMetrics();
+        registerResponseCacheMetrics();
+        registerBulkheadMetrics();
+    }
+
+    private void registerContentNegotiationMetrics(){
+        final SerializerAndUnserializerProvider provider = cdi.load( SerializerAndUnserializerProvider.class );
+        if ( provider == null ) return;
+        metricRegistry.register( MetricRegistry.name(NAMESPACE_CONTENT_NEGOTIATION, "content-types"), (Gauge<Map<String, Long>>)provider::getContentTypeCounters );
+        metricRegistry.register( MetricRegistry.name(NAMESPACE_CONTENT_NEGOTIATION, "content-types", "uncached"), (Gauge<Long>)provider::getUncachedContentTypes );
+        metricRegistry.register( MetricRegistry.name(NAMESPACE_CONTENT_NEGOTIATION, "accepts"), (Gauge<Map<String, Long>>)provider::getAcceptCounters );
+        metricRegistry.register( MetricRegistry.name(NAMESPACE_CONTENT_NEGOTIATION, "accepts", "uncached"), (Gauge<Long>)provider::getUncachedAccepts );
+        log.debug( "  Registered content negotiation metrics" );
+    }
+
+    private void registerResponseCacheMetrics(){
+        final ResponseCache cache = cdi.load( ResponseCache.class );
+        if ( cache == null ) return;
+        metricRegistry.register( MetricRegistry.name(NAMESPACE_RESPONSE_CACHE, "hits"), (Gauge<Long>)cache::getHits );
+        metricRegistry.register( MetricRegistry.name(NAMESPACE_RESPONSE_CACHE, "stale-hits"), (Gauge<Long>)cache::getStaleHits );
+        metricRegistry.register( MetricRegistry.name(NAMESPACE_RESPONSE_CACHE, "misses"), (Gauge<Long>)cache::getMisses );
+        metricRegistry.register( MetricRegistry.name(NAMESPACE_RESPONSE_CACHE, "hit-ratio"), (Gauge<Double>)cache::getHitRatio );
+        log.debug( "  Registered response cache metrics" );
+    }
+
+    /**
+     * Bulkheads are created along with the routes that use them, which may happen
+     * after this module is loaded. Thus, their metrics are registered as they are created.
+     */
+    private void registerBulkheadMetrics(){
+        final Bulkheads bulkheads = cdi.load( Bulkheads.class );
+        if ( bulkheads == null ) return;
+        bulkheads.forEachBulkhead( this::registerBulkheadMetrics );
+    }
+
+    private void registerBulkheadMetrics( final BulkheadExecutor bulkhead ){
+        final String namespace = MetricRegistry.name(NAMESPACE_BULKHEADS, bulkhead.getName());
+        metricRegistry.register( MetricRegistry.name(namespace, "active-count"), (Gauge<Integer>)bulkhead::getActiveCount );
+        metricRegistry.register( MetricRegistry.name(namespace, "queue-depth"), (Gauge<Integer>)bulkhead::getQueueDepth );
+        metricRegistry.register( MetricRegistry.name(namespace, "rejected"), (Gauge<Long>)bulkhead::getRejected );
+        log.debug( "  Registered metrics of bulkhead '" + bulkhead.getName() + "'" );
+    }
+}
@@ -4,13 +4,19 @@ import static kikaha.cloud.metrics.MetricsModule.*;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.*;
+import java.util.function.Consumer;
 import com.codahale.metrics.*;
 import io.undertow.server.HttpHandler;
 import kikaha.config.*;
 import kikaha.core.DeploymentContext;
+import kikaha.core.RouteResolutionCache;
 import kikaha.core.cdi.CDI;
 import kikaha.core.modules.http.WebResource;
+import kikaha.urouting.BulkheadExecutor;
+import kikaha.urouting.Bulkheads;
+import kikaha.urouting.ResponseCache;
+import kikaha.urouting.serializers.SerializerAndUnserializerProvider;
 import org.junit.*;
 import org.junit.runner.RunWith;
 import org.mockito.*;
@@ -103,6 +109,61 @@ public class MetricsModuleTest {
         verify( reporterConfiguration ).configureAndStartReportFor( Matchers.eq( metricRegistry ) );
     }
 
+    @Test
+    public void shouldBeAbleToExposeTheRouteResolutionCacheMetrics() throws IOException {
+        final DeploymentContext deploymentContext = new DeploymentContext();
+        deploymentContext.routingHandler().setRouteCache( new RouteResolutionCache( 10 ) );
+        module.registerAvailableJvmMetrics();
+        module.load(null, deploymentContext);
+        Assert.assertTrue( metricRegistry.getGauges().containsKey( NAMESPACE_ROUTE_CACHE + ".hits" ) );
+        Assert.assertTrue( metricRegistry.getGauges().containsKey( NAMESPACE_ROUTE_CACHE + ".misses" ) );
+    }
+
+    @Test
+    public void shouldBeAbleToExposeTheContentNegotiationMetrics() throws IOException {
+        doReturn( new SerializerAndUnserializerProvider( new HashMap<>(), new HashMap<>() ) )
+            .when( cdi ).load( eq(SerializerAndUnserializerProvider.class) );
+        final DeploymentContext deploymentContext = new DeploymentContext();
+        module.registerAvailableJvmMetrics();
+        module.load(null, deploymentContext);
+        final String namespace = URoutingMetrics.NAMESPACE_CONTENT_NEGOTIATION;
+        Assert.assertTrue( metricRegistry.getGauges().containsKey( namespace + ".content-types" ) );
+        Assert.assertTrue( metricRegistry.getGauges().containsKey( namespace + ".content-types.uncached" ) );
+        Assert.assertTrue( metricRegistry.getGauges().containsKey( namespace + ".accepts" ) );
+        Assert.assertTrue( metricRegistry.getGauges().containsKey( namespace + ".accepts.uncached" ) );
+    }
+
+    @Test
+    public void shouldBeAbleToExposeTheResponseCacheMetrics() throws IOException {
+        doReturn( new ResponseCache() ).when( cdi ).load( eq(ResponseCache.class) );
+        final DeploymentContext deploymentContext = new DeploymentContext();
+        module.registerAvailableJvmMetrics();
+        module.load(null, deploymentContext);
+        final String namespace = URoutingMetrics.NAMESPACE_RESPONSE_CACHE;
+        Assert.assertTrue( metricRegistry.getGauges().containsKey( namespace + ".hits" ) );
+        Assert.assertTrue( metricRegistry.getGauges().containsKey( namespace + ".stale-hits" ) );
+        Assert.assertTrue( metricRegistry.getGauges().containsKey( namespace + ".misses" ) );
+        Assert.assertTrue( metricRegistry.getGauges().containsKey( namespace + ".hit-ratio" ) );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldBeAbleToExposeTheMetricsOfBulkheadsCreatedAfterTheModuleIsLoaded() throws IOException {
+        final Bulkheads bulkheads = mock( Bulkheads.class );
+        doReturn( bulkheads ).when( cdi ).load( eq(Bulkheads.class) );
+        final DeploymentContext deploymentContext = new DeploymentContext();
+        module.registerAvailableJvmMetrics();
+        module.load(null, deploymentContext);
+
+        final ArgumentCaptor<Consumer<BulkheadExecutor>> listener = ArgumentCaptor.forClass( (Class)Consumer.class );
+        verify( bulkheads ).forEachBulkhead( listener.capture() );
+        listener.getValue().accept( new BulkheadExecutor( "reports", 1, 0 ) );
+        final String namespace = URoutingMetrics.NAMESPACE_BULKHEADS + ".reports";
+        Assert.assertTrue( metricRegistry.getGauges().containsKey( namespace + ".active-count" ) );
+        Assert.assertTrue( metricRegistry.getGauges().containsKey( namespace + ".queue-depth" ) );
+        Assert.assertTrue( metricRegistry.getGauges().containsKey( namespace + ".rejected" ) );
+    }
+
     @Test
     public void shouldBeAbleToCallAllMetricRegistryConfigurations() throws IOException {
         final DeploymentContext deploymentContext = new DeploymentContext();
@@ -0,0 +1,215 @@
+package kikaha.urouting.serializers.jackson;
+
+import java.io.IOException;
+import java.util.*;
+import com.fasterxml.jackson.core.*;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Base class of the generated {@link JSONCodec}s. Its helpers read the expected token
+ * straight from the parser, and hand anything else (nulls, coercions, malformed
+ * documents) to the {@link ObjectMapper} that created the parser, thus the generated
+ * codecs behave exactly as the reflection based deserializers they replace.
+ *
+ * @param <T>
+ */
+@RequiredArgsConstructor
+public abstract class AbstractJSONCodec<T> implements JSONCodec<T> {
+
+	final Class<T> type;
+
+	@Override
+	public Class<T> type() {
+		return type;
+	}
+
+	protected static String readString( final JsonParser parser ) throws IOException {
+		final JsonToken token = parser.getCurrentToken();
+		if ( token == JsonToken.VALUE_STRING )
+			return parser.getText();
+		if ( token == JsonToken.VALUE_NULL )
+			return null;
+		return parser.readValueAs( String.class );
+	}
+
+	protected static int readInt( final JsonParser parser ) throws IOException {
+		if ( parser.getCurrentToken() == JsonToken.VALUE_NUMBER_INT )
+			return parser.getIntValue();
+		return parser.readValueAs( int.class );
+	}
+
+	protected static Integer readIntOrNull( final JsonParser parser ) throws IOException {
+		final JsonToken token = parser.getCurrentToken();
+		if ( token == JsonToken.VALUE_NUMBER_INT )
+			return parser.getIntValue();
+		if ( token == JsonToken.VALUE_NULL )
+			return null;
+		return parser.readValueAs( Integer.class );
+	}
+
+	protected static long readLong( final JsonParser parser ) throws IOException {
+		if ( parser.getCurrentToken() == JsonToken.VALUE_NUMBER_INT )
+			return parser.getLongValue();
+		return parser.readValueAs( long.class );
+	}
+
+	protected static Long readLongOrNull( final JsonParser parser ) throws IOException {
+		final JsonToken token = parser.getCurrentToken();
+		if ( token == JsonToken.VALUE_NUMBER_INT )
+			return parser.getLongValue();
+		if ( token == JsonToken.VALUE_NULL )
+			return null;
+		return parser.readValueAs( Long.class );
+	}
+
+	protected static double readDouble( final JsonParser parser ) throws IOException {
+		final JsonToken token = parser.getCurrentToken();
+		if ( token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT )
+			return parser.getDoubleValue();
+		return parser.readValueAs( double.class );
+	}
+
+	protected static Double readDoubleOrNull( final JsonParser parser ) throws IOException {
+		final JsonToken token = parser.getCurrentToken();
+		if ( token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT )
+			return parser.getDoubleValue();
+		if ( token == JsonToken.VALUE_NULL )
+			return null;
+		return parser.readValueAs( Double.class );
+	}
+
+	protected static float readFloat( final JsonParser parser ) throws IOException {
+		final JsonToken token = parser.getCurrentToken();
+		if ( token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT )
+			return parser.getFloatValue();
+		return parser.readValueAs( float.class );
+	}
+
+	protected static Float readFloatOrNull( final JsonParser parser ) throws IOException {
+		final JsonToken token = parser.getCurrentToken();
+		if ( token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT )
+			return parser.getFloatValue();
+		if ( token == JsonToken.VALUE_NULL )
+			return null;
+		return parser.readValueAs( Float.class );
+	}
+
+	protected static boolean readBoolean( final JsonParser parser ) throws IOException {
+		final JsonToken token = parser.getCurrentToken();
+		if ( token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE )
+			return token == JsonToken.VALUE_TRUE;
+		return parser.readValueAs( boolean.class );
+	}
+
+	protected static Boolean readBooleanOrNull( final JsonParser parser ) throws IOException {
+		final JsonToken token = parser.getCurrentToken();
+		if ( token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE )
+			return token == JsonToken.VALUE_TRUE;
+		if ( token == JsonToken.VALUE_NULL )
+			return null;
+		return parser.readValueAs( Boolean.class );
+	}
+
+	protected static <E> List<E> readList( final JsonParser parser, final ValueReader<E> reader, final TypeReference<List<E>> type ) throws IOException {
+		final JsonToken token = parser.getCurrentToken();
+		if ( token == JsonToken.VALUE_NULL )
+			return null;
+		if ( token != JsonToken.START_ARRAY )
+			return parser.readValueAs( type );
+		final List<E> list = new ArrayList<>();
+		while ( parser.nextToken() != JsonToken.END_ARRAY )
+			list.add( reader.read( parser ) );
+		return list;
+	}
+
+	/**
+	 * Skip the value of a property the codec does not know about, or fail as the
+	 * {@link ObjectMapper} would when {@link DeserializationFeature#FAIL_ON_UNKNOWN_PROPERTIES}
+	 * is enabled.
+	 */
+	protected static void handleUnknownProperty( final JsonParser parser, final Object object,
+			final String name, final Collection<Object> knownProperties ) throws IOException
+	{
+		final ObjectCodec codec = parser.getCodec();
+		if ( !( codec instanceof ObjectMapper ) || ( (ObjectMapper)codec ).isEnabled( DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES ) )
+			throw UnrecognizedPropertyException.from( parser, object, name, knownProperties );
+		parser.skipChildren();
+	}
+
+	protected static void writeValue( final String value, final JsonGenerator generator ) throws IOException {
+		generator.writeString( value );
+	}
+
+	protected static void writeValue( final Integer value, final JsonGenerator generator ) throws IOException {
+		if ( value == null )
+			generator.writeNull();
+		else
+			generator.writeNumber( value );
+	}
+
+	protected static void writeValue( final Long value, final JsonGenerator generator ) throws IOException {
+		if ( value == null )
+			generator.writeNull();
+		else
+			generator.writeNumber( value );
+	}
+
+	protected static void writeValue( final Double value, final JsonGenerator generator ) throws IOException {
+		if ( value == null )
+			generator.writeNull();
+		else
+			generator.writeNumber( value );
+	}
+
+	protected static void writeValue( final Float value, final JsonGenerator generator ) throws IOException {
+		if ( value == null )
+			generator.writeNull();
+		else
+			generator.writeNumber( value );
+	}
+
+	protected static void writeValue( final Short value, final JsonGenerator generator ) throws IOException {
+		if ( value == null )
+			generator.writeNull();
+		else
+			generator.writeNumber( value );
+	}
+
+	protected static void writeValue( final Byte value, final JsonGenerator generator ) throws IOException {
+		if ( value == null )
+			generator.writeNull();
+		else
+			generator.writeNumber( value.intValue() );
+	}
+
+	protected static void writeValue( final Boolean value, final JsonGenerator generator ) throws IOException {
+		if ( value == null )
+			generator.writeNull();
+		else
+			generator.writeBoolean( value );
+	}
+
+	protected static <E> void writeList( final List<E> list, final JsonGenerator generator, final ValueWriter<E> writer ) throws IOException {
+		if ( list == null ) {
+			generator.writeNull();
+			return;
+		}
+		generator.writeStartArray( list.size() );
+		for ( final E item : list )
+			writer.write( item, generator );
+		generator.writeEndArray();
+	}
+
+	@FunctionalInterface
+	public interface ValueReader<E> {
+		E read( final JsonParser parser ) throws IOException;
+	}
+
+	@FunctionalInterface
+	public interface ValueWriter<E> {
+		void write( final E value, final JsonGenerator generator ) throws IOException;
+	}
+}
@@ -0,0 +1,39 @@
+package kikaha.urouting.serializers.jackson;
+
+import java.io.IOException;
+import com.fasterxml.jackson.core.*;
+
+/**
+ * Reads and writes a single type straight from/to the Jackson streaming API, without
+ * the reflection based bean (de)serializers of the {@link com.fasterxml.jackson.databind.ObjectMapper}.
+ * Implementations are generated at compile time for the entities returned or consumed
+ * by the routing methods, and are picked up by the {@link JSONHttpSerializer} through
+ * the {@link JSONCodecs} registry.
+ *
+ * @param <T>
+ */
+public interface JSONCodec<T> {
+
+	/**
+	 * @return the type this codec is able to read and write
+	 */
+	Class<T> type();
+
+	/**
+	 * Write {@code object} as a JSON value.
+	 *
+	 * @param object
+	 * @param generator
+	 * @throws IOException
+	 */
+	void write( final T object, final JsonGenerator generator ) throws IOException;
+
+	/**
+	 * Read the JSON value the {@code parser} is currently positioned at.
+	 *
+	 * @param parser
+	 * @return
+	 * @throws IOException
+	 */
+	T read( final JsonParser parser ) throws IOException;
+}
@@ -0,0 +1,101 @@
+package kikaha.urouting.serializers.jackson;
+
+import java.io.*;
+import java.util.*;
+import javax.annotation.PostConstruct;
+import javax.enterprise.inject.Typed;
+import javax.inject.*;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.*;
+import com.fasterxml.jackson.databind.*;
+import kikaha.config.Config;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the {@link JSONCodec}s generated at compile time. Codecs are only handed out
+ * when the {@link ObjectMapper} is configured the way they expect (no naming strategy,
+ * mix-ins, root wrapping, pretty printing or custom inclusion rules): otherwise the
+ * generated output would differ from the mapper's one, and every type falls back to it.
+ */
+@Slf4j
+@Singleton
+public class JSONCodecs {
+
+	@Inject @Typed( JSONCodec.class )
+	Iterable<JSONCodec> availableCodecs;
+
+	@Inject Jackson jackson;
+	@Inject Config config;
+
+	Map<Class<?>, JSONCodec<?>> codecs = Collections.emptyMap();
+	JsonFactory factory;
+
+	@PostConstruct
+	public void loadCodecs() {
+		final ObjectMapper mapper = jackson.objectMapper();
+		factory = mapper.getFactory();
+		if ( !config.getBoolean( "server.jackson.generated-codecs", true ) )
+			return;
+		if ( !isCompatibleWith( mapper ) ) {
+			log.warn( "The ObjectMapper configuration is not supported by the generated JSON codecs. They will not be used." );
+			return;
+		}
+
+		final Map<Class<?>, JSONCodec<?>> codecs = new IdentityHashMap<>();
+		for ( final JSONCodec<?> codec : availableCodecs )
+			codecs.put( codec.type(), codec );
+		this.codecs = codecs;
+	}
+
+	static boolean isCompatibleWith( final ObjectMapper mapper ) {
+		final SerializationConfig serializationConfig = mapper.getSerializationConfig();
+		final DeserializationConfig deserializationConfig = mapper.getDeserializationConfig();
+		final JsonInclude.Include inclusion = serializationConfig.getDefaultPropertyInclusion().getValueInclusion();
+		return ( inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS )
+			&& serializationConfig.getPropertyNamingStrategy() == null
+			&& deserializationConfig.getPropertyNamingStrategy() == null
+			&& mapper.mixInCount() == 0
+			&& !mapper.isEnabled( SerializationFeature.INDENT_OUTPUT )
+			&& !mapper.isEnabled( SerializationFeature.WRAP_ROOT_VALUE )
+			&& !mapper.isEnabled( DeserializationFeature.UNWRAP_ROOT_VALUE )
+			&& !mapper.isEnabled( MapperFeature.SORT_PROPERTIES_ALPHABETICALLY )
+			&& !mapper.isEnabled( MapperFeature.USE_STD_BEAN_NAMING )
+			&& mapper.isEnabled( MapperFeature.AUTO_DETECT_FIELDS )
+			&& mapper.isEnabled( MapperFeature.AUTO_DETECT_GETTERS )
+			&& mapper.isEnabled( MapperFeature.AUTO_DETECT_IS_GETTERS )
+			&& mapper.isEnabled( MapperFeature.AUTO_DETECT_SETTERS );
+	}
+
+	/**
+	 * @param type
+	 * @return the codec generated for {@code type}, or {@code null} if there is none.
+	 */
+	@SuppressWarnings( "unchecked" )
+	public <T> JSONCodec<T> codecFor( final Class<T> type ) {
+		return (JSONCodec<T>)codecs.get( type );
+	}
+
+	public <T> void write( final JSONCodec<T> codec, final T object, final OutputStream output ) throws IOException {
+		try ( final JsonGenerator generator = factory.createGenerator( output, JsonEncoding.UTF8 ) ) {
+			codec.write( object, generator );
+		}
+	}
+
+	public <T> T read( final JSONCodec<T> codec, final byte[] bytes ) throws IOException {
+		try ( final JsonParser parser = factory.createParser( bytes ) ) {
+			return read( codec, parser );
+		}
+	}
+
+	public <T> T read( final JSONCodec<T> codec, final InputStream input ) throws IOException {
+		try ( final JsonParser parser = factory.createParser( input ) ) {
+			return read( codec, parser );
+		}
+	}
+
+	private static <T> T read( final JSONCodec<T> codec, final JsonParser parser ) throws IOException {
+		if ( parser.nextToken() == null )
+			throw JsonMappingException.from( parser, "No content to map due to end-of-input" );
+		return codec.read( parser );
+	}
+}
@@ -1,35 +1,57 @@
 package kikaha.urouting.serializers.jackson;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
+import java.io.InputStream;
+import java.io.OutputStream;
 import javax.inject.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.undertow.server.HttpServerExchange;
 import kikaha.core.modules.http.ContentType;
 import kikaha.urouting.api.*;
+import kikaha.urouting.serializers.AbstractNonBlockingSerializer;
 import kikaha.urouting.serializers.Serializer;
+import kikaha.urouting.serializers.StreamingUnserializer;
 import kikaha.urouting.serializers.Unserializer;
 
+/**
+ * Reads and writes JSON documents. Types that have a {@link JSONCodec} generated
+ * at compile time are handled by it, any other type is handled by the {@link ObjectMapper}.
+ */
 @ContentType(Mimes.JSON)
 @Singleton
-public class JSONHttpSerializer implements Serializer, Unserializer {
+public class JSONHttpSerializer extends AbstractNonBlockingSerializer implements Serializer, Unserializer, StreamingUnserializer {
 
 	@Inject
 	Jackson jackson;
 
-	@Override
-	public <T> void serialize(T object, HttpServerExchange exchange, String encoding) throws IOException {
-		final byte[] bytes = jackson.objectMapper().writeValueAsBytes(object);
-		send(exchange, ByteBuffer.wrap(bytes));
-	}
+	@Inject
+	JSONCodecs codecs;
 
-	public void send(final HttpServerExchange exchange, final ByteBuffer buffer) {
-		exchange.getResponseSender().send( buffer );
+	@Override
+	@SuppressWarnings( "unchecked" )
+	public <T> void serialize( final T object, final OutputStream output, final String encoding ) throws IOException {
+		final JSONCodec<T> codec = object != null ? codecs.codecFor( (Class<T>)object.getClass() ) : null;
+		if ( codec != null )
+			codecs.write( codec, object, output );
+		else
+			jackson.objectMapper().writeValue( output, object );
 	}
 
 	@Override
 	public <T> T unserialize( final HttpServerExchange exchange, final Class<T> targetClass, byte[] bodyData, final String encoding ) throws IOException {
+		final JSONCodec<T> codec = codecs.codecFor( targetClass );
+		if ( codec != null )
+			return codecs.read( codec, bodyData );
 		final ObjectMapper mapper = jackson.objectMapper();
 		return mapper.readValue( bodyData, targetClass );
 	}
+
+	@Override
+	public <T> T unserialize( final HttpServerExchange exchange, final Class<T> targetClass, final InputStream body, final String encoding ) throws IOException {
+		final JSONCodec<T> codec = codecs.codecFor( targetClass );
+		if ( codec != null )
+			return codecs.read( codec, body );
+		final ObjectMapper mapper = jackson.objectMapper();
+		return mapper.readValue( body, targetClass );
+	}
 }
@@ -0,0 +1,83 @@
+package kikaha.urouting.serializers.jackson.apt;
+
+import java.io.IOException;
+import java.util.*;
+import javax.annotation.processing.*;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import kikaha.apt.*;
+
+/**
+ * Generates a {@link kikaha.urouting.serializers.jackson.JSONCodec} for the entities
+ * returned or received (as request body) by the routing methods. Entities the codecs
+ * are not able to handle exactly as the {@link com.fasterxml.jackson.databind.ObjectMapper}
+ * would are silently ignored, and will be handled by the mapper at runtime.
+ */
+@SupportedAnnotationTypes( {
+	"kikaha.urouting.api.GET", "kikaha.urouting.api.POST", "kikaha.urouting.api.PUT",
+	"kikaha.urouting.api.DELETE", "kikaha.urouting.api.PATCH" } )
+public class JSONCodecAnnotationProcessor extends AnnotationProcessor {
+
+	final Set<String> pendingEntities = new LinkedHashSet<>();
+	final Set<String> generatedCodecs = new HashSet<>();
+
+	ClassGenerator generator;
+	JSONCodecTypeAnalyzer analyzer;
+
+	@Override
+	public synchronized void init( final ProcessingEnvironment processingEnv ) {
+		super.init( processingEnv );
+		generator = new ClassGenerator( processingEnv.getFiler(), "json-codec-class.mustache" );
+		analyzer = new JSONCodecTypeAnalyzer( processingEnv.getElementUtils(), processingEnv.getTypeUtils() );
+	}
+
+	/**
+	 * Entities are only analyzed on the round after their routing methods were found,
+	 * thus the accessors generated by other processors (e.g. Lombok) are already visible.
+	 */
+	@Override
+	public boolean process( final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv ) {
+		try {
+			final List<String> entities = new ArrayList<>( pendingEntities );
+			pendingEntities.clear();
+			for ( final TypeElement annotation : annotations )
+				for ( final ExecutableElement method : ElementFilter.methodsIn( roundEnv.getElementsAnnotatedWith( annotation ) ) )
+					collectEntitiesFrom( method );
+			if ( roundEnv.processingOver() )
+				entities.addAll( pendingEntities );
+			for ( final String entity : entities )
+				generateCodecsFor( processingEnv.getElementUtils().getTypeElement( entity ) );
+		} catch ( final IOException cause ) {
+			processingEnv.getMessager().printMessage( Diagnostic.Kind.ERROR, "Could not generate JSON codecs: " + cause.getMessage() );
+		}
+		return false;
+	}
+
+	void collectEntitiesFrom( final ExecutableElement method ) {
+		collectEntity( method.getReturnType() );
+		for ( final VariableElement parameter : method.getParameters() )
+			if ( parameter.getAnnotationMirrors().isEmpty() )
+				collectEntity( parameter.asType() );
+	}
+
+	void collectEntity( final TypeMirror type ) {
+		if ( type.getKind() == TypeKind.DECLARED && ((DeclaredType)type).getTypeArguments().isEmpty() )
+			pendingEntities.add( ((TypeElement)((DeclaredType)type).asElement()).getQualifiedName().toString() );
+	}
+
+	void generateCodecsFor( final TypeElement entity ) throws IOException {
+		if ( entity == null )
+			return;
+		for ( final JSONCodecData codec : analyzer.analyze( entity.asType() ) )
+			if ( generatedCodecs.add( codec.getType() ) ) {
+				debug( "  JSON codec for " + codec.getType() );
+				try {
+					generator.generate( codec );
+				} catch ( final FilerException cause ) {
+					debug( "  JSON codec for " + codec.getType() + " was already generated" );
+				}
+			}
+	}
+}
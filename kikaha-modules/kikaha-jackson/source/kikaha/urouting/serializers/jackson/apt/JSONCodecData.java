@@ -0,0 +1,41 @@
+package kikaha.urouting.serializers.jackson.apt;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import kikaha.apt.GenerableClass;
+import lombok.*;
+
+/**
+ * Meta information needed to generate the {@link kikaha.urouting.serializers.jackson.JSONCodec}
+ * of an entity.
+ */
+@Getter
+@RequiredArgsConstructor
+public class JSONCodecData implements GenerableClass {
+
+	final String packageName;
+	final String typeName;
+	final String generatedClassName;
+	final List<Property> properties;
+
+	public String getPropertyNames() {
+		return properties.stream().map( p -> "\"" + p.getName() + "\"" ).collect( Collectors.joining( ", " ) );
+	}
+
+	@Override
+	public String toString() {
+		return getType();
+	}
+
+	/**
+	 * A JSON property, with the statements that write it from and read it into the entity.
+	 */
+	@Value
+	public static class Property {
+		final String name;
+		final String constant;
+		final String writeStatement;
+		final String readStatement;
+		final String typeReference;
+	}
+}
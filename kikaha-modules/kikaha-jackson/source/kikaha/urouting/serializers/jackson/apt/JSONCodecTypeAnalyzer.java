@@ -0,0 +1,317 @@
+package kikaha.urouting.serializers.jackson.apt;
+
+import static java.lang.String.format;
+
+import java.util.*;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.*;
+import kikaha.urouting.serializers.jackson.apt.JSONCodecData.Property;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Checks whether an entity can be handled by a generated codec exactly as the default
+ * {@link com.fasterxml.jackson.databind.ObjectMapper} would handle it. Only plain
+ * beans are accepted: public, non-generic, directly extending {@link Object}, with a
+ * public no-args constructor and no Jackson annotations. Their properties are either
+ * public fields or fields with a public getter and setter pair, and should hold
+ * primitives, boxed primitives, {@link String}s, other plain beans or {@link List}s
+ * of them.
+ */
+@RequiredArgsConstructor
+class JSONCodecTypeAnalyzer {
+
+	static final String LIST = List.class.getCanonicalName();
+	static final Map<String, String> BOXED_READERS = new HashMap<>();
+
+	static {
+		BOXED_READERS.put( String.class.getCanonicalName(), "readString" );
+		BOXED_READERS.put( Integer.class.getCanonicalName(), "readIntOrNull" );
+		BOXED_READERS.put( Long.class.getCanonicalName(), "readLongOrNull" );
+		BOXED_READERS.put( Double.class.getCanonicalName(), "readDoubleOrNull" );
+		BOXED_READERS.put( Float.class.getCanonicalName(), "readFloatOrNull" );
+		BOXED_READERS.put( Boolean.class.getCanonicalName(), "readBooleanOrNull" );
+		BOXED_READERS.put( Short.class.getCanonicalName(), null );
+		BOXED_READERS.put( Byte.class.getCanonicalName(), null );
+	}
+
+	final Elements elements;
+	final Types types;
+	final Map<String, Boolean> analyzedTypes = new HashMap<>();
+
+	/**
+	 * @param type
+	 * @return the codecs that should be generated for {@code type} and the beans it
+	 * depends on. It is empty if {@code type} is not supported or was already analyzed.
+	 */
+	List<JSONCodecData> analyze( final TypeMirror type ) {
+		final TypeElement element = asBean( type );
+		if ( element == null || analyzedTypes.containsKey( element.getQualifiedName().toString() ) )
+			return Collections.emptyList();
+
+		final Map<String, JSONCodecData> codecs = new LinkedHashMap<>();
+		if ( !analyze( element, codecs ) ) {
+			analyzedTypes.put( element.getQualifiedName().toString(), false );
+			return Collections.emptyList();
+		}
+		for ( final String analyzedType : codecs.keySet() )
+			analyzedTypes.put( analyzedType, true );
+		return new ArrayList<>( codecs.values() );
+	}
+
+	private boolean analyze( final TypeElement type, final Map<String, JSONCodecData> codecs ) {
+		final String name = type.getQualifiedName().toString();
+		final Boolean alreadyAnalyzed = analyzedTypes.get( name );
+		if ( alreadyAnalyzed != null )
+			return alreadyAnalyzed;
+		if ( codecs.containsKey( name ) )
+			return true;
+		if ( !isPlainBean( type ) )
+			return false;
+
+		// reserves the entry, thus beans referencing each other are analyzed only once
+		codecs.put( name, null );
+		final List<Property> properties = extractProperties( type, codecs );
+		if ( properties == null || properties.isEmpty() )
+			return false;
+		codecs.put( name, new JSONCodecData(
+			elements.getPackageOf( type ).getQualifiedName().toString(),
+			String.join( ".", extractNestedNames( type ) ), generatedClassNameOf( type ), properties ) );
+		return true;
+	}
+
+	private boolean isPlainBean( final TypeElement type ) {
+		final PackageElement pkg = elements.getPackageOf( type );
+		final String packageName = pkg.getQualifiedName().toString();
+		return type.getKind() == ElementKind.CLASS
+			&& !pkg.isUnnamed() && !packageName.startsWith( "java." ) && !packageName.startsWith( "javax." )
+			&& type.getModifiers().contains( Modifier.PUBLIC )
+			&& !type.getModifiers().contains( Modifier.ABSTRACT )
+			&& type.getTypeParameters().isEmpty()
+			&& isReachable( type )
+			&& isObject( type.getSuperclass() )
+			&& hasPublicDefaultConstructor( type )
+			&& !isJacksonAnnotated( type );
+	}
+
+	private static boolean isReachable( final TypeElement type ) {
+		final Element enclosing = type.getEnclosingElement();
+		if ( enclosing.getKind() == ElementKind.PACKAGE )
+			return true;
+		return ( enclosing.getKind().isClass() || enclosing.getKind().isInterface() )
+			&& enclosing.getModifiers().contains( Modifier.PUBLIC )
+			&& type.getModifiers().contains( Modifier.STATIC )
+			&& isReachable( (TypeElement)enclosing );
+	}
+
+	private static boolean isObject( final TypeMirror type ) {
+		return type.getKind() == TypeKind.DECLARED
+			&& Object.class.getCanonicalName().equals( ((TypeElement)((DeclaredType)type).asElement()).getQualifiedName().toString() );
+	}
+
+	private static boolean hasPublicDefaultConstructor( final TypeElement type ) {
+		for ( final ExecutableElement constructor : ElementFilter.constructorsIn( type.getEnclosedElements() ) )
+			if ( constructor.getParameters().isEmpty() && constructor.getModifiers().contains( Modifier.PUBLIC ) )
+				return true;
+		return false;
+	}
+
+	/**
+	 * @return the bean properties, in the order Jackson would write them, or {@code null}
+	 * if any of them is not supported.
+	 */
+	private List<Property> extractProperties( final TypeElement type, final Map<String, JSONCodecData> codecs ) {
+		final Map<String, ExecutableElement> getters = new HashMap<>(), setters = new HashMap<>();
+		if ( !extractAccessors( type, getters, setters ) )
+			return null;
+
+		final List<Property> properties = new ArrayList<>();
+		for ( final VariableElement field : ElementFilter.fieldsIn( type.getEnclosedElements() ) ) {
+			final Set<Modifier> modifiers = field.getModifiers();
+			if ( modifiers.contains( Modifier.STATIC ) )
+				continue;
+			if ( modifiers.contains( Modifier.TRANSIENT ) || isJacksonAnnotated( field ) )
+				return null;
+
+			final String name = field.getSimpleName().toString();
+			final ExecutableElement getter = getters.remove( name ), setter = setters.remove( name );
+			final String reader, writer;
+			if ( getter != null && setter != null ) {
+				if ( !setter.getModifiers().contains( Modifier.PUBLIC )
+				||   !types.isSameType( getter.getReturnType(), field.asType() )
+				||   !types.isSameType( setter.getParameters().get( 0 ).asType(), field.asType() ) )
+					return null;
+				reader = "object." + getter.getSimpleName() + "()";
+				writer = "object." + setter.getSimpleName() + "( %s )";
+			} else if ( getter != null || setter != null ) {
+				return null;
+			} else if ( modifiers.contains( Modifier.PUBLIC ) ) {
+				if ( modifiers.contains( Modifier.FINAL ) )
+					return null;
+				reader = "object." + name;
+				writer = "object." + name + " = %s";
+			} else
+				continue;
+
+			final Property property = createProperty( name, field.asType(), reader, writer, codecs );
+			if ( property == null )
+				return null;
+			properties.add( property );
+		}
+
+		if ( !getters.isEmpty() || !setters.isEmpty() )
+			return null;
+		return properties;
+	}
+
+	/**
+	 * Collects the methods Jackson would take as getters and setters.
+	 *
+	 * @return {@code false} if two methods are bound to the same property.
+	 */
+	private boolean extractAccessors( final TypeElement type,
+			final Map<String, ExecutableElement> getters, final Map<String, ExecutableElement> setters )
+	{
+		for ( final ExecutableElement method : ElementFilter.methodsIn( elements.getAllMembers( type ) ) ) {
+			final Set<Modifier> modifiers = method.getModifiers();
+			if ( modifiers.contains( Modifier.STATIC ) || modifiers.contains( Modifier.ABSTRACT )
+			||   isObject( method.getEnclosingElement().asType() ) )
+				continue;
+			if ( isJacksonAnnotated( method ) )
+				return false;
+
+			final String name = method.getSimpleName().toString();
+			final int numberOfParameters = method.getParameters().size();
+			final boolean isPublic = modifiers.contains( Modifier.PUBLIC );
+			if ( isPublic && numberOfParameters == 0 && name.startsWith( "get" ) && method.getReturnType().getKind() != TypeKind.VOID ) {
+				if ( !bind( getters, name.substring( 3 ), method ) )
+					return false;
+			} else if ( isPublic && numberOfParameters == 0 && name.startsWith( "is" ) && method.getReturnType().getKind() == TypeKind.BOOLEAN ) {
+				if ( !bind( getters, name.substring( 2 ), method ) )
+					return false;
+			} else if ( numberOfParameters == 1 && name.startsWith( "set" ) ) {
+				if ( isJacksonAnnotated( method.getParameters().get( 0 ) ) || !bind( setters, name.substring( 3 ), method ) )
+					return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean bind( final Map<String, ExecutableElement> accessors, final String name, final ExecutableElement method ) {
+		final String property = manglePropertyName( name );
+		return property == null || accessors.put( property, method ) == null;
+	}
+
+	/**
+	 * Jackson's default (non "std bean naming") translation of an accessor name into a property name:
+	 * leading upper case chars are turned into lower case.
+	 */
+	static String manglePropertyName( final String name ) {
+		if ( name.isEmpty() )
+			return null;
+		final StringBuilder property = new StringBuilder( name );
+		for ( int i = 0; i < property.length(); i++ ) {
+			final char original = property.charAt( i ), lowerCase = Character.toLowerCase( original );
+			if ( original == lowerCase )
+				break;
+			property.setCharAt( i, lowerCase );
+		}
+		return property.toString();
+	}
+
+	private Property createProperty( final String name, final TypeMirror type,
+			final String reader, final String writer, final Map<String, JSONCodecData> codecs )
+	{
+		final String write, read;
+		String typeReference = null;
+		switch ( type.getKind() ) {
+			case INT: write = "generator.writeNumber( %s );"; read = "readInt( parser )"; break;
+			case LONG: write = "generator.writeNumber( %s );"; read = "readLong( parser )"; break;
+			case DOUBLE: write = "generator.writeNumber( %s );"; read = "readDouble( parser )"; break;
+			case FLOAT: write = "generator.writeNumber( %s );"; read = "readFloat( parser )"; break;
+			case SHORT: write = "generator.writeNumber( %s );"; read = "parser.readValueAs( short.class )"; break;
+			case BYTE: write = "generator.writeNumber( %s );"; read = "parser.readValueAs( byte.class )"; break;
+			case BOOLEAN: write = "generator.writeBoolean( %s );"; read = "readBoolean( parser )"; break;
+			case DECLARED:
+				final DeclaredType declaredType = (DeclaredType)type;
+				final String typeName = ((TypeElement)declaredType.asElement()).getQualifiedName().toString();
+				if ( BOXED_READERS.containsKey( typeName ) ) {
+					final String boxedReader = BOXED_READERS.get( typeName );
+					write = "writeValue( %s, generator );";
+					read = boxedReader != null ? boxedReader + "( parser )" : "parser.readValueAs( " + typeName + ".class )";
+				} else if ( LIST.equals( typeName ) ) {
+					final String[] element = listElementAccessors( declaredType, codecs );
+					if ( element == null )
+						return null;
+					typeReference = type.toString();
+					write = "writeList( %s, generator, " + element[0] + " );";
+					read = "readList( parser, " + element[1] + ", TYPE_" + name + " )";
+				} else {
+					final TypeElement bean = asBean( type );
+					if ( bean == null || !analyze( bean, codecs ) )
+						return null;
+					final String codec = elements.getPackageOf( bean ).getQualifiedName() + "." + generatedClassNameOf( bean );
+					write = codec + ".writeObject( %s, generator );";
+					read = codec + ".readObject( parser )";
+				}
+				break;
+			default:
+				return null;
+		}
+		return new Property( name, "PROPERTY_" + name, format( write, reader ), format( writer, read ) + ";", typeReference );
+	}
+
+	/**
+	 * @return the writer and reader of the list elements, or {@code null} if they are not supported.
+	 */
+	private String[] listElementAccessors( final DeclaredType list, final Map<String, JSONCodecData> codecs ) {
+		if ( list.getTypeArguments().size() != 1 || list.getTypeArguments().get( 0 ).getKind() != TypeKind.DECLARED )
+			return null;
+		final TypeMirror element = list.getTypeArguments().get( 0 );
+		final String elementName = ((TypeElement)((DeclaredType)element).asElement()).getQualifiedName().toString();
+		if ( BOXED_READERS.containsKey( elementName ) ) {
+			final String boxedReader = BOXED_READERS.get( elementName );
+			return new String[]{ "AbstractJSONCodec::writeValue", boxedReader != null
+				? "AbstractJSONCodec::" + boxedReader : "p -> p.readValueAs( " + elementName + ".class )" };
+		}
+
+		final TypeElement bean = asBean( element );
+		if ( bean == null || !analyze( bean, codecs ) )
+			return null;
+		final String codec = elements.getPackageOf( bean ).getQualifiedName() + "." + generatedClassNameOf( bean );
+		return new String[]{ codec + "::writeObject", codec + "::readObject" };
+	}
+
+	private static TypeElement asBean( final TypeMirror type ) {
+		if ( type.getKind() != TypeKind.DECLARED || !((DeclaredType)type).getTypeArguments().isEmpty() )
+			return null;
+		return (TypeElement)((DeclaredType)type).asElement();
+	}
+
+	private static boolean isJacksonAnnotated( final Element element ) {
+		for ( final AnnotationMirror annotation : element.getAnnotationMirrors() ) {
+			final TypeElement annotationType = (TypeElement)annotation.getAnnotationType().asElement();
+			final String name = annotationType.getQualifiedName().toString();
+			if ( name.startsWith( "com.fasterxml.jackson." ) || name.equals( "java.beans.Transient" ) )
+				return true;
+			for ( final AnnotationMirror metaAnnotation : annotationType.getAnnotationMirrors() )
+				if ( metaAnnotation.getAnnotationType().toString().equals( "com.fasterxml.jackson.annotation.JacksonAnnotationsInside" ) )
+					return true;
+		}
+		return false;
+	}
+
+	private static List<String> extractNestedNames( final TypeElement type ) {
+		final LinkedList<String> names = new LinkedList<>();
+		Element element = type;
+		while ( element.getKind() != ElementKind.PACKAGE ) {
+			names.addFirst( element.getSimpleName().toString() );
+			element = element.getEnclosingElement();
+		}
+		return names;
+	}
+
+	static String generatedClassNameOf( final TypeElement type ) {
+		return "Generated" + String.join( "_", extractNestedNames( type ) ) + "JSONCodec";
+	}
+}
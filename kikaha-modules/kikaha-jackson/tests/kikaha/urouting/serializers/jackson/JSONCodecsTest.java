@@ -0,0 +1,72 @@
+package kikaha.urouting.serializers.jackson;
+
+import static org.junit.Assert.*;
+import java.io.*;
+import java.util.Arrays;
+import javax.inject.Inject;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import kikaha.core.test.KikahaRunner;
+import kikaha.urouting.serializers.jackson.ProfileResource.*;
+import kikaha.urouting.serializers.jackson.User.Address;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith( KikahaRunner.class )
+public class JSONCodecsTest {
+
+	final Profile profile = new Profile( 12L, "kikaha", 3, 9.5, true, null, 1,
+			Arrays.asList( "admin", null ), new Address( "Madison Avenue", 10 ) );
+
+	@Inject JSONCodecs codecs;
+	@Inject Jackson jackson;
+
+	@Test
+	public void ensureThatGeneratedCodecsForTheEntitiesOfTheRoutingMethods() {
+		assertNotNull( codecs.codecFor( Profile.class ) );
+		assertNotNull( codecs.codecFor( User.class ) );
+		assertNotNull( codecs.codecFor( Address.class ) );
+	}
+
+	@Test
+	public void ensureThatHaveNotGeneratedCodecsForEntitiesTheObjectMapperWouldHandleDifferently() {
+		assertNull( codecs.codecFor( AnnotatedProfile.class ) );
+		assertNull( codecs.codecFor( ComputedProfile.class ) );
+	}
+
+	@Test
+	public void ensureThatWritesTheSameDocumentAsTheObjectMapper() throws IOException {
+		final ObjectMapper mapper = jackson.objectMapper();
+		assertEquals( mapper.writeValueAsString( profile ), write( profile ) );
+		assertEquals( mapper.writeValueAsString( new Profile() ), write( new Profile() ) );
+	}
+
+	@Test
+	public void ensureThatReadsTheSameObjectAsTheObjectMapper() throws IOException {
+		final ObjectMapper mapper = jackson.objectMapper();
+		final String document = mapper.writeValueAsString( profile );
+		final Profile readFromBytes = codecs.read( codecs.codecFor( Profile.class ), document.getBytes() );
+		assertEquals( document, mapper.writeValueAsString( readFromBytes ) );
+		final Profile readFromStream = codecs.read( codecs.codecFor( Profile.class ), new ByteArrayInputStream( document.getBytes() ) );
+		assertEquals( document, mapper.writeValueAsString( readFromStream ) );
+	}
+
+	@Test
+	public void ensureThatFallbackToTheObjectMapperWhenValuesShouldBeCoerced() throws IOException {
+		final Profile read = codecs.read( codecs.codecFor( Profile.class ), "{\"age\":\"42\",\"roles\":null,\"verified\":\"true\"}".getBytes() );
+		assertEquals( 42, read.getAge() );
+		assertNull( read.getRoles() );
+		assertEquals( Boolean.TRUE, read.getVerified() );
+	}
+
+	@Test( expected = UnrecognizedPropertyException.class )
+	public void ensureThatFailsOnUnknownPropertiesAsTheObjectMapperDoes() throws IOException {
+		codecs.read( codecs.codecFor( Profile.class ), "{\"id\":1,\"unknown\":{\"a\":[1,2]}}".getBytes() );
+	}
+
+	String write( final Profile profile ) throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		codecs.write( codecs.codecFor( Profile.class ), profile, output );
+		return new String( output.toByteArray(), "UTF-8" );
+	}
+}
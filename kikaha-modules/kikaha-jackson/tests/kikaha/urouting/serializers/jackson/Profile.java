@@ -0,0 +1,20 @@
+package kikaha.urouting.serializers.jackson;
+
+import java.util.List;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Profile {
+
+	long id;
+	String name;
+	int age;
+	double score;
+	boolean active;
+	Boolean verified;
+	Integer rank;
+	List<String> roles;
+	User.Address address;
+}
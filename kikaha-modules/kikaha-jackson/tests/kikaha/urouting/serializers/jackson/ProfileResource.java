@@ -0,0 +1,46 @@
+package kikaha.urouting.serializers.jackson;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import kikaha.urouting.api.*;
+
+@Path( "profiles" )
+public class ProfileResource {
+
+	@GET
+	public Profile retrieveProfile() {
+		return new Profile();
+	}
+
+	@POST
+	public void createProfile( final Profile profile ) {}
+
+	@PUT
+	public User updateUser( final User user ) {
+		return user;
+	}
+
+	@GET
+	@Path( "annotated" )
+	public AnnotatedProfile retrieveAnnotatedProfile() {
+		return new AnnotatedProfile();
+	}
+
+	@GET
+	@Path( "computed" )
+	public ComputedProfile retrieveComputedProfile() {
+		return new ComputedProfile();
+	}
+
+	public static class AnnotatedProfile {
+		@JsonProperty( "full_name" )
+		public String name;
+	}
+
+	public static class ComputedProfile {
+		public String name;
+
+		public int getNameLength() {
+			return name != null ? name.length() : 0;
+		}
+	}
+}
@@ -3,11 +3,8 @@ package kikaha.urouting.serializers.jackson;
 import static kikaha.urouting.serializers.jackson.TestCase.readFile;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.*;
-import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 import java.io.*;
-import java.nio.ByteBuffer;
 import io.undertow.server.*;
 import kikaha.core.cdi.*;
 import kikaha.core.cdi.helpers.filter.Condition;
@@ -15,13 +12,13 @@ import kikaha.core.modules.http.ContentType;
 import kikaha.core.test.HttpServerExchangeStub;
 import kikaha.urouting.api.*;
 import kikaha.urouting.serializers.Serializer;
+import kikaha.urouting.serializers.StreamingUnserializer;
 import kikaha.urouting.serializers.Unserializer;
 import kikaha.urouting.serializers.jackson.User.Address;
 import lombok.SneakyThrows;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.*;
-import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.xnio.conduits.StreamSinkConduit;
 
@@ -39,19 +36,11 @@ public class SerializationTest {
 	@Test
 	@SneakyThrows
 	public void grantThatSerializeItAsJSON() {
-		final JSONHttpSerializer serializer = spy((JSONHttpSerializer)provider.load( Serializer.class, new JSONContentTypeCondition<>() ));
-		final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
-		doAnswer( this::ensureThatWasCorrectlySerialized ).when(serializer).send( eq(exchange), any( ByteBuffer.class ));
-		serializer.serialize( user, exchange, "UTF-8" );
-	}
-
-	Void ensureThatWasCorrectlySerialized(InvocationOnMock invocation) throws Throwable {
-		final ByteBuffer buffer = invocation.getArgumentAt(1, ByteBuffer.class);
+		final JSONHttpSerializer serializer = (JSONHttpSerializer)provider.load( Serializer.class, new JSONContentTypeCondition<>() );
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		serializer.serialize( user, output, "UTF-8" );
 		final String expected = readFile( "serialization.expected-json.json" );
-		final byte[] bytes = new byte[buffer.capacity()];
-		buffer.get(bytes);
-		assertEquals( expected, new String( bytes ) );
-		return null;
+		assertEquals( expected, new String( output.toByteArray() ) );
 	}
 
 	@Test
@@ -67,6 +56,17 @@ public class SerializationTest {
 		assertIsValidUser( user );
 	}
 
+	@Test
+	@SneakyThrows
+	public void grantThatUnserializeJSONFromAStreamAsExpected() {
+		final String json = readFile( "serialization.expected-json.json" );
+		final Unserializer unserializer = provider.load( Unserializer.class, new JSONContentTypeCondition<>() );
+		final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
+		final User user = ((StreamingUnserializer)unserializer).unserialize(
+			exchange, User.class, new ByteArrayInputStream(json.getBytes()), "UTF-8" );
+		assertIsValidUser( user );
+	}
+
 	void assertIsValidUser( final User user ) {
 		assertNotNull( user );
 		assertThat( user.name, is( "gerolasdiwn" ) );
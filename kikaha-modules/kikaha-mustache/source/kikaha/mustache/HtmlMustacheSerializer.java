@@ -1,6 +1,8 @@
 package kikaha.mustache;
 
-import java.io.IOException;
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import javax.enterprise.inject.Typed;
 import javax.inject.*;
 import com.github.mustachejava.MustacheNotFoundException;
@@ -8,12 +10,13 @@ import io.undertow.server.HttpServerExchange;
 import kikaha.core.NotFoundHandler;
 import kikaha.core.modules.http.ContentType;
 import kikaha.urouting.api.*;
+import kikaha.urouting.serializers.AbstractNonBlockingSerializer;
 import kikaha.urouting.serializers.Serializer;
 
 @ContentType( Mimes.HTML )
 @Singleton
 @Typed( Serializer.class )
-public class HtmlMustacheSerializer implements Serializer {
+public class HtmlMustacheSerializer extends AbstractNonBlockingSerializer {
 
 	@Inject
 	MustacheSerializerFactory factory;
@@ -24,15 +27,21 @@ public class HtmlMustacheSerializer implements Serializer {
 	@Override
 	public <T> void serialize(final T object, final HttpServerExchange exchange, String encoding) throws IOException {
 		try {
-			final MustacheTemplate template = (MustacheTemplate) object;
-			String serialized = factory.serializer().serialize(template);
-			exchange.getResponseSender().send(serialized);
+			super.serialize( object, exchange, encoding );
 		} catch ( MustacheNotFoundException cause ) {
 			cause.printStackTrace();
 			handleNotFound( exchange );
 		}
 	}
 
+	@Override
+	public <T> void serialize( final T object, final OutputStream output, final String encoding ) throws IOException {
+		final Charset charset = encoding != null ? Charset.forName( encoding ) : StandardCharsets.UTF_8;
+		final Writer writer = new OutputStreamWriter( output, charset );
+		factory.serializer().serialize( (MustacheTemplate) object, writer );
+		writer.flush();
+	}
+
 	private void handleNotFound( final HttpServerExchange exchange ) throws IOException {
 		try {
 			notFoundHandler.handleRequest( exchange );
@@ -40,4 +49,4 @@ public class HtmlMustacheSerializer implements Serializer {
 			throw new IOException( e );
 		}
 	}
-}
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 import com.github.mustachejava.MustacheNotFoundException;
 import kikaha.core.NotFoundHandler;
+import kikaha.core.test.HttpServerExchangeStub;
 import lombok.SneakyThrows;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -33,8 +34,8 @@ public class HtmlMustacheSerializerTest {
 	@SneakyThrows
 	public void ensureThatHandleNotFoundException() {
 		doReturn( serializer ).when( factory ).serializer();
-		doThrow(MustacheNotFoundException.class).when(serializer).serialize( any() );
-		htmlSerializer.serialize( new MustacheTemplate().templateName("any.mustache"), null, null );
+		doThrow(MustacheNotFoundException.class).when(serializer).serialize( any(), any() );
+		htmlSerializer.serialize( new MustacheTemplate().templateName("any.mustache"), HttpServerExchangeStub.createHttpExchange(), null );
 		verify( notFoundHandler ).handleRequest( any() );
 	}
 }
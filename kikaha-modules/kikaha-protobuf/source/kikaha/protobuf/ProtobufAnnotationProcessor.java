@@ -68,6 +68,7 @@ public class ProtobufAnnotationProcessor extends AbstractAnnotatedMethodProcesso
 	}
 
 	protected String extractParamFromNonAnnotatedParameter( ExecutableElement method, VariableElement parameter ) {
-		return format( "%s.parseFrom( bodyData )", asType( parameter ) );
+		final String type = asType( parameter );
+		return format( "bodyData != null ? %s.parseFrom( bodyData ) : %s.parseFrom( methodDataProvider.getBodyAsStream( exchange ) )", type, type );
 	}
 }
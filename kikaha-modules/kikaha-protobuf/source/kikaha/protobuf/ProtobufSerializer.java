@@ -2,11 +2,12 @@ package kikaha.protobuf;
 
 import javax.inject.Singleton;
 import java.io.IOException;
-import java.nio.ByteBuffer;
+import java.io.OutputStream;
 import com.google.protobuf.Message;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.util.Headers;
 import kikaha.core.modules.http.ContentType;
+import kikaha.urouting.serializers.AbstractNonBlockingSerializer;
 import kikaha.urouting.serializers.Serializer;
 
 /**
@@ -14,14 +15,18 @@ import kikaha.urouting.serializers.Serializer;
  */
 @Singleton
 @ContentType( ProtobufSerializer.MIME )
-public class ProtobufSerializer implements Serializer {
+public class ProtobufSerializer extends AbstractNonBlockingSerializer implements Serializer {
 
 	public static final String MIME = "application/octet-stream";
 
 	@Override
 	public <T> void serialize( final T object, final HttpServerExchange httpServerExchange, final String contentType ) throws IOException {
-		final ByteBuffer bytes = ByteBuffer.wrap( ((Message) object ).toByteArray() );
 		httpServerExchange.getResponseHeaders().add( Headers.CONTENT_TYPE, contentType );
-		httpServerExchange.getResponseSender().send( bytes );
+		super.serialize( object, httpServerExchange, contentType );
+	}
+
+	@Override
+	public <T> void serialize( final T object, final OutputStream output, final String encoding ) throws IOException {
+		((Message) object ).writeTo( output );
 	}
 }
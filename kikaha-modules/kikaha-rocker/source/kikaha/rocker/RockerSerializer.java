@@ -7,9 +7,9 @@ import java.util.List;
 import javax.inject.Singleton;
 import com.fizzed.rocker.*;
 import com.fizzed.rocker.runtime.*;
-import io.undertow.server.HttpServerExchange;
 import kikaha.core.modules.http.ContentType;
 import kikaha.urouting.api.*;
+import kikaha.urouting.serializers.AbstractNonBlockingSerializer;
 import kikaha.urouting.serializers.Serializer;
 
 /**
@@ -17,15 +17,15 @@ import kikaha.urouting.serializers.Serializer;
  */
 @Singleton
 @ContentType( Mimes.HTML )
-public class RockerSerializer implements Serializer {
+public class RockerSerializer extends AbstractNonBlockingSerializer implements Serializer {
 
     final RockerRuntime runtime = RockerRuntime.getInstance();
 
     @Override
-    public <T> void serialize(T object, HttpServerExchange exchange, String encoding) throws IOException {
+    public <T> void serialize(final T object, final OutputStream output, final String encoding) throws IOException {
         final RockerTemplate template = (RockerTemplate)object;
-        final String serialized = serialize(template);
-        exchange.getResponseSender().send(serialized);
+        final BindableRockerModel model = this.template(template.getTemplateName(), (Object[]) template.getObjects());
+        model.render((contentType, charsetName) -> new OutputStreamOutput(contentType, output, charsetName));
     }
 
     public String serialize( final RockerTemplate object ) {
@@ -0,0 +1,36 @@
+package kikaha.urouting.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs routes on a named, bounded executor instead of the worker thread pool shared
+ * by every route, thus a slow route (e.g. a report export) can't exhaust the threads
+ * the others depend on. Once all of its threads are busy and its queue is full, the
+ * requests are rejected right away with {@code 503 Service Unavailable}.<br>
+ * <br>
+ * Routes annotated with the same {@link #name()} share the same executor. Its limits can
+ * be overridden through the {@code server.urouting.bulkheads.<name>.max-concurrent}
+ * and {@code server.urouting.bulkheads.<name>.queue} configuration entries.
+ */
+@Target( { ElementType.METHOD, ElementType.TYPE } )
+@Retention( RetentionPolicy.RUNTIME )
+public @interface Bulkhead {
+
+	/**
+	 * @return the name of the executor
+	 */
+	String name();
+
+	/**
+	 * @return how many requests may run at once
+	 */
+	int maxConcurrent() default 10;
+
+	/**
+	 * @return how many requests may wait for a thread before new ones are rejected
+	 */
+	int queue() default 0;
+}
@@ -0,0 +1,48 @@
+package kikaha.urouting.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Identifies {@link GET} routes whose successful responses are kept, already
+ * serialized, in an in-process cache. While fresh, a cached response is sent
+ * straight from the IO thread, thus the route is not called at all.<br>
+ * <br>
+ * Responses are cached per request path and query string, and per value of
+ * each header listed at {@link #varyBy()}. Routes with no fixed content type
+ * (e.g. no {@code @Produces}) also cache their responses per {@code Accept} header, as
+ * long as {@code server.urouting.content-negotiation.enabled} is set. Responses
+ * announce these headers through the {@code Vary} header. Responses that set cookies are never
+ * cached, and requests carrying credentials (an {@code Authorization} or {@code Cookie}
+ * header, or an authenticated account) bypass the cache, unless the headers that
+ * carry them are listed at {@link #varyBy()}. Cached responses can be invalidated through the {@code ResponseCache}
+ * available for injection.
+ */
+@Target( { ElementType.METHOD, ElementType.TYPE } )
+@Retention( RetentionPolicy.RUNTIME )
+public @interface Cached {
+
+	/**
+	 * @return for how long a cached response is fresh
+	 */
+	long ttl();
+
+	/**
+	 * @return the unit of {@link #ttl()} and {@link #staleWhileRevalidate()}
+	 */
+	TimeUnit unit() default TimeUnit.SECONDS;
+
+	/**
+	 * @return the request headers that select which cached response is sent (e.g. {@code Accept})
+	 */
+	String[] varyBy() default {};
+
+	/**
+	 * @return for how long, once expired, a cached response is still sent
+	 *         while a single request runs the route to refresh it
+	 */
+	long staleWhileRevalidate() default 0;
+}
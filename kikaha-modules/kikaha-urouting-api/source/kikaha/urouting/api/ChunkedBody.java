@@ -0,0 +1,23 @@
+package kikaha.urouting.api;
+
+/**
+ * The body of the current request, delivered chunk by chunk as soon as it arrives,
+ * without blocking the current thread. As its chunks are delivered asynchronously,
+ * routing methods that receive a {@link ChunkedBody} should also receive an
+ * {@link AsyncResponse} to send the response once the last chunk was read.
+ */
+public interface ChunkedBody {
+
+	void read( final Listener listener );
+
+	interface Listener {
+
+		/**
+		 * @param chunk the bytes received from the client since the last call
+		 * @param last {@code true} when no more chunks will be delivered
+		 */
+		void onChunk( final byte[] chunk, final boolean last ) throws Exception;
+
+		void onFailure( final Throwable cause );
+	}
+}
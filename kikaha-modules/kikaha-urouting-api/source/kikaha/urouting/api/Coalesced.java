@@ -0,0 +1,30 @@
+package kikaha.urouting.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Identifies {@link GET} routes whose identical concurrent requests are coalesced:
+ * while one of them runs the route, the others wait, without holding a worker thread,
+ * and then receive a copy of its serialized response. It flattens the spikes caused
+ * by many clients asking for the same expensive response at once (e.g. once a cached
+ * response expires).<br>
+ * <br>
+ * Requests are identical when they share method, path, query string and the values
+ * of the headers listed at {@link #varyBy()}, and also their {@code Accept} header when the
+ * route has no fixed content type and {@code server.urouting.content-negotiation.enabled}
+ * is set. Responses announce these headers through the {@code Vary} header. Requests carrying credentials (an
+ * {@code Authorization} or {@code Cookie} header, or an authenticated account) are
+ * only coalesced when the headers that carry them are listed at {@link #varyBy()}.
+ */
+@Target( { ElementType.METHOD, ElementType.TYPE } )
+@Retention( RetentionPolicy.RUNTIME )
+public @interface Coalesced {
+
+	/**
+	 * @return the request headers that, besides method, path and query string, identify identical requests
+	 */
+	String[] varyBy() default {};
+}
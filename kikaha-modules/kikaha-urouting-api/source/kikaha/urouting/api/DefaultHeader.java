@@ -1,21 +1,36 @@
 package kikaha.urouting.api;
 
+import io.undertow.util.HttpString;
 import kikaha.core.cdi.helpers.TinyList;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 import lombok.experimental.Accessors;
 
 import java.util.List;
 
-@Getter @ToString
-@RequiredArgsConstructor
+@Getter @ToString(exclude = "httpName")
 @Accessors(fluent = true)
 public class DefaultHeader implements Header {
 
 	final String name;
 	final List<String> values;
 
+	/* interned on first use, thus headers can be created where Undertow is not available (e.g. AWS Lambda) */
+	HttpString httpName;
+
+	public DefaultHeader( final String name, final List<String> values ) {
+		this.name = name;
+		this.values = values;
+	}
+
+	@Override
+	public HttpString httpName() {
+		HttpString httpName = this.httpName;
+		if ( httpName == null )
+			this.httpName = httpName = HttpStrings.intern( name );
+		return httpName;
+	}
+
 	public void add( String value ) {
 		values.add( value );
 	}
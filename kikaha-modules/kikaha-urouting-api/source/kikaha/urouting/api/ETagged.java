@@ -0,0 +1,32 @@
+package kikaha.urouting.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Identifies routes whose successful responses are tagged with an {@code ETag}
+ * header, thus clients that send it back through the {@code If-None-Match} header
+ * receive a {@code 304 Not Modified} response, without body, while the
+ * response is unchanged.<br>
+ * <br>
+ * By default the {@code ETag} is a checksum of the serialized body, which saves
+ * bandwidth but still runs the route and serializes its response. Routes able
+ * to tell the version of their response cheaply (e.g. a last-updated timestamp)
+ * should name, at {@link #version()}, a method of the same class that receives
+ * the same parameters and returns that version: once it matches the
+ * {@code If-None-Match} header, the route itself is not called at all.<br>
+ * <br>
+ * A {@link Response} sent with an {@code ETag} header is tagged with it instead.
+ */
+@Target( { ElementType.METHOD, ElementType.TYPE } )
+@Retention( RetentionPolicy.RUNTIME )
+public @interface ETagged {
+
+	/**
+	 * @return the name of the method that returns the version of the response,
+	 *         or an empty string to tag the response with a checksum of its body
+	 */
+	String version() default "";
+}
@@ -1,9 +1,17 @@
 package kikaha.urouting.api;
 
+import io.undertow.util.HttpString;
 import java.util.List;
 
 public interface Header {
 	String name();
 	List<String> values();
 	void add( String value );
+
+	/**
+	 * @return the canonical {@link HttpString} of {@link #name()}
+	 */
+	default HttpString httpName() {
+		return HttpStrings.intern( name() );
+	}
 }
@@ -0,0 +1,46 @@
+package kikaha.urouting.api;
+
+import java.lang.reflect.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import io.undertow.util.HttpString;
+
+/**
+ * A global table of canonical {@link HttpString} instances, thus header names
+ * are hashed and copied once, rather than on every response they are sent. It
+ * starts with the headers known by Undertow ({@link io.undertow.util.Headers}),
+ * which allows {@link io.undertow.util.HeaderMap} to find them by identity.
+ * Once {@link #MAX_SIZE} names were interned, unknown names are no longer cached.
+ */
+public final class HttpStrings {
+
+	public static final int MAX_SIZE = 4096;
+
+	static final Map<String, HttpString> INTERNED = new ConcurrentHashMap<>();
+
+	static {
+		for ( final Field field : io.undertow.util.Headers.class.getFields() )
+			if ( Modifier.isStatic( field.getModifiers() ) && field.getType().equals( HttpString.class ) )
+				try {
+					final HttpString name = (HttpString)field.get( null );
+					INTERNED.put( name.toString(), name );
+				} catch ( IllegalAccessException cause ) {
+					throw new IllegalStateException( cause );
+				}
+	}
+
+	private HttpStrings(){}
+
+	/**
+	 * @param name
+	 * @return the canonical {@link HttpString} for {@code name}
+	 */
+	public static HttpString intern( final String name ) {
+		final HttpString interned = INTERNED.get( name );
+		if ( interned != null )
+			return interned;
+		if ( INTERNED.size() >= MAX_SIZE )
+			return new HttpString( name );
+		return INTERNED.computeIfAbsent( name, HttpString::new );
+	}
+}
@@ -0,0 +1,21 @@
+package kikaha.urouting.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Identifies routes that should run, and have their response serialized, directly
+ * on the IO thread instead of being dispatched to the worker thread pool. It fits
+ * routes that only read memory (e.g. cache lookups or feature flags) and would
+ * otherwise spend more time on the thread handoff than on their own work.<br>
+ * <br>
+ * Such routes must never block: any blocking IO (e.g. a serializer that writes
+ * through an {@link java.io.OutputStream}) will stall every other connection
+ * handled by the same IO thread.
+ */
+@Target( { ElementType.METHOD, ElementType.TYPE } )
+@Retention( RetentionPolicy.RUNTIME )
+public @interface NonBlocking {
+}
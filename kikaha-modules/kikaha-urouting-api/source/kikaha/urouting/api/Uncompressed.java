@@ -0,0 +1,17 @@
+package kikaha.urouting.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Identifies routes whose responses should always be sent uncompressed, even
+ * when response compression ({@code server.compression.enabled}) is enabled.
+ * It fits responses that are already compressed (e.g. images or archives) or
+ * that should reach the client as soon as each chunk is written.
+ */
+@Target( { ElementType.METHOD, ElementType.TYPE } )
+@Retention( RetentionPolicy.RUNTIME )
+public @interface Uncompressed {
+}
@@ -18,4 +18,31 @@ public class ConversionException extends RoutingException {
 	public ConversionException( Throwable cause ) {
 		super( cause );
 	}
+
+	/**
+	 * Creates a {@link ConversionException} that doesn't capture its stack trace. Use it
+	 * for values sent by clients that can't be converted: such failures are expected,
+	 * thus their stack trace is not worth the cost of capturing it. Every other
+	 * {@link ConversionException} (e.g. a missing converter) keeps its stack trace.
+	 *
+	 * @param message
+	 * @return the exception to be thrown
+	 */
+	public static ConversionException ofInvalidValue( String message ) {
+		return new InvalidValue( message );
+	}
+
+	static class InvalidValue extends ConversionException {
+
+		private static final long serialVersionUID = -1387458011934672345L;
+
+		InvalidValue( String message ) {
+			super( message );
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+	}
 }
@@ -35,7 +35,7 @@ public class DateConverter extends AbstractConverter<Date> {
 	}
 
 	private void throwCantConvertValueToDate( String value ) throws ConversionException {
-		throw new ConversionException( String.format( "Can't convert '%s' to java.util.Date.", value ) );
+		throw ConversionException.ofInvalidValue( String.format( "Can't convert '%s' to java.util.Date.", value ) );
 	}
 
 	private Date tryToConvertFromLong( String value ) {
@@ -0,0 +1,22 @@
+package kikaha.urouting.api.converter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConversionExceptionTest {
+
+	@Test
+	public void ensureThatKeepsTheStackTraceByDefault(){
+		final ConversionException exception = new ConversionException( "No converters defined to java.lang.Object" );
+		assertTrue( exception.getStackTrace().length > 0 );
+	}
+
+	@Test
+	public void ensureThatInvalidValuesDoNotCaptureTheirStackTrace(){
+		final ConversionException exception = ConversionException.ofInvalidValue( "Can't convert 'abc'" );
+		assertEquals( 0, exception.getStackTrace().length );
+		assertEquals( "Can't convert 'abc'", exception.getMessage() );
+	}
+}
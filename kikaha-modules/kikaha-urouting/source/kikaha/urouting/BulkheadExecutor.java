@@ -0,0 +1,121 @@
+package kikaha.urouting;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.SameThreadExecutor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded executor that runs the routes of a {@link kikaha.urouting.api.Bulkhead},
+ * rejecting requests with {@code 503 Service Unavailable} once all of its threads are
+ * busy and its queue is full.
+ */
+@Slf4j
+public class BulkheadExecutor {
+
+	@Getter final String name;
+	@Getter final int maxConcurrent;
+	@Getter final int queueCapacity;
+	final ThreadPoolExecutor executor;
+	final LongAdder rejected = new LongAdder();
+
+	public BulkheadExecutor( final String name, final int maxConcurrent, final int queueCapacity ) {
+		if ( maxConcurrent < 1 || queueCapacity < 0 )
+			throw new IllegalArgumentException( "Invalid bulkhead '" + name + "': max-concurrent should be positive and queue should not be negative" );
+		this.name = name;
+		this.maxConcurrent = maxConcurrent;
+		this.queueCapacity = queueCapacity;
+		final BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>( queueCapacity ) : new SynchronousQueue<>();
+		this.executor = new ThreadPoolExecutor( maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS, queue, new BulkheadThreadFactory( this ) );
+		this.executor.allowCoreThreadTimeOut( true );
+	}
+
+	/**
+	 * Runs {@code task} on this bulkhead, once the current handler of {@code exchange}
+	 * returns, or sends {@code 503 Service Unavailable} if it is saturated.
+	 *
+	 * @param exchange
+	 * @param task
+	 */
+	public void dispatch( final HttpServerExchange exchange, final Runnable task ) {
+		exchange.dispatch( SameThreadExecutor.INSTANCE, () -> submit( exchange, task ) );
+	}
+
+	void submit( final HttpServerExchange exchange, final Runnable task ) {
+		try {
+			executor.execute( task );
+		} catch ( RejectedExecutionException cause ) {
+			rejected.increment();
+			log.debug( "Bulkhead '" + name + "' is saturated. Rejecting " + exchange.getRequestPath() );
+			exchange.setStatusCode( 503 );
+			exchange.endExchange();
+		}
+	}
+
+	/**
+	 * @return {@code true} if the current thread belongs to this bulkhead
+	 */
+	public boolean isInBulkheadThread() {
+		final Thread current = Thread.currentThread();
+		return current instanceof BulkheadThread && ( (BulkheadThread)current ).bulkhead == this;
+	}
+
+	/**
+	 * @return how many requests are running
+	 */
+	public int getActiveCount() {
+		return executor.getActiveCount();
+	}
+
+	/**
+	 * @return how many requests are waiting for a thread
+	 */
+	public int getQueueDepth() {
+		return executor.getQueue().size();
+	}
+
+	/**
+	 * @return how many requests were rejected, as the bulkhead was saturated
+	 */
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	/**
+	 * @return how many requests have run
+	 */
+	public long getCompleted() {
+		return executor.getCompletedTaskCount();
+	}
+
+	static class BulkheadThreadFactory implements ThreadFactory {
+
+		final AtomicInteger counter = new AtomicInteger();
+		final BulkheadExecutor bulkhead;
+
+		BulkheadThreadFactory( final BulkheadExecutor bulkhead ) {
+			this.bulkhead = bulkhead;
+		}
+
+		@Override
+		public Thread newThread( final Runnable runnable ) {
+			final Thread thread = new BulkheadThread( bulkhead, runnable, "bulkhead-" + bulkhead.name + "-" + counter.incrementAndGet() );
+			thread.setDaemon( true );
+			return thread;
+		}
+	}
+
+	static class BulkheadThread extends Thread {
+
+		final BulkheadExecutor bulkhead;
+
+		BulkheadThread( final BulkheadExecutor bulkhead, final Runnable runnable, final String name ) {
+			super( runnable, name );
+			this.bulkhead = bulkhead;
+		}
+	}
+}
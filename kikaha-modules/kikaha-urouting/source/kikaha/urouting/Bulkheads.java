@@ -0,0 +1,98 @@
+package kikaha.urouting;
+
+import kikaha.config.Config;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Holds the {@link BulkheadExecutor}s of the {@link kikaha.urouting.api.Bulkhead} routes,
+ * one per name. It can be injected to read how loaded each of them is, or to be
+ * notified of each bulkhead once it is created (e.g. to export its metrics).
+ */
+@Slf4j
+@Singleton
+public class Bulkheads {
+
+	final Map<String, BulkheadExecutor> bulkheads = new ConcurrentHashMap<>();
+	final Map<String, Limits> declaredLimits = new HashMap<>();
+	final List<Consumer<BulkheadExecutor>> listeners = new ArrayList<>();
+
+	@Inject Config kikahaConf;
+
+	/**
+	 * Retrieves the bulkhead named {@code name}, creating it if needed. Its limits
+	 * are read from the {@code server.urouting.bulkheads.<name>} configuration entry,
+	 * when defined, or from the arguments given by the first route that uses it otherwise.
+	 *
+	 * @param name
+	 * @param maxConcurrent how many requests may run at once
+	 * @param queue how many requests may wait for a thread
+	 * @return the bulkhead named {@code name}
+	 */
+	public synchronized BulkheadExecutor get( final String name, final int maxConcurrent, final int queue ) {
+		final Limits limits = new Limits( maxConcurrent, queue );
+		BulkheadExecutor bulkhead = bulkheads.get( name );
+		if ( bulkhead == null ) {
+			bulkhead = create( name, maxConcurrent, queue );
+			bulkheads.put( name, bulkhead );
+			declaredLimits.put( name, limits );
+			for ( final Consumer<BulkheadExecutor> listener : listeners )
+				listener.accept( bulkhead );
+		} else if ( !limits.equals( declaredLimits.get( name ) ) )
+			log.warn( "Bulkhead '" + name + "' is shared by routes declaring different limits. Using " + declaredLimits.get( name )
+				+ " instead of " + limits + ". Define them at 'server.urouting.bulkheads." + name + "' to make them explicit." );
+		return bulkhead;
+	}
+
+	BulkheadExecutor create( final String name, final int maxConcurrent, final int queue ) {
+		final String path = "server.urouting.bulkheads." + name;
+		final BulkheadExecutor bulkhead = new BulkheadExecutor( name,
+			kikahaConf.getInteger( path + ".max-concurrent", maxConcurrent ),
+			kikahaConf.getInteger( path + ".queue", queue ) );
+		log.info( "Bulkhead '" + name + "': " + bulkhead.getMaxConcurrent() + " concurrent requests, " + bulkhead.getQueueCapacity() + " queued" );
+		return bulkhead;
+	}
+
+	/**
+	 * @return the bulkhead named {@code name}, or {@code null} if no route uses it
+	 */
+	public BulkheadExecutor find( final String name ) {
+		return bulkheads.get( name );
+	}
+
+	public Collection<BulkheadExecutor> all() {
+		return Collections.unmodifiableCollection( bulkheads.values() );
+	}
+
+	/**
+	 * Calls {@code listener} with every bulkhead already created, and with every
+	 * bulkhead created from now on.
+	 *
+	 * @param listener
+	 */
+	public synchronized void forEachBulkhead( final Consumer<BulkheadExecutor> listener ) {
+		listeners.add( listener );
+		for ( final BulkheadExecutor bulkhead : bulkheads.values() )
+			listener.accept( bulkhead );
+	}
+
+	/**
+	 * The limits a route declared through its {@link kikaha.urouting.api.Bulkhead} annotation.
+	 */
+	@Value
+	static class Limits {
+		final int maxConcurrent;
+		final int queue;
+
+		@Override
+		public String toString() {
+			return maxConcurrent + " concurrent requests, " + queue + " queued";
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package kikaha.urouting;
+
+import io.undertow.server.ExchangeCompletionListener;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.*;
+import kikaha.urouting.serializers.PooledBufferOutputStream;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A serialized response, kept by the {@link ResponseCache} or shared among
+ * requests coalesced by the {@link RequestCoalescer}.
+ */
+@RequiredArgsConstructor
+class CachedResponse implements ExchangeCompletionListener {
+
+	static final Set<HttpString> UNSHAREABLE_HEADERS = new HashSet<>( Arrays.asList(
+		Headers.CONTENT_LENGTH, Headers.TRANSFER_ENCODING, Headers.CONNECTION,
+		Headers.KEEP_ALIVE, Headers.DATE ) );
+
+	static final Set<HttpString> ROUTE_HEADERS = new HashSet<>( Arrays.asList(
+		Headers.CONTENT_TYPE, Headers.ETAG ) );
+
+	final AtomicBoolean revalidating = new AtomicBoolean();
+	final String path;
+	final int statusCode;
+	final HttpString[] headerNames;
+	final String[] headerValues;
+	final byte[] body;
+	final long expiresAt;
+	final long staleUntil;
+
+	/**
+	 * @return {@code false} if the response of {@code exchange} belongs to its client
+	 *         only, as it sets cookies
+	 */
+	static boolean isShareable( final HttpServerExchange exchange ) {
+		return !exchange.getResponseHeaders().contains( Headers.SET_COOKIE );
+	}
+
+	/**
+	 * @return the names of the response headers {@code exchange} already has before its
+	 *         route runs, usually sent by the handlers that wrap the route (e.g. CORS)
+	 */
+	static Set<HttpString> headersSentBeforeTheRoute( final HttpServerExchange exchange ) {
+		final HeaderMap headers = exchange.getResponseHeaders();
+		return headers.size() == 0 ? Collections.emptySet() : new HashSet<>( headers.getHeaderNames() );
+	}
+
+	/**
+	 * Copies {@code body}, the current status code of {@code exchange} and the headers
+	 * sent by its route. Headers found in {@code headersSentBeforeTheRoute} belong to
+	 * the request that created the response, thus they are not copied, except for
+	 * its {@code Content-Type} and {@code ETag}.
+	 */
+	static CachedResponse from( final HttpServerExchange exchange, final String path,
+			final PooledBufferOutputStream body, final long expiresAt, final long staleUntil,
+			final Set<HttpString> headersSentBeforeTheRoute )
+	{
+		final List<HttpString> names = new ArrayList<>();
+		final List<String> values = new ArrayList<>();
+		for ( final HeaderValues header : exchange.getResponseHeaders() )
+			if ( isSentByTheRoute( header.getHeaderName(), headersSentBeforeTheRoute ) )
+				for ( final String value : header ) {
+					names.add( header.getHeaderName() );
+					values.add( value );
+				}
+		return new CachedResponse( path, exchange.getStatusCode(),
+			names.toArray( new HttpString[ names.size() ] ), values.toArray( new String[ values.size() ] ),
+			body.toByteArray(), expiresAt, staleUntil );
+	}
+
+	private static boolean isSentByTheRoute( final HttpString name, final Set<HttpString> headersSentBeforeTheRoute ) {
+		return !UNSHAREABLE_HEADERS.contains( name )
+			&& ( ROUTE_HEADERS.contains( name ) || !headersSentBeforeTheRoute.contains( name ) );
+	}
+
+	/**
+	 * Sends this response through {@code exchange}, or {@code 304 Not Modified} if
+	 * its {@code ETag} matches the {@code If-None-Match} header.
+	 */
+	void send( final HttpServerExchange exchange ) {
+		final HeaderMap headers = exchange.getResponseHeaders();
+		writeHeadersTo( headers );
+		if ( ETags.matches( exchange.getRequestHeaders().getFirst( Headers.IF_NONE_MATCH ), headers.getFirst( Headers.ETAG ) ) ) {
+			RoutingMethodResponseWriter.sendNotModified( exchange );
+			return;
+		}
+		exchange.setStatusCode( statusCode );
+		exchange.setResponseContentLength( body.length );
+		exchange.getResponseSender().send( ByteBuffer.wrap( body ) );
+	}
+
+	/**
+	 * Adds the headers of this response to {@code headers}, except those it already
+	 * has, as they were sent for the current request.
+	 */
+	void writeHeadersTo( final HeaderMap headers ) {
+		boolean alreadySent = false;
+		for ( int i = 0; i < headerNames.length; i++ ) {
+			if ( i == 0 || !headerNames[i].equals( headerNames[i - 1] ) )
+				alreadySent = headers.contains( headerNames[i] );
+			if ( !alreadySent )
+				headers.add( headerNames[i], headerValues[i] );
+		}
+	}
+
+	long weight( final String key ) {
+		long weight = 64 + body.length + ( key.length() + path.length() ) * 2L;
+		for ( int i = 0; i < headerNames.length; i++ )
+			weight += 16 + headerValues[i].length() * 2L;
+		return weight;
+	}
+
+	/**
+	 * Lets another request refresh this response once the one that tried to do it has completed.
+	 */
+	@Override
+	public void exchangeEvent( final HttpServerExchange exchange, final NextListener nextListener ) {
+		revalidating.set( false );
+		nextListener.proceed();
+	}
+}
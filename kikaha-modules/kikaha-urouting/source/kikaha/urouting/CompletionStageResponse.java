@@ -0,0 +1,78 @@
+package kikaha.urouting;
+
+import io.undertow.server.HttpServerExchange;
+import kikaha.urouting.api.Response;
+import org.xnio.XnioExecutor;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * Sends the result of a {@link CompletionStage} returned by a routing method
+ * once it completes, or a {@link CompletionStageTimeoutException} if it doesn't
+ * complete in time. Whatever happens first is the only response sent.
+ */
+public class CompletionStageResponse extends DefaultAsyncResponse implements BiConsumer<Object, Throwable>, Runnable {
+
+    final AtomicBoolean completed = new AtomicBoolean();
+    final long timeout;
+    volatile XnioExecutor.Key scheduledTimeout;
+
+    public CompletionStageResponse(
+            final HttpServerExchange exchange, final RoutingMethodResponseWriter writer,
+            final RoutingMethodExceptionHandler exceptionHandler, final String contentType, final long timeout )
+    {
+        super( exchange, writer, exceptionHandler, contentType );
+        this.timeout = timeout;
+    }
+
+    /**
+     * Waits, without holding the current thread, for {@code stage} to complete.
+     *
+     * @param stage
+     */
+    public void subscribe( final CompletionStage<?> stage ) {
+        if ( timeout > 0 )
+            scheduledTimeout = exchange.getIoThread().executeAfter( this, timeout, TimeUnit.MILLISECONDS );
+        stage.whenComplete( this );
+    }
+
+    @Override
+    public void accept( final Object result, final Throwable failure ) {
+        if ( !completed.compareAndSet( false, true ) )
+            return;
+
+        final XnioExecutor.Key scheduledTimeout = this.scheduledTimeout;
+        if ( scheduledTimeout != null )
+            scheduledTimeout.remove();
+
+        if ( failure != null )
+            fail( failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure );
+        else if ( result instanceof Response )
+            write( (Response) result );
+        else if ( result == null )
+            write( Response.noContent() );
+        else
+            write( Response.ok( result ) );
+    }
+
+    /**
+     * Called once the timeout is reached.
+     */
+    @Override
+    public void run() {
+        if ( completed.compareAndSet( false, true ) )
+            fail( new CompletionStageTimeoutException( "no response within " + timeout + "ms" ) );
+    }
+
+    void fail( final Throwable cause ) {
+        /* exception handlers may send responses whose serializers block */
+        if ( exchange.isInIoThread() )
+            exchange.dispatch( () -> handleFailure( cause ) );
+        else
+            handleFailure( cause );
+    }
+}
@@ -0,0 +1,20 @@
+package kikaha.urouting;
+
+/**
+ * Signals that the {@link java.util.concurrent.CompletionStage} returned by a
+ * routing method didn't complete within {@code server.urouting.completion-stage.timeout}.
+ * It is raised by the timer thread, thus its stack trace is not captured.
+ */
+public class CompletionStageTimeoutException extends RuntimeException {
+
+	private static final long serialVersionUID = -1827364623541234853L;
+
+	public CompletionStageTimeoutException( final String message ) {
+		super( message );
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+}
@@ -0,0 +1,21 @@
+package kikaha.urouting;
+
+import kikaha.urouting.api.ExceptionHandler;
+import kikaha.urouting.api.Response;
+
+import javax.inject.Singleton;
+
+import static kikaha.urouting.api.Response.response;
+
+/**
+ *
+ */
+@Singleton
+public class CompletionStageTimeoutExceptionHandler
+	implements ExceptionHandler<CompletionStageTimeoutException> {
+
+	@Override
+	public Response handle(CompletionStageTimeoutException exception) {
+		return response( 504 ).entity( "Gateway Timeout: " + exception.getMessage() );
+	}
+}
@@ -23,6 +23,12 @@ public class DefaultAsyncResponse implements AsyncResponse {
 
     @Override
     public void write( final Response response ) {
+        /* serializers may block, thus responses written from the IO thread are sent from a worker thread */
+        if ( exchange.isInIoThread() ) {
+            exchange.dispatch( () -> write( response ) );
+            return;
+        }
+
         try {
             writeWithTheRightContentType( response );
         } catch ( Throwable e ) {
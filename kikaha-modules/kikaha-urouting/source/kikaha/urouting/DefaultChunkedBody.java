@@ -0,0 +1,31 @@
+package kikaha.urouting;
+
+import io.undertow.server.HttpServerExchange;
+import kikaha.urouting.api.ChunkedBody;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Delivers the request body through the non-blocking {@link io.undertow.io.Receiver}
+ * of the current request.
+ */
+@RequiredArgsConstructor
+public class DefaultChunkedBody implements ChunkedBody {
+
+	final HttpServerExchange exchange;
+
+	@Override
+	public void read( final Listener listener ) {
+		exchange.getRequestReceiver().receivePartialBytes(
+			( e, chunk, last ) -> notifyChunk( listener, chunk, last ),
+			( e, cause ) -> listener.onFailure( cause ) );
+	}
+
+	void notifyChunk( final Listener listener, final byte[] chunk, final boolean last ) {
+		try {
+			listener.onChunk( chunk, last );
+		} catch ( Throwable cause ) {
+			exchange.getRequestReceiver().pause();
+			listener.onFailure( cause );
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package kikaha.urouting;
+
+import kikaha.urouting.serializers.PooledBufferOutputStream;
+
+/**
+ * Creates and compares entity tags ({@code ETag} header).
+ */
+public abstract class ETags {
+
+	static final String WEAK_PREFIX = "W/";
+
+	/**
+	 * @param version the version of a response, as returned by the version method of an {@link kikaha.urouting.api.ETagged} route
+	 * @return the (strong) entity tag of {@code version}
+	 */
+	public static String fromVersion( final Object version ) {
+		return "\"" + String.valueOf( version ).replace( "\"", "" ) + "\"";
+	}
+
+	/**
+	 * Tags a serialized body with its length and its CRC-32 checksum, which is fast
+	 * to compute (it is a JVM intrinsic) and good enough to tell two versions
+	 * of the same response apart.
+	 *
+	 * @param body
+	 * @return the (strong) entity tag of {@code body}
+	 */
+	public static String fromBody( final PooledBufferOutputStream body ) {
+		return "\"" + Long.toHexString( body.size() ) + "-" + Long.toHexString( body.crc32() ) + "\"";
+	}
+
+	/**
+	 * Compares, with the weak comparison function (RFC 7232), {@code etag} to the
+	 * ones sent at the {@code If-None-Match} header.
+	 *
+	 * @param ifNoneMatch the {@code If-None-Match} header, or {@code null} if not sent
+	 * @param etag
+	 * @return {@code true} if the client already has the response tagged with {@code etag}
+	 */
+	public static boolean matches( final String ifNoneMatch, final String etag ) {
+		if ( ifNoneMatch == null || etag == null )
+			return false;
+		final String opaqueTag = withoutWeakPrefix( etag );
+		for ( final String candidate : ifNoneMatch.split( "," ) ) {
+			final String trimmed = candidate.trim();
+			if ( trimmed.equals( "*" ) || withoutWeakPrefix( trimmed ).equals( opaqueTag ) )
+				return true;
+		}
+		return false;
+	}
+
+	static String withoutWeakPrefix( final String etag ) {
+		return etag.startsWith( WEAK_PREFIX ) ? etag.substring( WEAK_PREFIX.length() ) : etag;
+	}
+}
@@ -0,0 +1,125 @@
+package kikaha.urouting;
+
+import io.undertow.io.*;
+import io.undertow.server.BlockingHttpExchange;
+import io.undertow.server.HttpServerExchange;
+import kikaha.config.Config;
+import kikaha.urouting.api.NonBlocking;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Ensures that {@link NonBlocking} routes do not perform blocking IO while running
+ * on the IO thread. It is meant to be enabled during development, through the
+ * {@code server.urouting.non-blocking-guard} entry, as it makes such routes fail
+ * loudly instead of silently stalling the IO thread.
+ */
+@Slf4j
+@Singleton
+public class NonBlockingRouteGuard {
+
+	@Inject Config kikahaConf;
+
+	boolean enabled;
+
+	@PostConstruct
+	public void readConfig() {
+		enabled = kikahaConf.getBoolean( "server.urouting.non-blocking-guard", false );
+		if ( enabled )
+			log.warn( "Non-blocking routes will fail whenever they try to block the IO thread" );
+	}
+
+	/**
+	 * Make {@code exchange} fail whenever its blocking streams are requested from the IO thread.
+	 *
+	 * @param exchange
+	 * @param route the route name, used to identify the offending route
+	 */
+	public void guard( final HttpServerExchange exchange, final String route ) {
+		if ( enabled && exchange.isInIoThread() && !exchange.isBlocking() )
+			exchange.startBlocking( new BlockingCallsGuard( exchange, route ) );
+	}
+}
+
+/**
+ * A {@link BlockingHttpExchange} that refuses to block the IO thread. Once the
+ * exchange is dispatched to a worker thread it behaves as the default one.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class BlockingCallsGuard implements BlockingHttpExchange {
+
+	final HttpServerExchange exchange;
+	final String route;
+
+	InputStream inputStream;
+	OutputStream outputStream;
+	Sender sender;
+	Receiver receiver;
+
+	@Override
+	public InputStream getInputStream() {
+		ensureIsNotInIoThread();
+		if ( inputStream == null )
+			inputStream = new UndertowInputStream( exchange );
+		return inputStream;
+	}
+
+	@Override
+	public OutputStream getOutputStream() {
+		ensureIsNotInIoThread();
+		if ( outputStream == null )
+			outputStream = new UndertowOutputStream( exchange );
+		return outputStream;
+	}
+
+	@Override
+	public Sender getSender() {
+		if ( sender == null )
+			sender = exchange.isInIoThread()
+				? new AsyncSenderImpl( exchange )
+				: new BlockingSenderImpl( exchange, getOutputStream() );
+		return sender;
+	}
+
+	@Override
+	public Receiver getReceiver() {
+		if ( receiver == null )
+			receiver = exchange.isInIoThread()
+				? new AsyncReceiverImpl( exchange )
+				: new BlockingReceiverImpl( exchange, getInputStream() );
+		return receiver;
+	}
+
+	@Override
+	public void close() {
+		try {
+			if ( inputStream != null )
+				inputStream.close();
+		} catch ( Throwable cause ) {
+			log.debug( "Could not close the request stream", cause );
+		} finally {
+			closeOutputStream();
+		}
+	}
+
+	private void closeOutputStream() {
+		try {
+			if ( outputStream != null )
+				outputStream.close();
+		} catch ( Throwable cause ) {
+			log.debug( "Could not close the response stream", cause );
+		}
+	}
+
+	private void ensureIsNotInIoThread() {
+		if ( exchange.isInIoThread() )
+			throw new IllegalStateException( "The non-blocking route " + route + " tried to block the IO thread" );
+	}
+}
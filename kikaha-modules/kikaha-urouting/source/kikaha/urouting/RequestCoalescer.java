@@ -0,0 +1,200 @@
+package kikaha.urouting;
+
+import io.undertow.server.ExchangeCompletionListener;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.*;
+import kikaha.urouting.api.Coalesced;
+import kikaha.urouting.serializers.PooledBufferOutputStream;
+import kikaha.config.Config;
+import lombok.RequiredArgsConstructor;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces identical requests to {@link Coalesced} routes that arrive while one
+ * of them is still running: the first one runs the route, while the others wait,
+ * without holding a worker thread, to be sent a copy of its serialized response.<br>
+ * <br>
+ * If the first request doesn't end up with a response that can be shared (e.g. it
+ * failed, or it sets cookies), the waiting requests run the route on their own.
+ * Requests carrying credentials the coalescing policy doesn't vary by (e.g. an
+ * {@code Authorization} header) are never coalesced.
+ */
+@Singleton
+public class RequestCoalescer {
+
+	static final AttachmentKey<InFlight> LEADING = AttachmentKey.create( InFlight.class );
+
+	final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+	final LongAdder coalesced = new LongAdder();
+
+	@Inject Config kikahaConf;
+
+	boolean acceptNegotiation;
+
+	@PostConstruct
+	public void readConfig() {
+		acceptNegotiation = kikahaConf.getBoolean( "server.urouting.content-negotiation.enabled", false );
+	}
+
+	/**
+	 * Makes {@code exchange} wait for the response of an identical request in flight,
+	 * if there is one. Otherwise, it becomes the request the next identical ones will
+	 * wait for.
+	 *
+	 * @param exchange
+	 * @param policy the coalescing policy of the route
+	 * @param route runs the route, in case the response of the request in flight can't be shared
+	 * @return {@code true} if {@code exchange} will wait for the response of another request
+	 */
+	public boolean join( final HttpServerExchange exchange, final Policy policy, final HttpHandler route ) {
+		final HttpString[] varyBy = policy.varyBy.headers( acceptNegotiation );
+		RequestKey.sendVary( exchange, policy.varyBy.vary( acceptNegotiation ) );
+		if ( RequestKey.hasCredentialsOutsideOfTheKey( exchange, varyBy ) )
+			return false;
+		final String key = RequestKey.of( exchange, varyBy );
+		final InFlight created = new InFlight( this, key, exchange.getRequestPath(),
+			CachedResponse.headersSentBeforeTheRoute( exchange ) );
+		final InFlight leader = inFlight.putIfAbsent( key, created );
+		if ( leader == null ) {
+			exchange.putAttachment( LEADING, created );
+			exchange.addExchangeCompleteListener( created );
+			return false;
+		}
+		exchange.dispatch( SameThreadExecutor.INSTANCE, () -> await( exchange, leader, route ) );
+		return true;
+	}
+
+	/**
+	 * Runs once the handler of {@code exchange} has returned, thus {@code leader} can
+	 * resume it from any thread.
+	 */
+	void await( final HttpServerExchange exchange, final InFlight leader, final HttpHandler route ) {
+		if ( leader.await( exchange, route ) )
+			coalesced.increment();
+		else
+			exchange.dispatch( route );
+	}
+
+	/**
+	 * Sends a copy of {@code body}, and of the current status code of {@code exchange}
+	 * and the headers its route sent, to the requests waiting for it.
+	 *
+	 * @param exchange
+	 * @param body the serialized response
+	 */
+	static void share( final HttpServerExchange exchange, final PooledBufferOutputStream body ) {
+		final InFlight leading = exchange.getAttachment( LEADING );
+		if ( leading != null && CachedResponse.isShareable( exchange ) )
+			leading.finish( CachedResponse.from( exchange, leading.path, body, 0, 0, leading.headersSentBeforeTheRoute ) );
+	}
+
+	/**
+	 * @return {@code true} if the response of {@code exchange} will be shared with
+	 *         identical requests once written
+	 */
+	static boolean isLeading( final HttpServerExchange exchange ) {
+		return exchange.getAttachment( LEADING ) != null;
+	}
+
+	/**
+	 * @return how many requests were sent the response of an identical request, instead of running their route
+	 */
+	public long getCoalesced() {
+		return coalesced.sum();
+	}
+
+	/**
+	 * @return how many distinct requests are running their route while others may wait for them
+	 */
+	public int getInFlight() {
+		return inFlight.size();
+	}
+
+	/**
+	 * The coalescing policy of a {@link Coalesced} route.
+	 */
+	public static class Policy {
+
+		final RequestKey.VaryBy varyBy;
+
+		/**
+		 * @param varyBy the request headers that, besides method, path and query string, identify identical requests
+		 */
+		public Policy( final String... varyBy ) {
+			this( false, varyBy );
+		}
+
+		/**
+		 * @param contentNegotiated {@code true} if the route has no fixed content type, thus requests also differ by {@code Accept}
+		 * @param varyBy the request headers that, besides method, path and query string, identify identical requests
+		 */
+		public Policy( final boolean contentNegotiated, final String... varyBy ) {
+			this.varyBy = new RequestKey.VaryBy( contentNegotiated, varyBy );
+		}
+	}
+
+	/**
+	 * A request running its route, and the identical ones waiting for its response.
+	 */
+	@RequiredArgsConstructor
+	static class InFlight implements ExchangeCompletionListener {
+
+		final List<Waiting> waiting = new ArrayList<>();
+		final RequestCoalescer coalescer;
+		final String key;
+		final String path;
+		final Set<HttpString> headersSentBeforeTheRoute;
+		boolean finished;
+
+		synchronized boolean await( final HttpServerExchange exchange, final HttpHandler route ) {
+			if ( finished )
+				return false;
+			waiting.add( new Waiting( exchange, route ) );
+			return true;
+		}
+
+		/**
+		 * @param response the response to send to the waiting requests, or {@code null}
+		 *        to make them run the route on their own
+		 */
+		void finish( final CachedResponse response ) {
+			final List<Waiting> released;
+			synchronized ( this ) {
+				if ( finished )
+					return;
+				finished = true;
+				coalescer.inFlight.remove( key, this );
+				released = new ArrayList<>( waiting );
+				waiting.clear();
+			}
+			for ( final Waiting request : released )
+				request.resume( response );
+		}
+
+		@Override
+		public void exchangeEvent( final HttpServerExchange exchange, final NextListener nextListener ) {
+			finish( null );
+			nextListener.proceed();
+		}
+	}
+
+	@RequiredArgsConstructor
+	static class Waiting {
+		final HttpServerExchange exchange;
+		final HttpHandler route;
+
+		void resume( final CachedResponse response ) {
+			if ( response != null )
+				exchange.dispatch( exchange.getIoThread(), response::send );
+			else
+				exchange.dispatch( route );
+		}
+	}
+}
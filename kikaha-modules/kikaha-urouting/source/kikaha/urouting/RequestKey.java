@@ -0,0 +1,133 @@
+package kikaha.urouting;
+
+import io.undertow.security.api.SecurityContext;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/**
+ * Identifies requests that should receive the same response: same method, path,
+ * query string and values of a few selected headers. Routes whose content type
+ * is negotiated ({@code server.urouting.content-negotiation.enabled}) also
+ * tell requests apart by their {@code Accept} header.
+ */
+abstract class RequestKey {
+
+	static final HttpString[] CREDENTIALS = { Headers.AUTHORIZATION, Headers.COOKIE };
+
+	static HttpString[] headers( final String... names ) {
+		final HttpString[] headers = new HttpString[ names.length ];
+		for ( int i = 0; i < names.length; i++ )
+			headers[i] = HttpString.tryFromString( names[i] );
+		return headers;
+	}
+
+	/**
+	 * Sends the {@code Vary} header, unless the same value has already been sent.
+	 *
+	 * @param exchange
+	 * @param vary the value of the header, or {@code null} if the response doesn't vary by any header
+	 */
+	static void sendVary( final HttpServerExchange exchange, final String vary ) {
+		if ( vary == null )
+			return;
+		final HeaderValues sent = exchange.getResponseHeaders().get( Headers.VARY );
+		if ( sent == null || !sent.contains( vary ) )
+			exchange.getResponseHeaders().add( Headers.VARY, vary );
+	}
+
+	static String of( final HttpServerExchange exchange, final HttpString[] varyBy ) {
+		final StringBuilder key = new StringBuilder()
+			.append( exchange.getRequestMethod() ).append( ' ' ).append( exchange.getRequestPath() );
+		final String queryString = exchange.getQueryString();
+		if ( !queryString.isEmpty() )
+			key.append( '?' ).append( queryString );
+		for ( final HttpString header : varyBy ) {
+			final String value = exchange.getRequestHeaders().getFirst( header );
+			key.append( '\n' ).append( value != null ? value : "" );
+		}
+		return key.toString();
+	}
+
+	/**
+	 * @return {@code true} if {@code exchange} carries credentials ({@code Authorization}
+	 *         or {@code Cookie} headers, or an authenticated account) that are not part
+	 *         of its key, thus its response may belong to its client only
+	 */
+	static boolean hasCredentialsOutsideOfTheKey( final HttpServerExchange exchange, final HttpString[] varyBy ) {
+		final HeaderMap headers = exchange.getRequestHeaders();
+		boolean identifiedByTheKey = false;
+		for ( final HttpString credential : CREDENTIALS )
+			if ( headers.contains( credential ) ) {
+				if ( !contains( varyBy, credential ) )
+					return true;
+				identifiedByTheKey = true;
+			}
+		return !identifiedByTheKey && isAuthenticated( exchange );
+	}
+
+	private static boolean contains( final HttpString[] headers, final HttpString header ) {
+		for ( final HttpString existing : headers )
+			if ( existing.equals( header ) )
+				return true;
+		return false;
+	}
+
+	private static boolean isAuthenticated( final HttpServerExchange exchange ) {
+		final SecurityContext securityContext = exchange.getSecurityContext();
+		return securityContext != null && securityContext.getAuthenticatedAccount() != null;
+	}
+
+	/**
+	 * The request headers a route varies its response by, and the value of the
+	 * {@code Vary} header that announces them. Routes whose content type is negotiated
+	 * also vary by {@code Accept}, as long as content negotiation is enabled.
+	 */
+	static class VaryBy {
+
+		final HttpString[] headers;
+		final HttpString[] negotiatedHeaders;
+		final String vary;
+		final String negotiatedVary;
+
+		/**
+		 * @param contentNegotiated {@code true} if the route has no fixed content type
+		 * @param names the request headers listed by the route
+		 */
+		VaryBy( final boolean contentNegotiated, final String... names ) {
+			headers = RequestKey.headers( names );
+			negotiatedHeaders = contentNegotiated && !contains( headers, Headers.ACCEPT )
+				? with( headers, Headers.ACCEPT ) : headers;
+			vary = asVary( headers );
+			negotiatedVary = asVary( negotiatedHeaders );
+		}
+
+		HttpString[] headers( final boolean acceptNegotiation ) {
+			return acceptNegotiation ? negotiatedHeaders : headers;
+		}
+
+		String vary( final boolean acceptNegotiation ) {
+			return acceptNegotiation ? negotiatedVary : vary;
+		}
+
+		static HttpString[] with( final HttpString[] headers, final HttpString header ) {
+			final HttpString[] extended = Arrays.copyOf( headers, headers.length + 1 );
+			extended[ headers.length ] = header;
+			return extended;
+		}
+
+		static String asVary( final HttpString[] headers ) {
+			if ( headers.length == 0 )
+				return null;
+			final StringJoiner vary = new StringJoiner( ", " );
+			for ( final HttpString header : headers )
+				vary.add( header.toString() );
+			return vary.toString();
+		}
+	}
+}
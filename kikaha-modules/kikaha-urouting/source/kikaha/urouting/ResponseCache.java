@@ -0,0 +1,343 @@
+package kikaha.urouting;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.*;
+import kikaha.config.Config;
+import kikaha.urouting.api.Cached;
+import kikaha.urouting.serializers.PooledBufferOutputStream;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Keeps the serialized responses of {@link Cached} routes in memory. The cache is
+ * bounded by the size of the responses it holds ({@code server.urouting.response-cache.max-size}
+ * bytes), evicting the least recently used ones first. Responses larger than
+ * {@code server.urouting.response-cache.max-entry-size} bytes are not cached.
+ * The responses are spread among a few LRU segments, each one bounded by its share
+ * of the maximum size, thus concurrent requests rarely contend for the same lock.<br>
+ * <br>
+ * It can be injected to invalidate cached responses once the data they were
+ * created from changes, and to read how effective the cache is.
+ */
+@Singleton
+public class ResponseCache {
+
+	static final AttachmentKey<Pending> PENDING = AttachmentKey.create( Pending.class );
+	static final int MAX_NUMBER_OF_SEGMENTS = 16;
+
+	final LongAdder hits = new LongAdder();
+	final LongAdder staleHits = new LongAdder();
+	final LongAdder misses = new LongAdder();
+	final LongAdder evictions = new LongAdder();
+
+	@Inject Config kikahaConf;
+
+	@Getter long maxSize;
+	@Getter long maxEntrySize;
+	boolean acceptNegotiation;
+	Segment[] segments;
+
+	@PostConstruct
+	public void readConfig() {
+		acceptNegotiation = kikahaConf.getBoolean( "server.urouting.content-negotiation.enabled", false );
+		configure(
+			kikahaConf.getLong( "server.urouting.response-cache.max-size", 33554432 ),
+			kikahaConf.getLong( "server.urouting.response-cache.max-entry-size", 1048576 ) );
+	}
+
+	/**
+	 * Creates as many segments as possible, up to {@link #MAX_NUMBER_OF_SEGMENTS},
+	 * as long as each one is able to hold a response of {@code maxEntrySize} bytes.
+	 */
+	void configure( final long maxSize, final long maxEntrySize ) {
+		this.maxSize = maxSize;
+		this.maxEntrySize = Math.min( maxSize, maxEntrySize );
+		final long entriesOfMaxSize = Math.max( 1, maxSize / Math.max( 1, this.maxEntrySize ) );
+		final int numberOfSegments = (int)Math.min( MAX_NUMBER_OF_SEGMENTS, Long.highestOneBit( entriesOfMaxSize ) );
+		final Segment[] segments = new Segment[ numberOfSegments ];
+		for ( int i = 0; i < numberOfSegments; i++ )
+			segments[i] = new Segment( maxSize / numberOfSegments );
+		this.segments = segments;
+	}
+
+	/**
+	 * Sends the cached response of the request, if it is still fresh. Once it expires,
+	 * it is still sent during the stale-while-revalidate period of the route, except
+	 * to a single request, which runs the route to refresh it. Requests that are not
+	 * served from the cache have their response cached as soon as it is written.<br>
+	 * <br>
+	 * Requests carrying credentials the cache policy doesn't vary by (e.g. an
+	 * {@code Authorization} header) bypass the cache, as their responses may
+	 * belong to their client only. Every response announces the headers it
+	 * varies by through the {@code Vary} header.
+	 *
+	 * @param exchange
+	 * @param policy the cache policy of the route
+	 * @return {@code true} if the response was sent from the cache
+	 */
+	public boolean sendCachedResponse( final HttpServerExchange exchange, final Policy policy ) {
+		final HttpString[] varyBy = policy.varyBy.headers( acceptNegotiation );
+		RequestKey.sendVary( exchange, policy.varyBy.vary( acceptNegotiation ) );
+		if ( RequestKey.hasCredentialsOutsideOfTheKey( exchange, varyBy ) )
+			return false;
+		final String key = RequestKey.of( exchange, varyBy );
+		final CachedResponse cached = get( key );
+		if ( cached != null ) {
+			final long now = System.currentTimeMillis();
+			if ( now < cached.expiresAt ) {
+				hits.increment();
+				cached.send( exchange );
+				return true;
+			}
+			if ( now < cached.staleUntil ) {
+				if ( !cached.revalidating.compareAndSet( false, true ) ) {
+					staleHits.increment();
+					cached.send( exchange );
+					return true;
+				}
+				exchange.addExchangeCompleteListener( cached );
+			}
+		}
+		misses.increment();
+		exchange.putAttachment( PENDING, new Pending( this, policy, key, exchange.getRequestPath(),
+			CachedResponse.headersSentBeforeTheRoute( exchange ) ) );
+		return false;
+	}
+
+	/**
+	 * Caches {@code body}, and the current status code and the headers the route sent,
+	 * if the request was handled by a {@link Cached} route that missed the cache.
+	 *
+	 * @param exchange
+	 * @param body the serialized response
+	 */
+	static void store( final HttpServerExchange exchange, final PooledBufferOutputStream body ) {
+		final Pending pending = exchange.getAttachment( PENDING );
+		if ( pending != null )
+			pending.cache.store( exchange, pending, body );
+	}
+
+	/**
+	 * @return {@code true} if the response of {@code exchange} will be cached once written
+	 */
+	static boolean isStoring( final HttpServerExchange exchange ) {
+		return exchange.getAttachment( PENDING ) != null;
+	}
+
+	void store( final HttpServerExchange exchange, final Pending pending, final PooledBufferOutputStream body ) {
+		if ( body.size() > maxEntrySize || !CachedResponse.isShareable( exchange ) )
+			return;
+		final long expiresAt = System.currentTimeMillis() + pending.policy.ttl;
+		put( pending.key, CachedResponse.from( exchange, pending.path, body,
+			expiresAt, expiresAt + pending.policy.staleWhileRevalidate, pending.headersSentBeforeTheRoute ) );
+	}
+
+	CachedResponse get( final String key ) {
+		return segmentFor( key ).get( key );
+	}
+
+	void put( final String key, final CachedResponse cached ) {
+		final int evicted = segmentFor( key ).put( key, cached );
+		if ( evicted > 0 )
+			evictions.add( evicted );
+	}
+
+	private Segment segmentFor( final String key ) {
+		final Segment[] segments = this.segments;
+		final int hash = key.hashCode();
+		return segments[ ( hash ^ ( hash >>> 16 ) ) & ( segments.length - 1 ) ];
+	}
+
+	/**
+	 * Removes the cached responses of {@code path}, whatever their query string.
+	 *
+	 * @param path the request path (e.g. {@code /api/users/1})
+	 */
+	public void invalidate( final String path ) {
+		invalidateIf( path::equals );
+	}
+
+	/**
+	 * Removes the cached responses whose request path matches {@code condition}.
+	 *
+	 * @param condition
+	 */
+	public void invalidateIf( final Predicate<String> condition ) {
+		for ( final Segment segment : segments )
+			segment.removeIf( condition );
+	}
+
+	/**
+	 * Removes every cached response.
+	 */
+	public void invalidateAll() {
+		for ( final Segment segment : segments )
+			segment.clear();
+	}
+
+	/**
+	 * @return how many requests were served with a fresh cached response
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return how many requests were served with an expired cached response, while it was being refreshed
+	 */
+	public long getStaleHits() {
+		return staleHits.sum();
+	}
+
+	/**
+	 * @return how many requests ran their route, as no cached response could be sent
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return how many cached responses were evicted to make room for others
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * @return the ratio of requests served from the cache, from {@code 0} to {@code 1}
+	 */
+	public double getHitRatio() {
+		final long served = getHits() + getStaleHits(), total = served + getMisses();
+		return total == 0 ? 0 : (double)served / total;
+	}
+
+	/**
+	 * @return the approximate size, in bytes, of the cached responses
+	 */
+	public long getWeight() {
+		long weight = 0;
+		for ( final Segment segment : segments )
+			weight += segment.getWeight();
+		return weight;
+	}
+
+	public int size() {
+		int size = 0;
+		for ( final Segment segment : segments )
+			size += segment.size();
+		return size;
+	}
+
+	/**
+	 * The cache policy of a {@link Cached} route.
+	 */
+	public static class Policy {
+
+		final long ttl;
+		final long staleWhileRevalidate;
+		final RequestKey.VaryBy varyBy;
+
+		/**
+		 * @param ttl for how long, in milliseconds, a response is fresh
+		 * @param staleWhileRevalidate for how long, in milliseconds, an expired response is still sent while refreshed
+		 * @param varyBy the request headers that select the cached response
+		 */
+		public Policy( final long ttl, final long staleWhileRevalidate, final String... varyBy ) {
+			this( ttl, staleWhileRevalidate, false, varyBy );
+		}
+
+		/**
+		 * @param ttl for how long, in milliseconds, a response is fresh
+		 * @param staleWhileRevalidate for how long, in milliseconds, an expired response is still sent while refreshed
+		 * @param contentNegotiated {@code true} if the route has no fixed content type, thus responses also vary by {@code Accept}
+		 * @param varyBy the request headers that select the cached response
+		 */
+		public Policy( final long ttl, final long staleWhileRevalidate, final boolean contentNegotiated, final String... varyBy ) {
+			this.ttl = ttl;
+			this.staleWhileRevalidate = staleWhileRevalidate;
+			this.varyBy = new RequestKey.VaryBy( contentNegotiated, varyBy );
+		}
+	}
+
+	/**
+	 * A synchronized LRU map that evicts its least recently used responses once
+	 * they weigh more than {@code maxWeight}.
+	 */
+	@RequiredArgsConstructor
+	static class Segment {
+
+		final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>( 16, 0.75f, true );
+		final long maxWeight;
+		long weight;
+
+		synchronized CachedResponse get( final String key ) {
+			final CachedResponse cached = entries.get( key );
+			if ( cached != null && System.currentTimeMillis() >= cached.staleUntil ) {
+				entries.remove( key );
+				weight -= cached.weight( key );
+				return null;
+			}
+			return cached;
+		}
+
+		/**
+		 * @return how many responses were evicted to make room for {@code cached}
+		 */
+		synchronized int put( final String key, final CachedResponse cached ) {
+			final CachedResponse previous = entries.put( key, cached );
+			if ( previous != null )
+				weight -= previous.weight( key );
+			weight += cached.weight( key );
+
+			int evicted = 0;
+			final Iterator<Map.Entry<String, CachedResponse>> iterator = entries.entrySet().iterator();
+			while ( weight > maxWeight && iterator.hasNext() ) {
+				final Map.Entry<String, CachedResponse> eldest = iterator.next();
+				iterator.remove();
+				weight -= eldest.getValue().weight( eldest.getKey() );
+				evicted++;
+			}
+			return evicted;
+		}
+
+		synchronized void removeIf( final Predicate<String> condition ) {
+			final Iterator<Map.Entry<String, CachedResponse>> iterator = entries.entrySet().iterator();
+			while ( iterator.hasNext() ) {
+				final Map.Entry<String, CachedResponse> entry = iterator.next();
+				if ( condition.test( entry.getValue().path ) ) {
+					iterator.remove();
+					weight -= entry.getValue().weight( entry.getKey() );
+				}
+			}
+		}
+
+		synchronized void clear() {
+			entries.clear();
+			weight = 0;
+		}
+
+		synchronized long getWeight() {
+			return weight;
+		}
+
+		synchronized int size() {
+			return entries.size();
+		}
+	}
+
+	@RequiredArgsConstructor
+	static class Pending {
+		final ResponseCache cache;
+		final Policy policy;
+		final String key;
+		final String path;
+		final Set<HttpString> headersSentBeforeTheRoute;
+	}
+}
@@ -4,6 +4,7 @@ import static java.lang.String.format;
 import static kikaha.apt.APT.*;
 
 import java.lang.annotation.Annotation;
+import java.util.List;
 
 import javax.enterprise.inject.Typed;
 import javax.inject.Singleton;
@@ -30,6 +31,7 @@ import kikaha.urouting.api.QueryParam;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import lombok.val;
 
 @Getter
@@ -43,6 +45,7 @@ public class RoutingMethodData implements GenerableClass {
 	final String packageName;
 	final String methodName;
 	final String methodParams;
+	final List<ParameterVariable> parameterVariables;
 	final String returnType;
 	final String responseContentType;
 	final String httpPath;
@@ -51,13 +54,88 @@ public class RoutingMethodData implements GenerableClass {
 	final boolean requiresBodyData;
 	final boolean requiresFormData;
 	final boolean asyncMode;
+	final boolean nonBlocking;
+	final boolean uncompressed;
+	final boolean etagged;
+	final String etagVersion;
+	final String cachePolicy;
+	final String coalescingPolicy;
+	final String bulkhead;
+	final List<ConverterField> converters;
 
 	@Getter( lazy = true )
 	private final long identifier = createIdentifier();
 
+	/**
+	 * @return {@code true} if the body may be parsed as it is read from the connection,
+	 *         what is only possible when the method runs in a worker thread
+	 */
+	public boolean isStreamableBody() {
+		return requiresBodyData && !asyncMode && !nonBlocking;
+	}
+
+	/**
+	 * @return {@code true} if the response is sent once the returned {@link java.util.concurrent.CompletionStage} completes
+	 */
+	public boolean isCompletionStage() {
+		return "java.util.concurrent.CompletionStage".equals( returnType )
+			|| "java.util.concurrent.CompletableFuture".equals( returnType );
+	}
+
+	/**
+	 * @return {@code true} if the route should be skipped while the version returned by {@link #etagVersion} is unchanged
+	 */
+	public boolean isVersioned() {
+		return etagVersion != null;
+	}
+
+	/**
+	 * @return {@code true} if the response is kept by the {@link ResponseCache}, according to {@link #cachePolicy}
+	 */
+	public boolean isCached() {
+		return cachePolicy != null;
+	}
+
+	/**
+	 * @return {@code true} if identical concurrent requests are coalesced by the {@link RequestCoalescer}
+	 */
+	public boolean isCoalesced() {
+		return coalescingPolicy != null;
+	}
+
+	/**
+	 * @return {@code true} if the method runs on the {@link BulkheadExecutor} described by {@link #bulkhead}
+	 */
+	public boolean isBulkheaded() {
+		return bulkhead != null;
+	}
+
+	public boolean isRequiresConverters() {
+		return !converters.isEmpty();
+	}
+
 	@Override
 	public String toString() {
 		return format( "%-70s -> %s:%s ",
 			getType() + "." + getMethodName(), getHttpMethod(), getHttpPath() );
 	}
+
+	/**
+	 * A method parameter read into a local variable, before the method is called.
+	 */
+	@Value
+	public static class ParameterVariable {
+		final String type;
+		final String name;
+		final String value;
+	}
+
+	/**
+	 * A converter resolved once, when the generated handler is created.
+	 */
+	@Value
+	public static class ConverterField {
+		final String type;
+		final String name;
+	}
 }
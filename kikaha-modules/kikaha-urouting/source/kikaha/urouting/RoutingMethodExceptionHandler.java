@@ -6,18 +6,27 @@ import kikaha.urouting.api.ExceptionHandler;
 import kikaha.urouting.api.Response;
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Handles failures of routing methods with the {@link ExceptionHandler} of the
+ * closest exception class. The handler is resolved once per concrete exception
+ * class, thus a burst of failures costs a single lookup each.
+ */
 @RequiredArgsConstructor
 public class RoutingMethodExceptionHandler {
 
 	final Map<Class<?>, ExceptionHandler<?>> handlers;
 	final ExceptionHandler<Throwable> fallbackHandler;
 
-	public Response handle( final Throwable cause ) {
-		ExceptionHandler<Throwable> handler = retrieveHandlerFor( cause.getClass() );
-
-		if ( handler == null )
-			handler = fallbackHandler;
+	final ClassValue<ExceptionHandler<Throwable>> resolvedHandlers = new ClassValue<ExceptionHandler<Throwable>>() {
+		@Override
+		protected ExceptionHandler<Throwable> computeValue( final Class<?> type ) {
+			final ExceptionHandler<Throwable> handler = retrieveHandlerFor( type );
+			return handler != null ? handler : fallbackHandler;
+		}
+	};
 
+	public Response handle( final Throwable cause ) {
+		final ExceptionHandler<Throwable> handler = resolvedHandlers.get( cause.getClass() );
 		return handler.handle( cause );
 	}
 
@@ -25,7 +34,7 @@ public class RoutingMethodExceptionHandler {
 	private ExceptionHandler<Throwable> retrieveHandlerFor( Class<?> clazz ) {
 		ExceptionHandler<Throwable> handler = null;
 
-		while ( !Exception.class.equals( clazz ) && handler == null ) {
+		while ( clazz != null && !Exception.class.equals( clazz ) && handler == null ) {
 			handler = (ExceptionHandler<Throwable>)handlers.get( clazz );
 			clazz = clazz.getSuperclass();
 		}
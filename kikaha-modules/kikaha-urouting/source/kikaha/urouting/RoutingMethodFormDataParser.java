@@ -0,0 +1,64 @@
+package kikaha.urouting;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.form.FormDataParser;
+import io.undertow.server.handlers.form.FormEncodedDataDefinition;
+import io.undertow.server.handlers.form.FormParserFactory;
+import io.undertow.server.handlers.form.MultiPartParserDefinition;
+import kikaha.config.Config;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.nio.file.Paths;
+
+/**
+ * Creates the parsers of form data sent to routing methods. Its {@link FormParserFactory}
+ * is built once, with the limits defined at {@code server.urouting.form}, and shared
+ * by every generated route.
+ */
+@Slf4j
+@Singleton
+public class RoutingMethodFormDataParser {
+
+	@Inject Config kikahaConf;
+
+	@Getter FormParserFactory formParserFactory;
+	@Getter long maxSize;
+
+	@PostConstruct
+	public void createFormParserFactory() {
+		final Config formConf = kikahaConf.getConfig( "server.urouting.form" );
+		final String charset = formConf.getString( "charset", "UTF-8" );
+		final long maxFileSize = formConf.getLong( "max-file-size", -1 );
+		final String tempDir = formConf.getString( "temp-dir", System.getProperty( "java.io.tmpdir" ) );
+		maxSize = formConf.getLong( "max-size", -1 );
+
+		final MultiPartParserDefinition multiPartDefinition = new MultiPartParserDefinition( Paths.get( tempDir ) )
+				.setDefaultEncoding( charset );
+		multiPartDefinition.setMaxIndividualFileSize( maxFileSize );
+
+		formParserFactory = FormParserFactory.builder( false )
+				.addParsers( new FormEncodedDataDefinition().setDefaultEncoding( charset ), multiPartDefinition )
+				.build();
+
+		log.info( "  form.charset: " + charset );
+		log.info( "  form.max-size: " + maxSize );
+		log.info( "  form.max-file-size: " + maxFileSize );
+	}
+
+	/**
+	 * Create a parser for the form data sent through the {@code exchange}. Form data
+	 * larger than {@code server.urouting.form.max-size} will be rejected while parsed.
+	 *
+	 * @param exchange
+	 * @return the parser or {@code null} if the request has no form data
+	 */
+	public FormDataParser createParser( final HttpServerExchange exchange ) {
+		if ( maxSize > 0 )
+			exchange.setMaxEntitySize( maxSize );
+		return formParserFactory.createParser( exchange );
+	}
+}
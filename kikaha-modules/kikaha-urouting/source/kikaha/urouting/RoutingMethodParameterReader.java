@@ -13,14 +13,19 @@ import kikaha.urouting.api.*;
 import kikaha.urouting.api.converter.ConversionException;
 import kikaha.urouting.api.converter.ConverterFactory;
 import kikaha.urouting.serializers.SerializerAndUnserializerProvider;
+import kikaha.urouting.serializers.StreamingUnserializer;
 import kikaha.urouting.serializers.Unserializer;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.xnio.channels.BlockingReadableByteChannel;
+import org.xnio.channels.StreamSourceChannel;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
 import java.util.Map;
 import java.util.Queue;
 import java.util.function.Function;
@@ -44,6 +49,7 @@ public class RoutingMethodParameterReader {
 
 	@Getter String defaultEncoding;
 	@Getter String defaultContentType;
+	@Getter long maxBufferedBodySize;
 
 	Function<HeaderMap, String> contentTypeSupplier;
 
@@ -52,6 +58,7 @@ public class RoutingMethodParameterReader {
 		defaultEncoding = kikahaConf.getString("server.urouting.default-encoding");
 		defaultContentType = kikahaConf.getString("server.urouting.default-content-type");
 		final String contentTypePriority = kikahaConf.getString( "server.urouting.content-type-priority" );
+		maxBufferedBodySize = kikahaConf.getLong( "server.urouting.body.max-buffered-size", -1 );
 
 		contentTypeSupplier = ContentTypePriority.from( contentTypePriority ).equals( CONFIG )
 			? this::getDefaultContentType
@@ -61,6 +68,7 @@ public class RoutingMethodParameterReader {
 		log.info( "  default-encoding: " + defaultEncoding );
 		log.info( "  default-content-type: " + defaultContentType );
 		log.info( "  content-type-priority: " + contentTypePriority );
+		log.info( "  body.max-buffered-size: " + maxBufferedBodySize );
 	}
 
 	String getContentFromRequest( HeaderMap headerMap ){
@@ -87,11 +95,36 @@ public class RoutingMethodParameterReader {
 	public <T> T getCookieParam(final HttpServerExchange exchange, final String cookieParam, final Class<T> clazz)
 			throws ConversionException,
 			InstantiationException, IllegalAccessException {
-		final Cookie cookie = exchange.getRequestCookies().get(cookieParam);
-		if (cookie == null)
+		return getCookieParam(exchange, cookieParam, converterFactory.getConverterFor(clazz));
+	}
+
+	/**
+	 * Get a cookie from request converted by {@code converter}.
+	 *
+	 * @param exchange
+	 * @param cookieParam
+	 * @param converter
+	 * @return
+	 * @throws ConversionException
+	 */
+	public <T> T getCookieParam(final HttpServerExchange exchange, final String cookieParam, final AbstractConverter<T> converter)
+			throws ConversionException {
+		final String value = getCookieParam(exchange, cookieParam);
+		if (value == null)
 			return null;
-		final String value = cookie.getValue();
-		return converterFactory.getConverterFor(clazz).convert(value);
+		return converter.convert(value);
+	}
+
+	/**
+	 * Get a cookie from request.
+	 *
+	 * @param exchange
+	 * @param cookieParam
+	 * @return
+	 */
+	public String getCookieParam(final HttpServerExchange exchange, final String cookieParam) {
+		final Cookie cookie = exchange.getRequestCookies().get(cookieParam);
+		return cookie == null ? null : cookie.getValue();
 	}
 
 	/**
@@ -108,11 +141,36 @@ public class RoutingMethodParameterReader {
 	 */
 	public <T> T getQueryParam(final HttpServerExchange exchange, final String queryParam, final Class<T> clazz)
 			throws ConversionException, InstantiationException, IllegalAccessException {
+		return getQueryParam(exchange, queryParam, converterFactory.getConverterFor(clazz));
+	}
+
+	/**
+	 * Get a query parameter from request converted by {@code converter}.
+	 *
+	 * @param exchange
+	 * @param queryParam
+	 * @param converter
+	 * @return
+	 * @throws ConversionException
+	 */
+	public <T> T getQueryParam(final HttpServerExchange exchange, final String queryParam, final AbstractConverter<T> converter)
+			throws ConversionException {
 		final Queue<String> queryParams = exchange.getQueryParameters().get(queryParam);
 		if (queryParams == null)
 			return null;
-		final String value = queryParams.peek();
-		return converterFactory.getConverterFor(clazz).convert(value);
+		return converter.convert(queryParams.peek());
+	}
+
+	/**
+	 * Get a query parameter from request.
+	 *
+	 * @param exchange
+	 * @param queryParam
+	 * @return
+	 */
+	public String getQueryParam(final HttpServerExchange exchange, final String queryParam) {
+		final Queue<String> queryParams = exchange.getQueryParameters().get(queryParam);
+		return queryParams == null ? null : queryParams.peek();
 	}
 
 	@SuppressWarnings("unchecked")
@@ -144,10 +202,35 @@ public class RoutingMethodParameterReader {
 	 */
 	public <T> T getHeaderParam(final HttpServerExchange exchange, final String headerParam, final Class<T> clazz)
 			throws ConversionException, InstantiationException, IllegalAccessException {
-		final String value = exchange.getRequestHeaders().getFirst(headerParam);
+		return getHeaderParam(exchange, headerParam, converterFactory.getConverterFor(clazz));
+	}
+
+	/**
+	 * Get a header parameter from request converted by {@code converter}.
+	 *
+	 * @param exchange
+	 * @param headerParam
+	 * @param converter
+	 * @return
+	 * @throws ConversionException
+	 */
+	public <T> T getHeaderParam(final HttpServerExchange exchange, final String headerParam, final AbstractConverter<T> converter)
+			throws ConversionException {
+		final String value = getHeaderParam(exchange, headerParam);
 		if (value == null)
 			return null;
-		return converterFactory.getConverterFor(clazz).convert(value);
+		return converter.convert(value);
+	}
+
+	/**
+	 * Get a header parameter from request.
+	 *
+	 * @param exchange
+	 * @param headerParam
+	 * @return
+	 */
+	public String getHeaderParam(final HttpServerExchange exchange, final String headerParam) {
+		return exchange.getRequestHeaders().getFirst(headerParam);
 	}
 
 	/**
@@ -164,8 +247,32 @@ public class RoutingMethodParameterReader {
 	 */
 	public <T> T getPathParam(final HttpServerExchange exchange, final String pathParam, final Class<T> clazz)
 			throws ConversionException, InstantiationException, IllegalAccessException {
-		final String value = getPathParams(exchange).get(pathParam);
-		return converterFactory.getConverterFor(clazz).convert(value);
+		return getPathParam(exchange, pathParam, converterFactory.getConverterFor(clazz));
+	}
+
+	/**
+	 * Get a path parameter from request converted by {@code converter}.
+	 *
+	 * @param exchange
+	 * @param pathParam
+	 * @param converter
+	 * @return
+	 * @throws ConversionException
+	 */
+	public <T> T getPathParam(final HttpServerExchange exchange, final String pathParam, final AbstractConverter<T> converter)
+			throws ConversionException {
+		return converter.convert(getPathParam(exchange, pathParam));
+	}
+
+	/**
+	 * Get a path parameter from request.
+	 *
+	 * @param exchange
+	 * @param pathParam
+	 * @return
+	 */
+	public String getPathParam(final HttpServerExchange exchange, final String pathParam) {
+		return getPathParams(exchange).get(pathParam);
 	}
 
 	/**
@@ -213,22 +320,87 @@ public class RoutingMethodParameterReader {
 	 */
 	public <T> T getBody(final HttpServerExchange exchange, final Class<T> clazz, final byte[] bodyData, final String fallbackConsumingContentType)
 			throws IOException {
-		final HeaderMap requestHeaders = exchange.getRequestHeaders();
-		String contentEncoding = requestHeaders.getFirst(Headers.CONTENT_ENCODING_STRING);
+		final String contentType = contentTypeSupplier.apply( exchange.getRequestHeaders() );
+		final Unserializer unserializer = serializerAndUnserializerProvider.getUnserializerFor(contentType);
+		String contentEncoding = exchange.getRequestHeaders().getFirst(Headers.CONTENT_ENCODING_STRING);
+		if (contentEncoding == null)
+			contentEncoding = serializerAndUnserializerProvider.getCharsetFor(contentType);
 		if (contentEncoding == null)
 			contentEncoding = getDefaultEncoding();
-		final String contentType = contentTypeSupplier.apply( requestHeaders );
-		return unserializeReceivedBodyStream(exchange, clazz, bodyData, contentEncoding, contentType);
+		if (bodyData == null && unserializer instanceof StreamingUnserializer)
+			return ((StreamingUnserializer)unserializer).unserialize(exchange, clazz, getBodyAsStream(exchange), contentEncoding);
+		return unserializer.unserialize(exchange, clazz, bodyData, contentEncoding );
+	}
+
+	private Unserializer getUnserializerFor(final HttpServerExchange exchange) throws IOException {
+		final String contentType = contentTypeSupplier.apply( exchange.getRequestHeaders() );
+		return serializerAndUnserializerProvider.getUnserializerFor(contentType);
+	}
+
+	/**
+	 * Check if the body of current request should be parsed as it is read from the
+	 * connection, instead of being buffered in memory first. It happens when the
+	 * body is too large to be buffered and the {@link Unserializer} for its
+	 * "Content-Type" is a {@link StreamingUnserializer}.
+	 *
+	 * @param exchange
+	 * @return
+	 * @throws IOException
+	 */
+	public boolean shouldStreamBody(final HttpServerExchange exchange) throws IOException {
+		return isTooLargeToBeBuffered(exchange) && getUnserializerFor(exchange) instanceof StreamingUnserializer;
+	}
+
+	/**
+	 * Check if the body of current request is larger than
+	 * {@code server.urouting.body.max-buffered-size} or if its size is unknown.
+	 *
+	 * @param exchange
+	 * @return
+	 */
+	public boolean isTooLargeToBeBuffered(final HttpServerExchange exchange) {
+		if (maxBufferedBodySize < 0)
+			return false;
+		final long contentLength = exchange.getRequestContentLength();
+		return contentLength < 0 ? !exchange.isRequestComplete() : contentLength > maxBufferedBodySize;
 	}
 
-	private <T> T unserializeReceivedBodyStream(
-			final HttpServerExchange exchange, final Class<T> clazz, final byte[] bodyData,
-            final String contentEncoding, final String contentType) throws IOException
-	{
+	/**
+	 * Get the body of current request as a blocking {@link InputStream}. It
+	 * should not be called from the IO thread.
+	 *
+	 * @param exchange
+	 * @return
+	 */
+	public InputStream getBodyAsStream(final HttpServerExchange exchange) {
 		if (!exchange.isBlocking())
 			exchange.startBlocking();
-		final Unserializer unserializer = serializerAndUnserializerProvider.getUnserializerFor(contentType);
-		return unserializer.unserialize(exchange, clazz, bodyData, contentEncoding );
+		return exchange.getInputStream();
+	}
+
+	/**
+	 * Get the body of current request as a blocking {@link ReadableByteChannel}.
+	 * It should not be called from the IO thread.
+	 *
+	 * @param exchange
+	 * @return
+	 */
+	public ReadableByteChannel getBodyAsChannel(final HttpServerExchange exchange) {
+		final StreamSourceChannel channel = exchange.getRequestChannel();
+		if (channel == null)
+			throw new IllegalStateException("The request body was already read");
+		return new BlockingReadableByteChannel(channel);
+	}
+
+	/**
+	 * Get the body of current request as a {@link ChunkedBody}, whose chunks
+	 * are delivered without blocking the current thread.
+	 *
+	 * @param exchange
+	 * @return
+	 */
+	public ChunkedBody getChunkedBody(final HttpServerExchange exchange) {
+		return new DefaultChunkedBody(exchange);
 	}
 
 	/**
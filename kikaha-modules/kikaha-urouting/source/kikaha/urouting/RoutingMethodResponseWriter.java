@@ -1,13 +1,17 @@
 package kikaha.urouting;
 
 import io.undertow.server.HttpServerExchange;
+import io.undertow.util.AttachmentKey;
 import io.undertow.util.HeaderMap;
 import io.undertow.util.Headers;
-import io.undertow.util.HttpString;
+import io.undertow.util.SameThreadExecutor;
 import kikaha.config.Config;
 import kikaha.urouting.api.Header;
 import kikaha.urouting.api.Response;
 import kikaha.urouting.api.RoutingException;
+import kikaha.urouting.serializers.AbstractNonBlockingSerializer;
+import kikaha.urouting.serializers.AbstractSerializer;
+import kikaha.urouting.serializers.PooledBufferOutputStream;
 import kikaha.urouting.serializers.Serializer;
 import kikaha.urouting.serializers.SerializerAndUnserializerProvider;
 import lombok.Getter;
@@ -17,6 +21,9 @@ import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletionStage;
 
 /**
  * A helper class to write responses to the HTTP Client.
@@ -24,6 +31,9 @@ import java.io.IOException;
 @Singleton @Slf4j
 public class RoutingMethodResponseWriter {
 
+	static final AttachmentKey<Boolean> ETAGGED = AttachmentKey.create( Boolean.class );
+	static final AttachmentKey<String> VERSION_ETAG = AttachmentKey.create( String.class );
+
 	@Inject
 	Config kikahaConf;
 
@@ -36,10 +46,18 @@ public class RoutingMethodResponseWriter {
 	@Getter
 	String defaultContentType;
 
+	@Getter
+	boolean acceptNegotiation;
+
+	@Getter
+	long completionStageTimeout;
+
 	@PostConstruct
 	public void readConfig(){
 		defaultEncoding = kikahaConf.getString("server.urouting.default-encoding");
 		defaultContentType = kikahaConf.getString("server.urouting.default-content-type");
+		acceptNegotiation = kikahaConf.getBoolean("server.urouting.content-negotiation.enabled", false);
+		completionStageTimeout = kikahaConf.getLong("server.urouting.completion-stage.timeout", 30000);
 	}
 
 	/**
@@ -61,7 +79,7 @@ public class RoutingMethodResponseWriter {
 	 * @see Response
 	 */
 	public void write( final HttpServerExchange exchange, final Response response ) throws IOException {
-		write( exchange, getDefaultContentType(), response );
+		write( exchange, negotiateContentType( exchange ), response );
 	}
 
 	/**
@@ -74,7 +92,43 @@ public class RoutingMethodResponseWriter {
 	 */
 	public void write( final HttpServerExchange exchange, final Object response )
 			throws IOException {
-		write( exchange, getDefaultContentType(), response );
+		write( exchange, negotiateContentType( exchange ), response );
+	}
+
+	/**
+	 * Sends the result of {@code stage} once it completes, releasing the current
+	 * thread right away. If it doesn't complete within {@code server.urouting.completion-stage.timeout}
+	 * milliseconds, a {@link CompletionStageTimeoutException} is handled instead.
+	 * The stage is only subscribed once the current handler returns, thus it can't
+	 * complete before the exchange has been dispatched.
+	 *
+	 * @param exchange
+	 * @param contentType the content type defined by the routing method, or {@code null}
+	 * @param stage
+	 * @param exceptionHandler
+	 */
+	public void write( final HttpServerExchange exchange, final String contentType,
+			final CompletionStage<?> stage, final RoutingMethodExceptionHandler exceptionHandler )
+	{
+		final CompletionStageResponse response = new CompletionStageResponse(
+			exchange, this, exceptionHandler, contentType, completionStageTimeout );
+		exchange.dispatch( SameThreadExecutor.INSTANCE, () -> response.subscribe( stage ) );
+	}
+
+	/**
+	 * Picks the content type of responses whose routing method didn't define one.
+	 * It is the content type preferred by the client ({@code Accept} header) when
+	 * {@code server.urouting.content-negotiation.enabled} is set, or the default content type otherwise.
+	 *
+	 * @param exchange
+	 * @return
+	 */
+	public String negotiateContentType( final HttpServerExchange exchange ) {
+		if ( !acceptNegotiation )
+			return getDefaultContentType();
+		final String contentType = serializerAndUnserializerProvider.negotiateContentType(
+			exchange.getRequestHeaders().getFirst( Headers.ACCEPT ) );
+		return contentType != null ? contentType : getDefaultContentType();
 	}
 
 	/**
@@ -110,6 +164,48 @@ public class RoutingMethodResponseWriter {
 		sendBodyResponse( exchange, contentType, response.encoding(), response.entity() );
 	}
 
+	/**
+	 * Tags the successful response of {@code exchange} with an {@code ETag}, sending
+	 * {@code 304 Not Modified} instead of its body when it matches the {@code If-None-Match}
+	 * header. Unless the response already has an {@code ETag} header, the body is
+	 * serialized in memory to be tagged with its checksum.
+	 *
+	 * @param exchange
+	 * @see kikaha.urouting.api.ETagged
+	 */
+	public void useETag( final HttpServerExchange exchange ) {
+		exchange.putAttachment( ETAGGED, Boolean.TRUE );
+	}
+
+	/**
+	 * Sends {@code 304 Not Modified}, tagged with {@code version}, if it matches the
+	 * {@code If-None-Match} header. Otherwise, the successful body of {@code exchange}
+	 * will be tagged with {@code version} once written, while error responses are
+	 * sent untagged.
+	 *
+	 * @param exchange
+	 * @param version the version of the response
+	 * @return {@code true} if the {@code 304 Not Modified} response was sent
+	 */
+	public boolean sendNotModifiedIfMatches( final HttpServerExchange exchange, final Object version ) {
+		final String etag = ETags.fromVersion( version );
+		if ( !ETags.matches( exchange.getRequestHeaders().getFirst( Headers.IF_NONE_MATCH ), etag ) ) {
+			exchange.putAttachment( VERSION_ETAG, etag );
+			return false;
+		}
+		exchange.getResponseHeaders().put( Headers.ETAG, etag );
+		sendNotModified( exchange );
+		return true;
+	}
+
+	static void sendNotModified( final HttpServerExchange exchange ) {
+		final HeaderMap responseHeaders = exchange.getResponseHeaders();
+		responseHeaders.remove( Headers.CONTENT_TYPE );
+		responseHeaders.remove( Headers.CONTENT_LENGTH );
+		exchange.setStatusCode( 304 );
+		exchange.endExchange();
+	}
+
 	HttpServerExchange sendStatusCode( final HttpServerExchange exchange, final Integer statusCode ) {
 		exchange.setStatusCode( statusCode );
 		return exchange;
@@ -120,23 +216,125 @@ public class RoutingMethodResponseWriter {
 			final String encoding, final Object serializable ) throws IOException
 	{
 		final Serializer serializer = getSerializer( contentType );
-		serializer.serialize( serializable, exchange, encoding );
+		sendVersionETag( exchange );
+		final boolean etagged = exchange.getAttachment( ETAGGED ) != null,
+				shared = ResponseCache.isStoring( exchange ) || RequestCoalescer.isLeading( exchange );
+		if ( exchange.getStatusCode() != 200 || !( etagged || shared ) )
+			serializer.serialize( serializable, exchange, encoding );
+		else if ( !shared && exchange.getResponseHeaders().contains( Headers.ETAG ) )
+			sendTaggedBodyResponse( exchange, serializer, encoding, serializable );
+		else
+			sendBufferedBodyResponse( exchange, serializer, encoding, serializable, etagged );
+	}
+
+	/**
+	 * Tags a successful response with the version its route was checked against,
+	 * unless the route has sent its own {@code ETag}.
+	 */
+	void sendVersionETag( final HttpServerExchange exchange ) {
+		final String etag = exchange.getAttachment( VERSION_ETAG );
+		final HeaderMap responseHeaders = exchange.getResponseHeaders();
+		if ( etag != null && exchange.getStatusCode() == 200 && !responseHeaders.contains( Headers.ETAG ) )
+			responseHeaders.put( Headers.ETAG, etag );
+	}
+
+	void sendTaggedBodyResponse(
+			final HttpServerExchange exchange, final Serializer serializer,
+			final String encoding, final Object serializable ) throws IOException
+	{
+		final String ifNoneMatch = exchange.getRequestHeaders().getFirst( Headers.IF_NONE_MATCH );
+		if ( ETags.matches( ifNoneMatch, exchange.getResponseHeaders().getFirst( Headers.ETAG ) ) )
+			sendNotModified( exchange );
+		else
+			serializer.serialize( serializable, exchange, encoding );
+	}
+
+	/**
+	 * Serializes the response in memory, thus it can be tagged with the checksum
+	 * of its body, kept by the {@link ResponseCache} and shared with the requests
+	 * coalesced by the {@link RequestCoalescer}, before being sent.
+	 */
+	void sendBufferedBodyResponse(
+			final HttpServerExchange exchange, final Serializer serializer,
+			final String encoding, final Object serializable, final boolean etagged ) throws IOException
+	{
+		final PooledBufferOutputStream body = serializeInMemory( exchange, serializer, encoding, serializable );
+		if ( body == null ) {
+			log.debug( "Could not tag, cache or share the response: " + serializer.getClass().getCanonicalName() + " can't serialize it in memory" );
+			if ( etagged && exchange.getResponseHeaders().contains( Headers.ETAG ) )
+				sendTaggedBodyResponse( exchange, serializer, encoding, serializable );
+			else
+				serializer.serialize( serializable, exchange, encoding );
+			return;
+		}
+
+		final HeaderMap responseHeaders = exchange.getResponseHeaders();
+		if ( etagged && !responseHeaders.contains( Headers.ETAG ) )
+			responseHeaders.put( Headers.ETAG, ETags.fromBody( body ) );
+		ResponseCache.store( exchange, body );
+		RequestCoalescer.share( exchange, body );
+
+		if ( etagged && ETags.matches( exchange.getRequestHeaders().getFirst( Headers.IF_NONE_MATCH ), responseHeaders.getFirst( Headers.ETAG ) ) ) {
+			body.release();
+			sendNotModified( exchange );
+		} else
+			body.send( exchange );
+	}
+
+	/**
+	 * @return the serialized {@code serializable}, or {@code null} if {@code serializer}
+	 *         is only able to write it directly to the exchange
+	 */
+	PooledBufferOutputStream serializeInMemory(
+			final HttpServerExchange exchange, final Serializer serializer,
+			final String encoding, final Object serializable ) throws IOException
+	{
+		if ( !( serializer instanceof AbstractNonBlockingSerializer ) && !( serializer instanceof AbstractSerializer ) )
+			return null;
+
+		final PooledBufferOutputStream body = new PooledBufferOutputStream( exchange.getConnection().getByteBufferPool() );
+		try {
+			if ( serializer instanceof AbstractNonBlockingSerializer )
+				( (AbstractNonBlockingSerializer)serializer ).serialize( serializable, body, encoding );
+			else
+				( (AbstractSerializer)serializer ).serialize( serializable, body );
+		} catch ( Throwable cause ) {
+			body.release();
+			throw cause;
+		}
+		return body;
 	}
 
 	private Serializer getSerializer( final String contentType ) throws IOException {
 		return serializerAndUnserializerProvider.getSerializerFor( contentType );
 	}
 
-	private void sendHeaders( final HttpServerExchange exchange, final Response response ) {
+	/**
+	 * Sends the headers of {@code response} through indexed loops whenever they
+	 * are kept in lists, as iterators are not always scalar replaced by the JIT.
+	 */
+	public void sendHeaders( final HttpServerExchange exchange, final Response response ) {
+		final Iterable<Header> headers = response.headers();
+		if ( headers == null )
+			return;
 		final HeaderMap responseHeaders = exchange.getResponseHeaders();
-		if ( response.headers() != null )
-			for ( final Header header : response.headers() )
-				for ( final String value : header.values() )
-					sendHeader(responseHeaders, header, value);
+		if ( headers instanceof List && headers instanceof RandomAccess ) {
+			final List<Header> list = (List<Header>)headers;
+			for ( int i = 0; i < list.size(); i++ )
+				sendHeaderValues( responseHeaders, list.get( i ) );
+		} else
+			for ( final Header header : headers )
+				sendHeaderValues( responseHeaders, header );
+	}
+
+	void sendHeaderValues( final HeaderMap responseHeaders, final Header header ) {
+		final List<String> values = header.values();
+		for ( int i = 0; i < values.size(); i++ )
+			sendHeader( responseHeaders, header, values.get( i ) );
 	}
 
 	void sendHeader(final HeaderMap responseHeaders, final Header header, final String value) {
-		responseHeaders.add( new HttpString(header.name()), value );
+		responseHeaders.add( header.httpName(), value );
 	}
 
 	void sendContentTypeHeader( final HttpServerExchange exchange, final String contentType ) {
@@ -2,8 +2,7 @@ package kikaha.urouting.apt;
 
 import static java.lang.String.format;
 import static kikaha.apt.APT.*;
-import static kikaha.urouting.apt.MicroRoutingParameterParser.extractHttpPathFrom;
-import static kikaha.urouting.apt.MicroRoutingParameterParser.extractResponseContentTypeFrom;
+import static kikaha.urouting.apt.MicroRoutingParameterParser.*;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
@@ -45,25 +44,166 @@ public class MicroRoutingAnnotationProcessor extends AbstractAnnotatedMethodProc
 		final boolean isMultiPart = httpMethodAnnotation.equals( MultiPartFormData.class ) || methodParams.contains( "methodDataProvider.getFormParam" ),
 				isAsyncMode = methodParams.contains( "asyncResponse" );
 		final String httpMethod = httpMethodAnnotation.equals( MultiPartFormData.class ) ? "POST" : httpMethodAnnotation.getSimpleName();
-		return createRouteMethodData( method, isMultiPart, httpMethod, type, methodParams, isAsyncMode );
+		return createRouteMethodData( method, isMultiPart, httpMethod, type, methodParams, extractParameterVariablesFrom( method ), isAsyncMode );
+	}
+
+	/**
+	 * @return the method parameters as local variables, thus they can be read once and given to more than one method
+	 */
+	private List<RoutingMethodData.ParameterVariable> extractParameterVariablesFrom( final ExecutableElement method ) {
+		final List<RoutingMethodData.ParameterVariable> variables = new ArrayList<>();
+		for ( final VariableElement parameter : method.getParameters() )
+			variables.add( new RoutingMethodData.ParameterVariable(
+				asType( parameter ), "parameter" + variables.size(), parametersExtractor.extractMethodParamFrom( method, parameter ) ) );
+		return variables;
 	}
 
 	private static RoutingMethodData createRouteMethodData(
 			final ExecutableElement method, final boolean isMultiPart,
-			final String httpMethod, final String type,
-			final String methodParams, final boolean isAsyncMode )
+			final String httpMethod, final String type, final String methodParams,
+			final List<RoutingMethodData.ParameterVariable> parameterVariables, final boolean isAsyncMode )
 	{
 		final String returnType = extractReturnTypeFrom( method );
-		final boolean requiresBodyData = methodParams.contains( "methodDataProvider.getBody" );
+		final boolean requiresBodyData = methodParams.contains( "methodDataProvider.getBody(" );
 
 		if ( returnType != null && isAsyncMode )
 			throw new UnsupportedOperationException( "Invalid Routing Method '" + method.asType().toString() +"'. Async methods should not have return type." );
+		if ( methodParams.contains( "methodDataProvider.getBodyAs" ) && ( isAsyncMode || isNonBlocking( method ) ) )
+			throw new UnsupportedOperationException( "Invalid Routing Method '" + method.asType().toString() +"'. Only blocking methods can read the body as a stream." );
+		final ETagged etagged = extractETaggedFrom( method );
+		final String etagVersion = etagged != null && !etagged.version().isEmpty() ? etagged.version() : null;
+		if ( etagVersion != null && isAsyncMode )
+			throw new UnsupportedOperationException( "Invalid Routing Method '" + method.asType().toString() +"'. Async methods can't have a @ETagged version method." );
+		if ( etagVersion != null && !hasVersionMethod( method, etagVersion ) )
+			throw new UnsupportedOperationException( "Invalid Routing Method '" + method.asType().toString() +"'. Its @ETagged version method '" + etagVersion + "' should receive the same parameters." );
+		final Cached cached = extractCachedFrom( method );
+		if ( cached != null && !"GET".equals( httpMethod ) )
+			throw new UnsupportedOperationException( "Invalid Routing Method '" + method.asType().toString() +"'. Only GET methods can be @Cached." );
+		if ( cached != null && cached.ttl() <= 0 )
+			throw new UnsupportedOperationException( "Invalid Routing Method '" + method.asType().toString() +"'. Its @Cached ttl should be positive." );
+		final Coalesced coalesced = extractCoalescedFrom( method );
+		if ( coalesced != null && !"GET".equals( httpMethod ) )
+			throw new UnsupportedOperationException( "Invalid Routing Method '" + method.asType().toString() +"'. Only GET methods can be @Coalesced." );
+		final Bulkhead bulkhead = extractBulkheadFrom( method );
+		if ( bulkhead != null && ( isAsyncMode || isNonBlocking( method ) ) )
+			throw new UnsupportedOperationException( "Invalid Routing Method '" + method.asType().toString() +"'. Only blocking methods can run on a @Bulkhead." );
+		if ( methodParams.contains( "methodDataProvider.getChunkedBody" ) && !isAsyncMode )
+			throw new UnsupportedOperationException( "Invalid Routing Method '" + method.asType().toString() +"'. Methods reading a chunked body should send their response through an AsyncResponse." );
 
+		/* Versioned methods read their parameters once, as they are also given to the version method. */
+		final List<RoutingMethodData.ParameterVariable> variables = etagVersion != null ? parameterVariables : Collections.emptyList();
+		final String responseContentType = extractResponseContentTypeFrom( method );
 		return new RoutingMethodData(
 				extractTypeName( type ), extractPackageName( type ), method.getSimpleName().toString(),
-				methodParams, returnType, extractResponseContentTypeFrom( method ),
+				variables.isEmpty() ? methodParams : asMethodParams( variables ), variables, returnType, responseContentType,
 				extractHttpPathFrom( method ), httpMethod, extractServiceInterfaceFrom( method ),
-				requiresBodyData, isMultiPart, isAsyncMode );
+				requiresBodyData, isMultiPart, isAsyncMode, isNonBlocking( method ), isUncompressed( method ),
+				etagged != null, etagVersion, cached != null ? asCachePolicy( cached, responseContentType == null ) : null,
+				coalesced != null ? asCoalescingPolicy( coalesced, responseContentType == null ) : null,
+				bulkhead != null ? asBulkheadArguments( bulkhead ) : null, extractConvertersFrom( method ) );
+	}
+
+	private static String asMethodParams( final List<RoutingMethodData.ParameterVariable> variables ) {
+		final StringJoiner params = new StringJoiner( "," );
+		for ( final RoutingMethodData.ParameterVariable variable : variables )
+			params.add( METHOD_PARAM_EOL + variable.getName() );
+		return params.toString();
+	}
+
+	static boolean isNonBlocking( final ExecutableElement method ) {
+		return method.getAnnotation( NonBlocking.class ) != null
+			|| method.getEnclosingElement().getAnnotation( NonBlocking.class ) != null;
+	}
+
+	static boolean isUncompressed( final ExecutableElement method ) {
+		return method.getAnnotation( Uncompressed.class ) != null
+			|| method.getEnclosingElement().getAnnotation( Uncompressed.class ) != null;
+	}
+
+	static ETagged extractETaggedFrom( final ExecutableElement method ) {
+		final ETagged etagged = method.getAnnotation( ETagged.class );
+		return etagged != null ? etagged : method.getEnclosingElement().getAnnotation( ETagged.class );
+	}
+
+	static Cached extractCachedFrom( final ExecutableElement method ) {
+		final Cached cached = method.getAnnotation( Cached.class );
+		return cached != null ? cached : method.getEnclosingElement().getAnnotation( Cached.class );
+	}
+
+	/**
+	 * @return the arguments of the {@link kikaha.urouting.ResponseCache.Policy} constructor
+	 */
+	static String asCachePolicy( final Cached cached, final boolean contentNegotiated ) {
+		final StringBuilder policy = new StringBuilder()
+			.append( cached.unit().toMillis( cached.ttl() ) ).append( "L, " )
+			.append( cached.unit().toMillis( cached.staleWhileRevalidate() ) ).append( "L, " )
+			.append( contentNegotiated );
+		if ( cached.varyBy().length > 0 )
+			policy.append( ", " ).append( asStringLiterals( cached.varyBy() ) );
+		return policy.toString();
+	}
+
+	static Coalesced extractCoalescedFrom( final ExecutableElement method ) {
+		final Coalesced coalesced = method.getAnnotation( Coalesced.class );
+		return coalesced != null ? coalesced : method.getEnclosingElement().getAnnotation( Coalesced.class );
+	}
+
+	/**
+	 * @return the arguments of the {@link kikaha.urouting.RequestCoalescer.Policy} constructor
+	 */
+	static String asCoalescingPolicy( final Coalesced coalesced, final boolean contentNegotiated ) {
+		final StringBuilder policy = new StringBuilder().append( contentNegotiated );
+		if ( coalesced.varyBy().length > 0 )
+			policy.append( ", " ).append( asStringLiterals( coalesced.varyBy() ) );
+		return policy.toString();
+	}
+
+	static Bulkhead extractBulkheadFrom( final ExecutableElement method ) {
+		final Bulkhead bulkhead = method.getAnnotation( Bulkhead.class );
+		return bulkhead != null ? bulkhead : method.getEnclosingElement().getAnnotation( Bulkhead.class );
+	}
+
+	/**
+	 * @return the arguments of {@link kikaha.urouting.Bulkheads#get(String, int, int)}
+	 */
+	static String asBulkheadArguments( final Bulkhead bulkhead ) {
+		return asStringLiterals( bulkhead.name() ) + ", " + bulkhead.maxConcurrent() + ", " + bulkhead.queue();
+	}
+
+	/**
+	 * @return {@code values} as a comma-separated list of Java string literals
+	 */
+	static String asStringLiterals( final String... values ) {
+		final StringJoiner list = new StringJoiner( ", " );
+		for ( final String value : values )
+			list.add( '"' + value.replace( "\\", "" ).replace( "\"", "" ) + '"' );
+		return list.toString();
+	}
+
+	static boolean hasVersionMethod( final ExecutableElement method, final String versionMethodName ) {
+		for ( final Element element : method.getEnclosingElement().getEnclosedElements() ) {
+			if ( element.getKind() != ElementKind.METHOD || !element.getSimpleName().contentEquals( versionMethodName ) )
+				continue;
+			final ExecutableElement versionMethod = (ExecutableElement)element;
+			if ( versionMethod.getReturnType().getKind() != TypeKind.VOID
+			&&   asTypes( versionMethod.getParameters() ).equals( asTypes( method.getParameters() ) ) )
+				return true;
+		}
+		return false;
+	}
+
+	private static List<String> asTypes( final List<? extends VariableElement> parameters ) {
+		final List<String> types = new ArrayList<>();
+		for ( final VariableElement parameter : parameters )
+			types.add( parameter.asType().toString() );
+		return types;
+	}
+
+	private static List<RoutingMethodData.ConverterField> extractConvertersFrom( final ExecutableElement method ) {
+		final List<RoutingMethodData.ConverterField> converters = new ArrayList<>();
+		for ( final String type : extractConvertedTypesFrom( method ) )
+			converters.add( new RoutingMethodData.ConverterField( type, converterFieldFor( type ) ) );
+		return converters;
 	}
 
 	private String extractParamFromNonAnnotatedParameter( ExecutableElement method, VariableElement parameter ) {
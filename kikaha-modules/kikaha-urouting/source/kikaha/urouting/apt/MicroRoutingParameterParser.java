@@ -3,7 +3,10 @@ package kikaha.urouting.apt;
 import static java.lang.String.format;
 import static kikaha.apt.APT.*;
 
+import java.io.InputStream;
 import java.lang.annotation.Annotation;
+import java.nio.channels.ReadableByteChannel;
+import java.util.*;
 import java.util.function.*;
 import javax.lang.model.element.*;
 import kikaha.apt.*;
@@ -14,6 +17,21 @@ import kikaha.urouting.api.*;
  */
 public class MicroRoutingParameterParser extends MethodParametersExtractor {
 
+	static final List<Class<? extends Annotation>> CONVERTIBLE_PARAMS = Arrays.asList(
+		PathParam.class, QueryParam.class, HeaderParam.class, CookieParam.class );
+
+	static final Map<String, String> PRIMITIVE_PARSERS = new HashMap<>();
+
+	static {
+		PRIMITIVE_PARSERS.put( "int", "Integer.parseInt" );
+		PRIMITIVE_PARSERS.put( "long", "Long.parseLong" );
+		PRIMITIVE_PARSERS.put( "short", "Short.parseShort" );
+		PRIMITIVE_PARSERS.put( "byte", "Byte.parseByte" );
+		PRIMITIVE_PARSERS.put( "float", "Float.parseFloat" );
+		PRIMITIVE_PARSERS.put( "double", "Double.parseDouble" );
+		PRIMITIVE_PARSERS.put( "boolean", "Boolean.parseBoolean" );
+	}
+
 	public MicroRoutingParameterParser( BiFunction<ExecutableElement, VariableElement, String> extractParamFromNonAnnotatedParameter ) {
 		super( createAnnotationRules(), extractParamFromNonAnnotatedParameter );
 	}
@@ -21,13 +39,16 @@ public class MicroRoutingParameterParser extends MethodParametersExtractor {
 	static ChainedRules<VariableElement, Function<VariableElement, String>> createAnnotationRules(){
 		final ChainedRules<VariableElement, Function<VariableElement, String>> rules = new ChainedRules<>();
 		rules
-		   .with( isAnnotatedWith( PathParam.class ), v -> getParam( PathParam.class, v.getAnnotation( PathParam.class ).value(), v ) )
-			.and( isAnnotatedWith( QueryParam.class ), v -> getParam( QueryParam.class, v.getAnnotation( QueryParam.class ).value(), v ) )
-			.and( isAnnotatedWith( HeaderParam.class ), v -> getParam( HeaderParam.class, v.getAnnotation( HeaderParam.class ).value(), v ) )
-			.and( isAnnotatedWith( CookieParam.class ), v -> getParam( CookieParam.class, v.getAnnotation( CookieParam.class ).value(), v ) )
+		   .with( isAnnotatedWith( PathParam.class ), v -> getConvertedParam( PathParam.class, v.getAnnotation( PathParam.class ).value(), v ) )
+			.and( isAnnotatedWith( QueryParam.class ), v -> getConvertedParam( QueryParam.class, v.getAnnotation( QueryParam.class ).value(), v ) )
+			.and( isAnnotatedWith( HeaderParam.class ), v -> getConvertedParam( HeaderParam.class, v.getAnnotation( HeaderParam.class ).value(), v ) )
+			.and( isAnnotatedWith( CookieParam.class ), v -> getConvertedParam( CookieParam.class, v.getAnnotation( CookieParam.class ).value(), v ) )
 			.and( isAnnotatedWith( FormParam.class ), v -> getParam( FormParam.class, v.getAnnotation( FormParam.class ).value(), v ) )
 			.and( isAnnotatedWith( Context.class ), v -> format( "methodDataProvider.getData( exchange, %s.class )", asType( v ) ) )
-			.and( typeIs( AsyncResponse.class ), v -> "asyncResponse" );
+			.and( typeIs( AsyncResponse.class ), v -> "asyncResponse" )
+			.and( typeIs( InputStream.class ), v -> "methodDataProvider.getBodyAsStream( exchange )" )
+			.and( typeIs( ReadableByteChannel.class ), v -> "methodDataProvider.getBodyAsChannel( exchange )" )
+			.and( typeIs( ChunkedBody.class ), v -> "methodDataProvider.getChunkedBody( exchange )" );
 		return rules;
 	}
 
@@ -37,6 +58,42 @@ public class MicroRoutingParameterParser extends MethodParametersExtractor {
 				targetAnnotation.getSimpleName(), param, targetType );
 	}
 
+	/**
+	 * Read a parameter without looking up its converter on every request: primitives
+	 * are parsed in place, Strings are read as is and any other type is converted
+	 * by a converter resolved when the generated handler is created.
+	 */
+	static String getConvertedParam( final Class<?> targetAnnotation, final String param, final VariableElement parameter ) {
+		final String targetType = asType( parameter );
+		final String value = format( "methodDataProvider.get%s( exchange, \"%s\" )", targetAnnotation.getSimpleName(), param );
+		final String primitiveParser = PRIMITIVE_PARSERS.get( targetType );
+		if ( primitiveParser != null )
+			return format( "%s( %s )", primitiveParser, value );
+		if ( String.class.getCanonicalName().equals( targetType ) )
+			return value;
+		return format( "methodDataProvider.get%s( exchange, \"%s\", %s )",
+				targetAnnotation.getSimpleName(), param, converterFieldFor( targetType ) );
+	}
+
+	/**
+	 * @return the types that should have their converter resolved by the generated handler
+	 */
+	public static Set<String> extractConvertedTypesFrom( final ExecutableElement method ) {
+		final Set<String> types = new LinkedHashSet<>();
+		for ( final VariableElement parameter : method.getParameters() )
+			for ( final Class<? extends Annotation> annotation : CONVERTIBLE_PARAMS )
+				if ( parameter.getAnnotation( annotation ) != null ) {
+					final String type = asType( parameter );
+					if ( !PRIMITIVE_PARSERS.containsKey( type ) && !String.class.getCanonicalName().equals( type ) )
+						types.add( type );
+				}
+		return types;
+	}
+
+	public static String converterFieldFor( final String type ) {
+		return type.replaceAll( "[^A-Za-z0-9]", "_" ) + "Converter";
+	}
+
 	public static String extractHttpPathFrom( final ExecutableElement method ) {
 		final Element classElement = method.getEnclosingElement();
 		final Path pathAnnotationOfClass = classElement.getAnnotation( Path.class );
@@ -0,0 +1,37 @@
+package kikaha.urouting.serializers;
+
+import io.undertow.server.HttpServerExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Non-blocking serializer abstraction. Objects are written into buffers borrowed from
+ * the connection buffer pool, which are sent through the asynchronous
+ * {@link io.undertow.io.Sender} and given back to the pool once the response was sent.
+ * Unlike {@link AbstractSerializer}, it may be used from the IO thread.
+ */
+public abstract class AbstractNonBlockingSerializer implements Serializer {
+
+	@Override
+	public <T> void serialize(final T object, final HttpServerExchange exchange, final String encoding) throws IOException {
+		final PooledBufferOutputStream output = new PooledBufferOutputStream( exchange.getConnection().getByteBufferPool() );
+		try {
+			serialize( object, output, encoding );
+		} catch ( Throwable cause ) {
+			output.release();
+			throw cause;
+		}
+		output.send( exchange );
+	}
+
+	/**
+	 * Write the serialized {@code object} into {@code output}.
+	 *
+	 * @param object
+	 * @param output
+	 * @param encoding the response encoding, or {@code null} when not defined
+	 * @throws IOException
+	 */
+	abstract public <T> void serialize( final T object, final OutputStream output, final String encoding ) throws IOException;
+}
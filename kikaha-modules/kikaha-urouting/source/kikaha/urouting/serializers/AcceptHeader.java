@@ -0,0 +1,131 @@
+package kikaha.urouting.serializers;
+
+import java.util.*;
+import lombok.*;
+
+/**
+ * A parsed {@code Accept} header. It picks, among the content types the server is
+ * able to produce, the one the client prefers, honoring the quality ({@code q})
+ * of each media range and giving precedence to the most specific range that
+ * matches a content type (e.g. {@code text/html} over {@code text/*} and {@code *}{@code /*}).
+ */
+@RequiredArgsConstructor
+public class AcceptHeader {
+
+	final List<MediaRange> ranges;
+
+	public static AcceptHeader parse( final String header ) {
+		final List<MediaRange> ranges = new ArrayList<>();
+		if ( header != null )
+			for ( final String range : header.split( "," ) ) {
+				final MediaRange mediaRange = MediaRange.parse( range, ranges.size() );
+				if ( mediaRange != null )
+					ranges.add( mediaRange );
+			}
+		return new AcceptHeader( ranges );
+	}
+
+	/**
+	 * @param available the content types the server is able to produce
+	 * @param preferred the content type to pick when the client accepts others with the same quality
+	 * @return the content type the client prefers, or {@code null} if it accepts none of them.
+	 */
+	public String negotiate( final Collection<String> available, final String preferred ) {
+		String best = null;
+		MediaRange bestRange = null;
+		for ( final String contentType : available ) {
+			final MediaRange range = bestRangeFor( contentType );
+			if ( range == null || range.quality <= 0 )
+				continue;
+			if ( bestRange == null || isPreferable( contentType, range, best, bestRange, preferred ) ) {
+				best = contentType;
+				bestRange = range;
+			}
+		}
+		return best;
+	}
+
+	private static boolean isPreferable( final String contentType, final MediaRange range,
+			final String best, final MediaRange bestRange, final String preferred )
+	{
+		if ( range.quality != bestRange.quality )
+			return range.quality > bestRange.quality;
+		if ( contentType.equals( preferred ) || best.equals( preferred ) )
+			return contentType.equals( preferred );
+		if ( range.specificity != bestRange.specificity )
+			return range.specificity > bestRange.specificity;
+		if ( range.index != bestRange.index )
+			return range.index < bestRange.index;
+		return contentType.compareTo( best ) < 0;
+	}
+
+	/**
+	 * @return the most specific range matching {@code contentType}, or {@code null} if none matches it.
+	 */
+	MediaRange bestRangeFor( final String contentType ) {
+		final int separator = contentType.indexOf( '/' );
+		if ( separator < 0 )
+			return null;
+		final String type = contentType.substring( 0, separator ).trim().toLowerCase();
+		final String subtype = contentType.substring( separator + 1 ).trim().toLowerCase();
+		MediaRange best = null;
+		for ( final MediaRange range : ranges )
+			if ( range.matches( type, subtype ) && ( best == null || range.specificity > best.specificity ) )
+				best = range;
+		return best;
+	}
+
+	public List<MediaRange> getRanges() {
+		return Collections.unmodifiableList( ranges );
+	}
+
+	/**
+	 * A media range of the {@code Accept} header (e.g. {@code text/html;q=0.9}).
+	 */
+	@Value
+	public static class MediaRange {
+
+		final String type;
+		final String subtype;
+		final float quality;
+		final int specificity;
+		final int index;
+
+		boolean matches( final String type, final String subtype ) {
+			return ( this.type.equals( "*" ) || this.type.equals( type ) )
+				&& ( this.subtype.equals( "*" ) || this.subtype.equals( subtype ) );
+		}
+
+		/**
+		 * @return the parsed media range, or {@code null} if it is malformed.
+		 */
+		static MediaRange parse( final String range, final int index ) {
+			final String[] parts = range.split( ";" );
+			final String mediaType = parts[0].trim().toLowerCase();
+			final int separator = mediaType.indexOf( '/' );
+			if ( separator < 1 || separator == mediaType.length() - 1 )
+				return null;
+
+			final String type = mediaType.substring( 0, separator ).trim(), subtype = mediaType.substring( separator + 1 ).trim();
+			if ( type.equals( "*" ) && !subtype.equals( "*" ) )
+				return null;
+
+			float quality = 1;
+			for ( int i = 1; i < parts.length; i++ ) {
+				final String parameter = parts[i].trim();
+				if ( parameter.length() > 2 && ( parameter.charAt( 0 ) == 'q' || parameter.charAt( 0 ) == 'Q' ) && parameter.charAt( 1 ) == '=' )
+					try {
+						quality = Float.parseFloat( parameter.substring( 2 ).trim() );
+						if ( Float.isNaN( quality ) )
+							return null;
+						quality = Math.max( 0, Math.min( 1, quality ) );
+					} catch ( NumberFormatException cause ) {
+						return null;
+					}
+			}
+
+			final int specificity = type.equals( "*" ) ? 0 : subtype.equals( "*" ) ? 1 : 2;
+			return new MediaRange( type, subtype, quality, specificity, index );
+		}
+	}
+}
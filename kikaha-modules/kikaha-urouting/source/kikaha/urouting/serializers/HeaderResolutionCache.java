@@ -0,0 +1,89 @@
+package kikaha.urouting.serializers;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import lombok.Getter;
+
+/**
+ * A size-bounded cache of values resolved from raw header values (e.g. the
+ * {@code Content-Type} or the {@code Accept} header sent by clients). As clients
+ * send only a handful of distinct values, each of them is parsed once and then
+ * served by a single lookup. Once full, new values are resolved on every request
+ * instead of evicting the known ones, thus a client sending random headers can't
+ * flush it.<br>
+ * <br>
+ * It also counts how many times each header value was seen.
+ *
+ * @param <T>
+ */
+public class HeaderResolutionCache<T> {
+
+	final Map<String, Entry<T>> entries = new ConcurrentHashMap<>();
+	final LongAdder uncached = new LongAdder();
+	final Function<String, T> resolver;
+
+	@Getter
+	final int maxSize;
+
+	public HeaderResolutionCache( final int maxSize, final Function<String, T> resolver ) {
+		if ( maxSize < 0 )
+			throw new IllegalArgumentException( "The header resolution cache size should not be negative" );
+		this.maxSize = maxSize;
+		this.resolver = resolver;
+	}
+
+	public T get( final String headerValue ) {
+		if ( headerValue == null )
+			return resolver.apply( null );
+		Entry<T> entry = entries.get( headerValue );
+		if ( entry == null ) {
+			if ( entries.size() >= maxSize ) {
+				uncached.increment();
+				return resolver.apply( headerValue );
+			}
+			entry = entries.computeIfAbsent( headerValue, v -> new Entry<>( resolver.apply( v ) ) );
+		}
+		entry.hits.increment();
+		return entry.value;
+	}
+
+	/**
+	 * Same as {@link #get(String)}, but without counting {@code headerValue} as seen once more.
+	 */
+	public T peek( final String headerValue ) {
+		final Entry<T> entry = headerValue != null ? entries.get( headerValue ) : null;
+		return entry != null ? entry.value : resolver.apply( headerValue );
+	}
+
+	/**
+	 * @return how many times each cached header value was seen
+	 */
+	public Map<String, Long> getCounters() {
+		final Map<String, Long> counters = new HashMap<>();
+		for ( final Map.Entry<String, Entry<T>> entry : entries.entrySet() )
+			counters.put( entry.getKey(), entry.getValue().hits.sum() );
+		return counters;
+	}
+
+	/**
+	 * @return how many times a header value was resolved without being cached, as the cache was full
+	 */
+	public long getUncached() {
+		return uncached.sum();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	static class Entry<T> {
+		final LongAdder hits = new LongAdder();
+		final T value;
+
+		Entry( final T value ) {
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package kikaha.urouting.serializers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import io.undertow.connector.ByteBufferPool;
+import io.undertow.connector.PooledByteBuffer;
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * An {@link OutputStream} that writes into buffers borrowed from a {@link ByteBufferPool},
+ * borrowing another one whenever the current buffer is full. Its content is sent at once
+ * through the asynchronous {@link Sender} of the exchange and the buffers are given back
+ * to the pool when they were written.<br>
+ * <br>
+ * Closing it has no effect, thus it can be handed to libraries that close the stream
+ * they write into.
+ */
+@RequiredArgsConstructor
+public class PooledBufferOutputStream extends OutputStream {
+
+	final List<PooledByteBuffer> buffers = new ArrayList<>( 4 );
+	final ByteBufferPool pool;
+
+	ByteBuffer current;
+	long size;
+
+	@Override
+	public void write( final int b ) {
+		ensureThereIsRemainingSpace();
+		current.put( (byte)b );
+		size++;
+	}
+
+	@Override
+	public void write( final byte[] bytes, int offset, int length ) {
+		while ( length > 0 ) {
+			ensureThereIsRemainingSpace();
+			final int written = Math.min( length, current.remaining() );
+			current.put( bytes, offset, written );
+			offset += written;
+			length -= written;
+			size += written;
+		}
+	}
+
+	private void ensureThereIsRemainingSpace() {
+		if ( current == null || !current.hasRemaining() ) {
+			final PooledByteBuffer pooled = pool.allocate();
+			buffers.add( pooled );
+			current = pooled.getBuffer();
+			current.clear();
+		}
+	}
+
+	/**
+	 * @return the number of bytes written so far
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * @return the CRC-32 checksum of the bytes written so far
+	 */
+	public long crc32() {
+		final CRC32 checksum = new CRC32();
+		for ( final PooledByteBuffer buffer : buffers ) {
+			final ByteBuffer written = buffer.getBuffer().duplicate();
+			written.flip();
+			checksum.update( written );
+		}
+		return checksum.getValue();
+	}
+
+	/**
+	 * @return a copy of the bytes written so far
+	 */
+	public byte[] toByteArray() {
+		final byte[] bytes = new byte[ (int)size ];
+		int offset = 0;
+		for ( final PooledByteBuffer buffer : buffers ) {
+			final ByteBuffer written = buffer.getBuffer().duplicate();
+			written.flip();
+			final int length = written.remaining();
+			written.get( bytes, offset, length );
+			offset += length;
+		}
+		return bytes;
+	}
+
+	/**
+	 * Send the written bytes to the client, setting the {@code Content-Length} header
+	 * if it was not defined yet, and end the exchange once they were sent.
+	 *
+	 * @param exchange
+	 */
+	public void send( final HttpServerExchange exchange ) {
+		if ( !exchange.getResponseHeaders().contains( Headers.CONTENT_LENGTH ) )
+			exchange.setResponseContentLength( size );
+		if ( buffers.isEmpty() )
+			exchange.endExchange();
+		else
+			exchange.getResponseSender().send( flip(), new ReleaseBuffersCallback( this ) );
+	}
+
+	ByteBuffer[] flip() {
+		final ByteBuffer[] flipped = new ByteBuffer[ buffers.size() ];
+		for ( int i = 0; i < flipped.length; i++ ) {
+			flipped[i] = buffers.get( i ).getBuffer();
+			flipped[i].flip();
+		}
+		return flipped;
+	}
+
+	/**
+	 * Give the borrowed buffers back to the pool.
+	 */
+	public void release() {
+		for ( final PooledByteBuffer buffer : buffers )
+			buffer.close();
+		buffers.clear();
+		current = null;
+	}
+
+	@Override
+	public void close() throws IOException {
+	}
+
+	@RequiredArgsConstructor
+	static class ReleaseBuffersCallback implements IoCallback {
+
+		final PooledBufferOutputStream output;
+
+		@Override
+		public void onComplete( final HttpServerExchange exchange, final Sender sender ) {
+			output.release();
+			IoCallback.END_EXCHANGE.onComplete( exchange, sender );
+		}
+
+		@Override
+		public void onException( final HttpServerExchange exchange, final Sender sender, final IOException exception ) {
+			output.release();
+			IoCallback.END_EXCHANGE.onException( exchange, sender, exception );
+		}
+	}
+}
@@ -2,18 +2,46 @@ package kikaha.urouting.serializers;
 
 import java.io.IOException;
 import java.util.Map;
-import kikaha.commons.url.URL;
 import kikaha.urouting.UnsupportedMediaTypeException;
 import kikaha.urouting.api.*;
-import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Finds out the {@link Serializer} and the {@link Unserializer} of a content type.
+ * The {@code Content-Type} and {@code Accept} headers sent by clients are parsed
+ * once per distinct value, and their resolution is kept in a bounded cache that also
+ * counts how many times each value was seen.
+ */
 @Slf4j
-@RequiredArgsConstructor
 public class SerializerAndUnserializerProvider {
 
+	static final int DEFAULT_CACHE_SIZE = 256;
+
 	final Map<String, Serializer> serializerByContentType;
 	final Map<String, Unserializer> unserializerByContentType;
+	final String preferredContentType;
+	final HeaderResolutionCache<ResolvedContentType> contentTypes;
+	final HeaderResolutionCache<String> acceptedContentTypes;
+
+	public SerializerAndUnserializerProvider(
+			final Map<String, Serializer> serializerByContentType,
+			final Map<String, Unserializer> unserializerByContentType )
+	{
+		this( serializerByContentType, unserializerByContentType, null, DEFAULT_CACHE_SIZE );
+	}
+
+	public SerializerAndUnserializerProvider(
+			final Map<String, Serializer> serializerByContentType,
+			final Map<String, Unserializer> unserializerByContentType,
+			final String preferredContentType, final int cacheSize )
+	{
+		this.serializerByContentType = serializerByContentType;
+		this.unserializerByContentType = unserializerByContentType;
+		this.preferredContentType = preferredContentType;
+		this.contentTypes = new HeaderResolutionCache<>( cacheSize, this::resolveContentType );
+		this.acceptedContentTypes = new HeaderResolutionCache<>( cacheSize, this::resolveAcceptedContentType );
+	}
 
 	public Serializer getSerializerFor( final String contentType ) throws IOException{
 		Serializer serializer = serializerByContentType.get(contentType);
@@ -35,15 +63,96 @@ public class SerializerAndUnserializerProvider {
 	 * @return
 	 * @throws IOException
 	 */
-	public Unserializer getUnserializerFor( String contentType ) throws IOException{
-		contentType = URL.fixContentType(contentType, null).getFirst();
-
-		final Unserializer serializer = unserializerByContentType.get( contentType );
+	public Unserializer getUnserializerFor( final String contentType ) throws IOException{
+		final ResolvedContentType resolved = contentTypes.get( contentType );
+		final Unserializer serializer = resolved.getUnserializer();
 		if ( serializer == null ) {
-			final UnsupportedMediaTypeException exception = new UnsupportedMediaTypeException(contentType);
-			log.error("Could not found an unserializer for " + contentType, exception);
+			final UnsupportedMediaTypeException exception = new UnsupportedMediaTypeException(resolved.getContentType());
+			log.error("Could not found an unserializer for " + resolved.getContentType(), exception);
 			throw exception;
 		}
 		return serializer;
 	}
+
+	/**
+	 * @param contentType
+	 * @return the {@code charset} parameter of {@code contentType}, or {@code null} if not defined.
+	 */
+	public String getCharsetFor( final String contentType ) {
+		return contentTypes.peek( contentType ).getCharset();
+	}
+
+	/**
+	 * Picks, among the content types a {@link Serializer} is available for, the one
+	 * that best matches the {@code Accept} header sent by the client.
+	 *
+	 * @param accept the {@code Accept} header
+	 * @return the negotiated content type, or {@code null} if the client accepts none of them
+	 */
+	public String negotiateContentType( final String accept ) {
+		return acceptedContentTypes.get( accept );
+	}
+
+	/**
+	 * @return how many times each {@code Content-Type} header value was seen
+	 */
+	public Map<String, Long> getContentTypeCounters() {
+		return contentTypes.getCounters();
+	}
+
+	/**
+	 * @return how many times each {@code Accept} header value was negotiated
+	 */
+	public Map<String, Long> getAcceptCounters() {
+		return acceptedContentTypes.getCounters();
+	}
+
+	/**
+	 * @return how many times a {@code Content-Type} header value was parsed again, as the cache was full
+	 */
+	public long getUncachedContentTypes() {
+		return contentTypes.getUncached();
+	}
+
+	/**
+	 * @return how many times an {@code Accept} header value was negotiated again, as the cache was full
+	 */
+	public long getUncachedAccepts() {
+		return acceptedContentTypes.getUncached();
+	}
+
+	ResolvedContentType resolveContentType( final String header ) {
+		if ( header == null )
+			return new ResolvedContentType( null, null, unserializerByContentType.get( null ) );
+
+		final String[] parts = header.split( ";" );
+		final String contentType = parts[0].trim();
+		Unserializer unserializer = unserializerByContentType.get( contentType );
+		if ( unserializer == null )
+			unserializer = unserializerByContentType.get( contentType.toLowerCase() );
+
+		String charset = null;
+		for ( int i = 1; i < parts.length && charset == null; i++ ) {
+			final String[] parameter = parts[i].split( "=", 2 );
+			if ( parameter.length == 2 && parameter[0].trim().equalsIgnoreCase( "charset" ) )
+				charset = parameter[1].trim().replace( "\"", "" );
+		}
+		return new ResolvedContentType( contentType, charset, unserializer );
+	}
+
+	String resolveAcceptedContentType( final String accept ) {
+		if ( accept == null || accept.trim().isEmpty() )
+			return null;
+		return AcceptHeader.parse( accept ).negotiate( serializerByContentType.keySet(), preferredContentType );
+	}
+
+	/**
+	 * A parsed {@code Content-Type} header.
+	 */
+	@Value
+	public static class ResolvedContentType {
+		final String contentType;
+		final String charset;
+		final Unserializer unserializer;
+	}
 }
@@ -9,6 +9,7 @@ import javax.enterprise.inject.Typed;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import kikaha.config.Config;
 import kikaha.core.modules.http.ContentType;
 import lombok.extern.slf4j.Slf4j;
 
@@ -23,7 +24,10 @@ public class SerializerAndUnserializerProviderLoader {
 	@Inject
 	@Typed(Unserializer.class)
 	Iterable<Unserializer> availableUnserializers;
-	
+
+	@Inject
+	Config config;
+
 	SerializerAndUnserializerProvider serializerAndUnserializerProvider;
 
 	@PostConstruct
@@ -32,8 +36,10 @@ public class SerializerAndUnserializerProviderLoader {
 		log.trace( "Found Content Type serializers: " + serializers );
 		final Map<String, Unserializer> unserializers = loadAllUnserializers();
 		log.trace( "Found Content Type unserializers: " + unserializers );
-		serializerAndUnserializerProvider
-			= new SerializerAndUnserializerProvider(serializers, unserializers);
+		serializerAndUnserializerProvider = new SerializerAndUnserializerProvider(
+			serializers, unserializers,
+			config.getString( "server.urouting.default-content-type" ),
+			config.getInteger( "server.urouting.content-negotiation.cache-size", SerializerAndUnserializerProvider.DEFAULT_CACHE_SIZE ) );
 	}
 	
 	@Produces
@@ -0,0 +1,19 @@
+package kikaha.urouting.serializers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import io.undertow.server.HttpServerExchange;
+
+/**
+ * An {@link Unserializer} able to parse the request body incrementally, as it is read
+ * from the connection. Bodies larger than {@code server.urouting.body.max-buffered-size}
+ * (or sent without a {@code Content-Length}) are handed to this method instead of being
+ * buffered in a {@code byte[]} first.<br>
+ * <br>
+ * Implementations should also implement {@link Unserializer} directly, as it is the
+ * interface they are looked up by.
+ */
+public interface StreamingUnserializer extends Unserializer {
+
+	<T> T unserialize( final HttpServerExchange input, final Class<T> targetClass, InputStream body, String encoding ) throws IOException;
+}
@@ -0,0 +1,46 @@
+package kikaha.urouting;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import kikaha.config.MergeableConfig;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Bulkheads}.
+ */
+public class BulkheadsTest {
+
+	final Bulkheads bulkheads = new Bulkheads();
+
+	{
+		bulkheads.kikahaConf = MergeableConfig.create();
+	}
+
+	@After
+	public void shutdownBulkheads() {
+		for ( final BulkheadExecutor bulkhead : bulkheads.all() )
+			bulkhead.executor.shutdownNow();
+	}
+
+	@Test
+	public void ensureThatTheFirstRouteDefinesTheLimitsOfASharedBulkhead() {
+		final BulkheadExecutor bulkhead = bulkheads.get( "shared", 2, 4 );
+		assertSame( bulkhead, bulkheads.get( "shared", 8, 16 ) );
+		assertEquals( 2, bulkhead.getMaxConcurrent() );
+		assertEquals( 4, bulkhead.getQueueCapacity() );
+	}
+
+	@Test
+	public void ensureThatNotifiesListenersOfExistingAndNewBulkheads() {
+		final BulkheadExecutor existing = bulkheads.get( "existing", 1, 1 );
+		final List<BulkheadExecutor> notified = new ArrayList<>();
+		bulkheads.forEachBulkhead( notified::add );
+		assertEquals( Collections.singletonList( existing ), notified );
+
+		final BulkheadExecutor created = bulkheads.get( "created", 1, 1 );
+		bulkheads.get( "created", 1, 1 );
+		assertEquals( Arrays.asList( existing, created ), notified );
+	}
+}
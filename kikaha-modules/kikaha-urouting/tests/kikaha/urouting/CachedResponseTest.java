@@ -0,0 +1,67 @@
+package kikaha.urouting;
+
+import static org.junit.Assert.*;
+
+import java.util.Set;
+import io.undertow.server.DefaultByteBufferPool;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.*;
+import kikaha.core.test.HttpServerExchangeStub;
+import kikaha.urouting.serializers.PooledBufferOutputStream;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CachedResponse}.
+ */
+public class CachedResponseTest {
+
+	static final HttpString
+		ACCESS_CONTROL_ALLOW_ORIGIN = new HttpString( "Access-Control-Allow-Origin" ),
+		X_TOTAL = new HttpString( "X-Total" );
+
+	final DefaultByteBufferPool pool = new DefaultByteBufferPool( false, 64 );
+	final PooledBufferOutputStream body = new PooledBufferOutputStream( pool );
+
+	@After
+	public void closePool(){
+		body.release();
+		pool.close();
+	}
+
+	@Test
+	public void ensureThatCopiesOnlyTheHeadersSentByTheRoute(){
+		final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
+		exchange.getResponseHeaders()
+			.put( ACCESS_CONTROL_ALLOW_ORIGIN, "http://a.example" )
+			.put( Headers.CONTENT_TYPE, "text/plain" );
+		final Set<HttpString> headersSentBeforeTheRoute = CachedResponse.headersSentBeforeTheRoute( exchange );
+
+		exchange.getResponseHeaders()
+			.add( X_TOTAL, "10" )
+			.put( Headers.ETAG, "\"1\"" )
+			.put( Headers.CONTENT_LENGTH, "5" );
+		final CachedResponse response = CachedResponse.from( exchange, "/users", body, 0, 0, headersSentBeforeTheRoute );
+
+		final HeaderMap replayed = new HeaderMap();
+		response.writeHeadersTo( replayed );
+		assertEquals( "10", replayed.getFirst( X_TOTAL ) );
+		assertEquals( "\"1\"", replayed.getFirst( Headers.ETAG ) );
+		assertEquals( "text/plain", replayed.getFirst( Headers.CONTENT_TYPE ) );
+		assertFalse( replayed.contains( ACCESS_CONTROL_ALLOW_ORIGIN ) );
+		assertFalse( replayed.contains( Headers.CONTENT_LENGTH ) );
+	}
+
+	@Test
+	public void ensureThatKeepsTheHeadersAlreadySentForTheCurrentRequest(){
+		final CachedResponse response = new CachedResponse( "/users", 200,
+			new HttpString[]{ ACCESS_CONTROL_ALLOW_ORIGIN, X_TOTAL, X_TOTAL },
+			new String[]{ "http://a.example", "10", "20" }, new byte[0], 0, 0 );
+
+		final HeaderMap headers = new HeaderMap().put( ACCESS_CONTROL_ALLOW_ORIGIN, "http://b.example" );
+		response.writeHeadersTo( headers );
+		assertEquals( 1, headers.count( ACCESS_CONTROL_ALLOW_ORIGIN ) );
+		assertEquals( "http://b.example", headers.getFirst( ACCESS_CONTROL_ALLOW_ORIGIN ) );
+		assertEquals( 2, headers.count( X_TOTAL ) );
+	}
+}
@@ -0,0 +1,89 @@
+package kikaha.urouting;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.*;
+import io.undertow.server.HttpServerExchange;
+import kikaha.core.test.HttpServerExchangeStub;
+import kikaha.urouting.api.Response;
+import org.junit.After;
+import org.junit.Test;
+import org.xnio.XnioExecutor;
+import org.xnio.XnioIoThread;
+
+/**
+ * Unit tests for {@link CompletionStageResponse}.
+ */
+public class CompletionStageResponseTest {
+
+	static final int ATTEMPTS = 200;
+
+	final ExecutorService executor = Executors.newFixedThreadPool( 2 );
+	final RoutingMethodExceptionHandler exceptionHandler = mock( RoutingMethodExceptionHandler.class );
+	final XnioExecutor.Key scheduledTimeout = mock( XnioExecutor.Key.class );
+
+	{
+		doReturn( Response.serverError() ).when( exceptionHandler ).handle( any() );
+	}
+
+	@After
+	public void shutdownExecutor(){
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void ensureThatCancelsTheTimeoutOnceTheStageCompletes() throws Exception {
+		final RoutingMethodResponseWriter writer = mock( RoutingMethodResponseWriter.class );
+		final HttpServerExchange exchange = createExchange();
+		final CompletableFuture<Object> stage = new CompletableFuture<>();
+		final CompletionStageResponse response = new CompletionStageResponse( exchange, writer, exceptionHandler, null, 1000 );
+		response.subscribe( stage );
+
+		stage.complete( "done" );
+		response.run();
+		verify( scheduledTimeout ).remove();
+		verify( writer ).write( eq( exchange ), any( Response.class ) );
+		verify( exceptionHandler, never() ).handle( any() );
+	}
+
+	@Test
+	public void ensureThatIgnoresTheStageCompletedAfterTheTimeout() throws Exception {
+		final RoutingMethodResponseWriter writer = mock( RoutingMethodResponseWriter.class );
+		final HttpServerExchange exchange = createExchange();
+		final CompletableFuture<Object> stage = new CompletableFuture<>();
+		final CompletionStageResponse response = new CompletionStageResponse( exchange, writer, exceptionHandler, null, 1000 );
+		response.subscribe( stage );
+
+		response.run();
+		stage.complete( "done" );
+		verify( exceptionHandler ).handle( isA( CompletionStageTimeoutException.class ) );
+		verify( writer ).write( eq( exchange ), any( Response.class ) );
+	}
+
+	@Test
+	public void ensureThatSendsASingleResponseWhenTheTimeoutRacesWithTheCompletion() throws Exception {
+		for ( int i = 0; i < ATTEMPTS; i++ ) {
+			final RoutingMethodResponseWriter writer = mock( RoutingMethodResponseWriter.class );
+			final HttpServerExchange exchange = createExchange();
+			final CompletableFuture<Object> stage = new CompletableFuture<>();
+			final CompletionStageResponse response = new CompletionStageResponse( exchange, writer, exceptionHandler, null, 1000 );
+			response.subscribe( stage );
+
+			final CyclicBarrier barrier = new CyclicBarrier( 2 );
+			final Future<?> completion = executor.submit( () -> { barrier.await(); return stage.complete( "done" ); } );
+			final Future<?> timeout = executor.submit( () -> { barrier.await(); response.run(); return null; } );
+			completion.get( 5, TimeUnit.SECONDS );
+			timeout.get( 5, TimeUnit.SECONDS );
+
+			verify( writer ).write( eq( exchange ), any( Response.class ) );
+		}
+	}
+
+	HttpServerExchange createExchange() {
+		final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
+		final XnioIoThread ioThread = exchange.getIoThread();
+		doReturn( scheduledTimeout ).when( ioThread ).executeAfter( any( Runnable.class ), anyLong(), any( TimeUnit.class ) );
+		return exchange;
+	}
+}
@@ -0,0 +1,28 @@
+package kikaha.urouting;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ETags}.
+ */
+public class ETagsTest {
+
+	@Test
+	public void ensureThatCreatesQuotedETagsFromVersions() {
+		assertEquals( "\"42\"", ETags.fromVersion( 42L ) );
+		assertEquals( "\"v1\"", ETags.fromVersion( "\"v1\"" ) );
+	}
+
+	@Test
+	public void ensureThatMatchesETagsWithTheWeakComparison() {
+		assertTrue( ETags.matches( "\"v1\"", "\"v1\"" ) );
+		assertTrue( ETags.matches( "W/\"v1\"", "\"v1\"" ) );
+		assertTrue( ETags.matches( "\"v1\"", "W/\"v1\"" ) );
+		assertTrue( ETags.matches( "\"v0\", \"v1\"", "\"v1\"" ) );
+		assertTrue( ETags.matches( "*", "\"v1\"" ) );
+		assertFalse( ETags.matches( "\"v0\"", "\"v1\"" ) );
+		assertFalse( ETags.matches( null, "\"v1\"" ) );
+	}
+}
@@ -0,0 +1,51 @@
+package kikaha.urouting;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import kikaha.core.test.HttpServerExchangeStub;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RequestCoalescer}.
+ */
+public class RequestCoalescerTest {
+
+	final RequestCoalescer coalescer = new RequestCoalescer();
+	final HttpHandler route = mock( HttpHandler.class );
+
+	@Test
+	public void ensureThatNegotiatedRequestsAreCoalescedPerAcceptHeader() {
+		coalescer.acceptNegotiation = true;
+		final RequestCoalescer.Policy policy = new RequestCoalescer.Policy( true, "X-Tenant" );
+		final HttpServerExchange json = exchange( "application/json" );
+		assertFalse( coalescer.join( json, policy, route ) );
+		assertFalse( coalescer.join( exchange( "text/xml" ), policy, route ) );
+		assertTrue( coalescer.join( exchange( "application/json" ), policy, route ) );
+
+		assertEquals( 2, coalescer.getInFlight() );
+		assertEquals( "X-Tenant, Accept", json.getResponseHeaders().getFirst( Headers.VARY ) );
+	}
+
+	@Test
+	public void ensureThatIgnoresTheAcceptHeaderWithoutContentNegotiation() {
+		final RequestCoalescer.Policy policy = new RequestCoalescer.Policy( true, "X-Tenant" );
+		final HttpServerExchange json = exchange( "application/json" );
+		assertFalse( coalescer.join( json, policy, route ) );
+		assertTrue( coalescer.join( exchange( "text/xml" ), policy, route ) );
+
+		assertEquals( 1, coalescer.getInFlight() );
+		assertEquals( "X-Tenant", json.getResponseHeaders().getFirst( Headers.VARY ) );
+	}
+
+	static HttpServerExchange exchange( final String accept ) {
+		final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
+		exchange.setRequestPath( "/users/1" );
+		exchange.setQueryString( "" );
+		exchange.getRequestHeaders().put( Headers.ACCEPT, accept );
+		return exchange;
+	}
+}
@@ -0,0 +1,183 @@
+package kikaha.urouting;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import io.undertow.security.api.SecurityContext;
+import io.undertow.security.idm.Account;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
+import kikaha.core.test.HttpServerExchangeStub;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ResponseCache}.
+ */
+public class ResponseCacheTest {
+
+	final ResponseCache cache = new ResponseCache();
+
+	@Before
+	public void configureCache() {
+		cache.configure( Long.MAX_VALUE, 1048576 );
+	}
+
+	@Test
+	public void ensureThatEvictsTheLeastRecentlyUsedResponsesOnceTooHeavy() {
+		final CachedResponse first = response( "/first", 400 ), second = response( "/second", 400 );
+		cache.configure( first.weight( "/first" ) + second.weight( "/second" ), Long.MAX_VALUE );
+		cache.put( "/first", first );
+		cache.put( "/second", second );
+		assertSame( first, cache.get( "/first" ) );
+
+		cache.put( "/third", response( "/third", 400 ) );
+		assertNull( cache.get( "/second" ) );
+		assertNotNull( cache.get( "/first" ) );
+		assertEquals( 1, cache.getEvictions() );
+		assertTrue( cache.getWeight() <= cache.maxSize );
+	}
+
+	@Test
+	public void ensureThatSpreadsTheResponsesAmongSegmentsThatHoldTheLargestOnes() {
+		cache.configure( 10000, 1000 );
+		assertEquals( 8, cache.segments.length );
+		for ( final ResponseCache.Segment segment : cache.segments )
+			assertTrue( segment.maxWeight >= cache.maxEntrySize );
+
+		for ( int i = 0; i < 100; i++ )
+			cache.put( "/users/" + i, response( "/users/" + i, 100 ) );
+		assertTrue( cache.getWeight() <= cache.maxSize );
+		assertEquals( 100 - cache.getEvictions(), cache.size() );
+		for ( final ResponseCache.Segment segment : cache.segments )
+			assertTrue( segment.size() > 0 );
+	}
+
+	@Test
+	public void ensureThatInvalidatesResponsesByRequestPath() {
+		cache.put( "/users/1", response( "/users/1", 10 ) );
+		cache.put( "/users/1?fields=name", response( "/users/1", 10 ) );
+		cache.put( "/users/2", response( "/users/2", 10 ) );
+
+		cache.invalidate( "/users/1" );
+		assertEquals( 1, cache.size() );
+		cache.invalidateIf( path -> path.startsWith( "/users/" ) );
+		assertEquals( 0, cache.size() );
+		assertEquals( 0, cache.getWeight() );
+	}
+
+	@Test
+	public void ensureThatDropsResponsesOnceTheirStalePeriodIsOver() {
+		final long past = System.currentTimeMillis() - 1;
+		cache.put( "/expired", new CachedResponse( "/expired", 200, new HttpString[0], new String[0], new byte[10], past, past ) );
+		assertNull( cache.get( "/expired" ) );
+		assertEquals( 0, cache.size() );
+	}
+
+	@Test
+	public void ensureThatMissesAreMarkedToBeStored() {
+		final HttpServerExchange exchange = exchange();
+		assertFalse( cache.sendCachedResponse( exchange, new ResponseCache.Policy( 1000, 0 ) ) );
+		assertTrue( ResponseCache.isStoring( exchange ) );
+		assertEquals( 1, cache.getMisses() );
+		assertEquals( 0, cache.getHitRatio(), 0 );
+	}
+
+	@Test
+	public void ensureThatOnlyOneRequestRefreshesAStaleResponse() {
+		final long now = System.currentTimeMillis();
+		cache.put( "GET /users/1", new CachedResponse( "/users/1", 200, new HttpString[0], new String[0], new byte[10], now - 1, now + 60000 ) );
+		final ResponseCache.Policy policy = new ResponseCache.Policy( 1000, 60000 );
+
+		final HttpServerExchange refreshing = exchange();
+		assertFalse( cache.sendCachedResponse( refreshing, policy ) );
+		assertTrue( ResponseCache.isStoring( refreshing ) );
+
+		final HttpServerExchange served = exchange();
+		assertTrue( cache.sendCachedResponse( served, policy ) );
+		assertFalse( ResponseCache.isStoring( served ) );
+		assertEquals( 1, cache.getStaleHits() );
+		assertEquals( 0.5, cache.getHitRatio(), 0 );
+	}
+
+	@Test
+	public void ensureThatRequestsCarryingCredentialsBypassTheCache() {
+		final HttpServerExchange exchange = exchange();
+		exchange.getRequestHeaders().put( Headers.AUTHORIZATION, "Bearer token" );
+		assertFalse( cache.sendCachedResponse( exchange, new ResponseCache.Policy( 1000, 0 ) ) );
+		assertFalse( ResponseCache.isStoring( exchange ) );
+		assertEquals( 0, cache.getMisses() );
+	}
+
+	@Test
+	public void ensureThatAuthenticatedRequestsBypassTheCache() {
+		final HttpServerExchange exchange = exchange();
+		final SecurityContext securityContext = mock( SecurityContext.class );
+		doReturn( mock( Account.class ) ).when( securityContext ).getAuthenticatedAccount();
+		exchange.setSecurityContext( securityContext );
+		assertFalse( cache.sendCachedResponse( exchange, new ResponseCache.Policy( 1000, 0 ) ) );
+		assertFalse( ResponseCache.isStoring( exchange ) );
+	}
+
+	@Test
+	public void ensureThatCachesRequestsWhoseCredentialsAreVariedBy() {
+		final HttpServerExchange exchange = exchange();
+		exchange.getRequestHeaders().put( Headers.AUTHORIZATION, "Bearer token" );
+		final SecurityContext securityContext = mock( SecurityContext.class );
+		doReturn( mock( Account.class ) ).when( securityContext ).getAuthenticatedAccount();
+		exchange.setSecurityContext( securityContext );
+		assertFalse( cache.sendCachedResponse( exchange, new ResponseCache.Policy( 1000, 0, "authorization" ) ) );
+		assertTrue( ResponseCache.isStoring( exchange ) );
+	}
+
+	@Test
+	public void ensureThatNegotiatedResponsesAreCachedPerAcceptHeader() {
+		cache.acceptNegotiation = true;
+		final ResponseCache.Policy policy = new ResponseCache.Policy( 1000, 0, true, "X-Tenant" );
+		final HttpServerExchange json = exchange( "application/json" ), xml = exchange( "text/xml" );
+		assertFalse( cache.sendCachedResponse( json, policy ) );
+		assertFalse( cache.sendCachedResponse( xml, policy ) );
+
+		assertNotEquals( json.getAttachment( ResponseCache.PENDING ).key, xml.getAttachment( ResponseCache.PENDING ).key );
+		assertEquals( "X-Tenant, Accept", json.getResponseHeaders().getFirst( Headers.VARY ) );
+	}
+
+	@Test
+	public void ensureThatIgnoresTheAcceptHeaderOfRoutesWithAFixedContentTypeOrWithoutContentNegotiation() {
+		final ResponseCache.Policy negotiated = new ResponseCache.Policy( 1000, 0, true, "X-Tenant" );
+		final HttpServerExchange json = exchange( "application/json" ), xml = exchange( "text/xml" );
+		assertFalse( cache.sendCachedResponse( json, negotiated ) );
+		cache.acceptNegotiation = true;
+		assertFalse( cache.sendCachedResponse( xml, new ResponseCache.Policy( 1000, 0, false, "X-Tenant" ) ) );
+
+		assertEquals( json.getAttachment( ResponseCache.PENDING ).key, xml.getAttachment( ResponseCache.PENDING ).key );
+		assertEquals( "X-Tenant", json.getResponseHeaders().getFirst( Headers.VARY ) );
+		assertEquals( "X-Tenant", xml.getResponseHeaders().getFirst( Headers.VARY ) );
+	}
+
+	@Test
+	public void ensureThatSendsNoVaryHeaderWhenTheResponseVariesByNoHeader() {
+		final HttpServerExchange exchange = exchange();
+		assertFalse( cache.sendCachedResponse( exchange, new ResponseCache.Policy( 1000, 0 ) ) );
+		assertFalse( exchange.getResponseHeaders().contains( Headers.VARY ) );
+	}
+
+	static HttpServerExchange exchange( final String accept ) {
+		final HttpServerExchange exchange = exchange();
+		exchange.getRequestHeaders().put( Headers.ACCEPT, accept );
+		return exchange;
+	}
+
+	static HttpServerExchange exchange() {
+		final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
+		exchange.setRequestPath( "/users/1" );
+		exchange.setQueryString( "" );
+		return exchange;
+	}
+
+	static CachedResponse response( final String path, final int length ) {
+		final long expiresAt = System.currentTimeMillis() + 60000;
+		return new CachedResponse( path, 200, new HttpString[0], new String[0], new byte[ length ], expiresAt, expiresAt );
+	}
+}
@@ -5,6 +5,7 @@ import io.undertow.util.*;
 import kikaha.core.test.HttpServerExchangeStub;
 import kikaha.core.test.KikahaRunner;
 import kikaha.urouting.api.Header;
+import kikaha.urouting.api.HttpStrings;
 import kikaha.urouting.api.Mimes;
 import kikaha.urouting.api.Response;
 import kikaha.urouting.unit.samples.TodoResource;
@@ -18,6 +19,7 @@ import org.junit.runner.RunWith;
 import javax.inject.Inject;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
@@ -95,4 +97,31 @@ public class RoutingMethodResponseWriterTest {
 			log.error( cause.getMessage() );
 		}
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void ensureThatNegotiatesTheContentTypeFromTheAcceptHeaderOnlyWhenEnabled() {
+		exchange.getRequestHeaders().put( Headers.ACCEPT, "unknown/mime, text/plain;q=0.9, */*;q=0.1" );
+		assertEquals( DEFAULT_CONFIGURED_MIME, writer.negotiateContentType( exchange ) );
+		writer.acceptNegotiation = true;
+		assertEquals( Mimes.PLAIN_TEXT, writer.negotiateContentType( exchange ) );
+		exchange.getRequestHeaders().put( Headers.ACCEPT, "unknown/mime" );
+		assertEquals( DEFAULT_CONFIGURED_MIME, writer.negotiateContentType( exchange ) );
+	}
+
+	@Test
+	public void ensureThatHeaderNamesAreInterned() {
+		final Response response = Response.ok().header( "Cache-Control", "no-cache" ).header( "X-Custom-Header", "custom" );
+		assertSame( Headers.CACHE_CONTROL, HttpStrings.intern( "Cache-Control" ) );
+		assertSame( HttpStrings.intern( "X-Custom-Header" ), HttpStrings.intern( "X-Custom-Header" ) );
+		for ( final Header header : response.headers() )
+			assertSame( HttpStrings.intern( header.name() ), header.httpName() );
+	}
+
+	@Test
+	public void ensureThatHeadersAreSentWithTheirCanonicalNames() {
+		final Response response = Response.ok().header( "Cache-Control", "no-cache" ).header( "X-Custom-Header", "custom" );
+		writer.sendHeaders( exchange, response );
+		for ( final Header header : response.headers() )
+			assertSame( header.httpName(), exchange.getResponseHeaders().get( header.name() ).getHeaderName() );
+	}
+}
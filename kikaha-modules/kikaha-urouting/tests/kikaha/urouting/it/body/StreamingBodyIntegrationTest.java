@@ -0,0 +1,98 @@
+package kikaha.urouting.it.body;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Arrays;
+import kikaha.core.test.KikahaServerRunner;
+import kikaha.urouting.it.Http;
+import okhttp3.*;
+import okio.BufferedSink;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Integration tests for routes that read the request body as it arrives.
+ */
+@RunWith( KikahaServerRunner.class )
+public class StreamingBodyIntegrationTest {
+
+	static final String URL = "http://localhost:19999/it/body/";
+	static final int LARGE_BODY_SIZE = 1024 * 1024;
+
+	@Test
+	public void ensureThatSmallBodiesAreBufferedBeforeBeingUnserialized() throws IOException {
+		final Response response = post( "unserialized", RequestBody.create( MediaType.parse( "text/hello-stream" ), "Hello" ) );
+		assertEquals( 200, response.code() );
+		assertEquals( "bytes", response.body().string() );
+	}
+
+	@Test
+	public void ensureThatLargeBodiesAreUnserializedAsTheyArrive() throws IOException {
+		final Response response = post( "unserialized", RequestBody.create( MediaType.parse( "text/hello-stream" ), largeBody() ) );
+		assertEquals( 200, response.code() );
+		assertEquals( "stream", response.body().string() );
+	}
+
+	@Test
+	public void ensureThatBodiesOfUnknownSizeAreUnserializedAsTheyArrive() throws IOException {
+		final Response response = post( "unserialized", new ChunkedRequestBody( "text/hello-stream", "Hello" ) );
+		assertEquals( 200, response.code() );
+		assertEquals( "stream", response.body().string() );
+	}
+
+	@Test
+	public void ensureThatCanReadTheBodyFromAnInputStream() throws IOException {
+		final Response response = post( "stream", RequestBody.create( MediaType.parse( "application/octet-stream" ), largeBody() ) );
+		assertEquals( 200, response.code() );
+		assertEquals( String.valueOf( LARGE_BODY_SIZE ), response.body().string() );
+	}
+
+	@Test
+	public void ensureThatCanReadTheBodyFromAChannel() throws IOException {
+		final Response response = post( "channel", RequestBody.create( MediaType.parse( "application/octet-stream" ), largeBody() ) );
+		assertEquals( 200, response.code() );
+		assertEquals( String.valueOf( LARGE_BODY_SIZE ), response.body().string() );
+	}
+
+	@Test
+	public void ensureThatCanReadTheBodyChunkByChunk() throws IOException {
+		final Response response = post( "chunks", RequestBody.create( MediaType.parse( "application/octet-stream" ), largeBody() ) );
+		assertEquals( 200, response.code() );
+		assertEquals( String.valueOf( LARGE_BODY_SIZE ), response.body().string() );
+	}
+
+	static Response post( final String path, final RequestBody body ) {
+		return Http.send( Http.url( URL + path ).post( body ) );
+	}
+
+	static byte[] largeBody() {
+		final byte[] body = new byte[LARGE_BODY_SIZE];
+		Arrays.fill( body, (byte)'a' );
+		return body;
+	}
+
+	/**
+	 * A body sent without {@code Content-Length}, thus with chunked transfer encoding.
+	 */
+	static class ChunkedRequestBody extends RequestBody {
+
+		final MediaType contentType;
+		final String content;
+
+		ChunkedRequestBody( final String contentType, final String content ) {
+			this.contentType = MediaType.parse( contentType );
+			this.content = content;
+		}
+
+		@Override
+		public MediaType contentType() {
+			return contentType;
+		}
+
+		@Override
+		public void writeTo( final BufferedSink sink ) throws IOException {
+			sink.writeUtf8( content );
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package kikaha.urouting.it.body;
+
+import static kikaha.urouting.api.Response.ok;
+
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import kikaha.urouting.api.*;
+
+/**
+ *
+ */
+@Path( "it/body" )
+@Singleton
+public class StreamingBodyResource {
+
+	@POST
+	@Path( "unserialized" )
+	@Consumes( "text/hello-stream" )
+	@Produces( Mimes.PLAIN_TEXT )
+	public String howTheBodyWasRead( String body ) {
+		return body.substring( 0, body.indexOf( ':' ) );
+	}
+
+	@POST
+	@Path( "stream" )
+	@Produces( Mimes.PLAIN_TEXT )
+	public long countBytesFromStream( InputStream body ) throws IOException {
+		final byte[] buffer = new byte[1024];
+		long total = 0;
+		int read;
+		while ( ( read = body.read( buffer ) ) != -1 )
+			total += read;
+		return total;
+	}
+
+	@POST
+	@Path( "channel" )
+	@Produces( Mimes.PLAIN_TEXT )
+	public long countBytesFromChannel( ReadableByteChannel body ) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate( 1024 );
+		long total = 0;
+		int read;
+		while ( ( read = body.read( buffer ) ) != -1 ) {
+			total += read;
+			buffer.clear();
+		}
+		return total;
+	}
+
+	@POST
+	@Path( "chunks" )
+	public void countBytesFromChunks( ChunkedBody body, AsyncResponse response ) {
+		final long[] total = { 0 };
+		body.read( new ChunkedBody.Listener() {
+			@Override
+			public void onChunk( byte[] chunk, boolean last ) {
+				total[0] += chunk.length;
+				if ( last )
+					response.write( ok( total[0] ).contentType( Mimes.PLAIN_TEXT ) );
+			}
+
+			@Override
+			public void onFailure( Throwable cause ) {
+				response.write( Response.serverError( cause.getMessage() ) );
+			}
+		});
+	}
+}
@@ -0,0 +1,57 @@
+package kikaha.urouting.it.bulkhead;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import javax.inject.Inject;
+import kikaha.core.test.KikahaServerRunner;
+import kikaha.urouting.BulkheadExecutor;
+import kikaha.urouting.Bulkheads;
+import kikaha.urouting.it.Http;
+import okhttp3.Response;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Integration tests for routes running on a {@link kikaha.urouting.api.Bulkhead}.
+ */
+@RunWith( KikahaServerRunner.class )
+public class BulkheadIntegrationTest {
+
+	static final String URL = "http://localhost:19999/it/bulkhead/";
+
+	@Inject Bulkheads bulkheads;
+
+	@Test
+	public void ensureThatRunsTheRouteOnItsBulkhead() throws Exception {
+		final Response response = Http.send( Http.url( URL + "configured" ) );
+		assertEquals( 200, response.code() );
+		assertTrue( response.body().string().startsWith( "bulkhead-configured-" ) );
+	}
+
+	@Test
+	public void ensureThatRejectsRequestsOnceTheBulkheadIsSaturated() throws Exception {
+		final BulkheadExecutor bulkhead = bulkheads.find( "slow" );
+		final long rejected = bulkhead.getRejected();
+		final ExecutorService executor = Executors.newFixedThreadPool( 2 );
+		try {
+			final Future<Integer> first = executor.submit( () -> Http.send( Http.url( URL + "slow" ) ).code() );
+			Thread.sleep( 100 );
+			assertEquals( 1, bulkhead.getActiveCount() );
+			final Future<Integer> second = executor.submit( () -> Http.send( Http.url( URL + "slow" ) ).code() );
+			assertEquals( Arrays.asList( 200, 503 ), Arrays.asList( first.get( 5, TimeUnit.SECONDS ), second.get( 5, TimeUnit.SECONDS ) ) );
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals( rejected + 1, bulkhead.getRejected() );
+		assertEquals( 0, bulkhead.getQueueDepth() );
+	}
+
+	@Test
+	public void ensureThatTheConfigurationOverridesTheAnnotationLimits() {
+		final BulkheadExecutor bulkhead = bulkheads.find( "configured" );
+		assertEquals( 2, bulkhead.getMaxConcurrent() );
+		assertEquals( 1, bulkhead.getQueueCapacity() );
+	}
+}
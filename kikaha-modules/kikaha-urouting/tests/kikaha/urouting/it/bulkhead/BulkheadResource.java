@@ -0,0 +1,29 @@
+package kikaha.urouting.it.bulkhead;
+
+import kikaha.urouting.api.*;
+
+import javax.inject.Singleton;
+
+/**
+ *
+ */
+@Path( "it/bulkhead" )
+@Produces( Mimes.PLAIN_TEXT )
+@Singleton
+public class BulkheadResource {
+
+	@GET
+	@Bulkhead( name = "slow", maxConcurrent = 1 )
+	@Path( "slow" )
+	public String slow() throws InterruptedException {
+		Thread.sleep( 500 );
+		return Thread.currentThread().getName();
+	}
+
+	@GET
+	@Bulkhead( name = "configured", maxConcurrent = 1 )
+	@Path( "configured" )
+	public String configured() {
+		return Thread.currentThread().getName();
+	}
+}
@@ -0,0 +1,77 @@
+package kikaha.urouting.it.cache;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Collections;
+import javax.inject.Inject;
+import kikaha.core.test.KikahaServerRunner;
+import kikaha.urouting.ResponseCache;
+import kikaha.urouting.it.Http;
+import okhttp3.Response;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Integration tests for the server-side cache of {@link kikaha.urouting.api.Cached} routes.
+ */
+@RunWith( KikahaServerRunner.class )
+public class CachedIntegrationTest {
+
+	static final String URL = "http://localhost:19999/it/cache/";
+
+	@Inject CachedResource resource;
+	@Inject ResponseCache cache;
+
+	@Test
+	public void ensureThatSendsTheCachedResponseWithoutCallingTheRoute() throws IOException {
+		final Response first = Http.send( Http.url( URL + "fresh/world" ).header( "X-Tenant", "a" ) );
+		assertEquals( 200, first.code() );
+		final String body = first.body().string();
+		final long hits = cache.getHits();
+		final int calls = resource.calls.get();
+
+		final Response second = Http.send( Http.url( URL + "fresh/world" ).header( "X-Tenant", "a" ) );
+		assertEquals( 200, second.code() );
+		assertEquals( "text/plain", second.header( "Content-Type" ) );
+		assertEquals( first.headers( "Vary" ), second.headers( "Vary" ) );
+		assertEquals( Collections.singletonList( "X-Tenant" ), second.headers( "Vary" ) );
+		assertEquals( body, second.body().string() );
+		assertEquals( calls, resource.calls.get() );
+		assertEquals( hits + 1, cache.getHits() );
+		assertTrue( cache.getHitRatio() > 0 );
+	}
+
+	@Test
+	public void ensureThatCachesResponsesPerQueryStringAndVaryByHeader() throws IOException {
+		final String body = Http.send( Http.url( URL + "fresh/vary" ).header( "X-Tenant", "a" ) ).body().string();
+		assertNotEquals( body, Http.send( Http.url( URL + "fresh/vary" ).header( "X-Tenant", "b" ) ).body().string() );
+		assertNotEquals( body, Http.send( Http.url( URL + "fresh/vary?page=2" ).header( "X-Tenant", "a" ) ).body().string() );
+		assertEquals( body, Http.send( Http.url( URL + "fresh/vary" ).header( "X-Tenant", "a" ) ).body().string() );
+	}
+
+	@Test
+	public void ensureThatInvalidatedResponsesAreCreatedAgain() throws IOException {
+		final String body = Http.send( Http.url( URL + "fresh/invalidated" ) ).body().string();
+		cache.invalidate( "/it/cache/fresh/invalidated" );
+		assertNotEquals( body, Http.send( Http.url( URL + "fresh/invalidated" ) ).body().string() );
+	}
+
+	@Test
+	public void ensureThatSendsTheStaleResponseWhileItIsRefreshed() throws IOException, InterruptedException {
+		final String body = Http.send( Http.url( URL + "stale" ) ).body().string();
+		Thread.sleep( 150 );
+		final long staleHits = cache.getStaleHits();
+		final Response refreshing = Http.send( Http.url( URL + "stale" ) );
+		assertNotEquals( body, refreshing.body().string() );
+		assertEquals( staleHits, cache.getStaleHits() );
+	}
+
+	@Test
+	public void ensureThatDoesNotCacheUnsuccessfulResponses() throws IOException {
+		final Response first = Http.send( Http.url( URL + "failing" ) );
+		assertEquals( 404, first.code() );
+		final String body = first.body().string();
+		assertNotEquals( body, Http.send( Http.url( URL + "failing" ) ).body().string() );
+	}
+}
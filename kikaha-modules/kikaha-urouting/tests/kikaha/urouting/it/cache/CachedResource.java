@@ -0,0 +1,39 @@
+package kikaha.urouting.it.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import kikaha.urouting.api.*;
+
+import javax.inject.Singleton;
+
+/**
+ *
+ */
+@Path( "it/cache" )
+@Produces( Mimes.PLAIN_TEXT )
+@Singleton
+public class CachedResource {
+
+	final AtomicInteger calls = new AtomicInteger();
+
+	@GET
+	@Cached( ttl = 1, unit = TimeUnit.MINUTES, varyBy = "X-Tenant" )
+	@Path( "fresh/{name}" )
+	public String fresh( @PathParam( "name" ) String name, @HeaderParam( "X-Tenant" ) String tenant ){
+		return "Hello, " + name + " from " + tenant + " #" + calls.incrementAndGet();
+	}
+
+	@GET
+	@Cached( ttl = 100, staleWhileRevalidate = 60000, unit = TimeUnit.MILLISECONDS )
+	@Path( "stale" )
+	public String stale(){
+		return "Stale #" + calls.incrementAndGet();
+	}
+
+	@GET
+	@Cached( ttl = 60 )
+	@Path( "failing" )
+	public Response failing(){
+		return Response.notFound().entity( "Not found #" + calls.incrementAndGet() );
+	}
+}
@@ -0,0 +1,89 @@
+package kikaha.urouting.it.coalescing;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import javax.inject.Inject;
+import kikaha.core.test.KikahaServerRunner;
+import kikaha.urouting.RequestCoalescer;
+import kikaha.urouting.it.Http;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Integration tests for the coalescing of identical concurrent requests to {@link kikaha.urouting.api.Coalesced} routes.
+ */
+@RunWith( KikahaServerRunner.class )
+public class CoalescedIntegrationTest {
+
+	static final String URL = "http://localhost:19999/it/coalescing/";
+
+	@Inject CoalescedResource resource;
+	@Inject RequestCoalescer coalescer;
+
+	@Test
+	public void ensureThatIdenticalConcurrentRequestsRunTheRouteOnce() throws Exception {
+		final int calls = resource.calls.get();
+		final long coalesced = coalescer.getCoalesced();
+		final List<String> bodies = sendConcurrently( 5, Http.url( URL + "slow/world" ) );
+		assertEquals( 1, new HashSet<>( bodies ).size() );
+		assertTrue( bodies.get( 0 ).startsWith( "Hello, world #" ) );
+		assertEquals( calls + 1, resource.calls.get() );
+		assertEquals( coalesced + 4, coalescer.getCoalesced() );
+		assertEquals( 0, coalescer.getInFlight() );
+	}
+
+	@Test
+	public void ensureThatRequestsWithDifferentVaryByHeadersAreNotCoalesced() throws Exception {
+		final int calls = resource.calls.get();
+		final ExecutorService executor = Executors.newFixedThreadPool( 2 );
+		try {
+			final Future<String> first = executor.submit( () -> send( Http.url( URL + "slow/tenants" ).header( "X-Tenant", "a" ) ) );
+			final Future<String> second = executor.submit( () -> send( Http.url( URL + "slow/tenants" ).header( "X-Tenant", "b" ) ) );
+			assertNotEquals( first.get(), second.get() );
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals( calls + 2, resource.calls.get() );
+	}
+
+	@Test
+	public void ensureThatRequestsCarryingCredentialsAreNotCoalesced() throws Exception {
+		final int calls = resource.calls.get();
+		final List<String> bodies = sendConcurrently( 3, Http.url( URL + "slow/private" ).header( "Authorization", "Bearer token" ) );
+		assertEquals( 3, new HashSet<>( bodies ).size() );
+		assertEquals( calls + 3, resource.calls.get() );
+	}
+
+	@Test
+	public void ensureThatResponsesSettingCookiesAreNotShared() throws Exception {
+		final int calls = resource.calls.get();
+		final List<String> bodies = sendConcurrently( 3, Http.url( URL + "cookie" ) );
+		assertEquals( 3, new HashSet<>( bodies ).size() );
+		assertEquals( calls + 3, resource.calls.get() );
+	}
+
+	static List<String> sendConcurrently( final int requests, final Request.Builder request ) throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool( requests );
+		try {
+			final List<Future<String>> futures = new ArrayList<>();
+			for ( int i = 0; i < requests; i++ )
+				futures.add( executor.submit( () -> send( request ) ) );
+			final List<String> bodies = new ArrayList<>();
+			for ( final Future<String> future : futures )
+				bodies.add( future.get( 10, TimeUnit.SECONDS ) );
+			return bodies;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	static String send( final Request.Builder request ) throws Exception {
+		final Response response = Http.send( request );
+		assertEquals( 200, response.code() );
+		return response.body().string();
+	}
+}
@@ -0,0 +1,35 @@
+package kikaha.urouting.it.coalescing;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import kikaha.urouting.api.*;
+
+import javax.inject.Singleton;
+
+/**
+ *
+ */
+@Path( "it/coalescing" )
+@Produces( Mimes.PLAIN_TEXT )
+@Singleton
+public class CoalescedResource {
+
+	final AtomicInteger calls = new AtomicInteger();
+
+	@GET
+	@Coalesced( varyBy = "X-Tenant" )
+	@Path( "slow/{name}" )
+	public String slow( @PathParam( "name" ) String name ) throws InterruptedException {
+		final int call = calls.incrementAndGet();
+		Thread.sleep( 500 );
+		return "Hello, " + name + " #" + call;
+	}
+
+	@GET
+	@Coalesced
+	@Path( "cookie" )
+	public Response cookie() throws InterruptedException {
+		final int call = calls.incrementAndGet();
+		Thread.sleep( 500 );
+		return Response.ok( "Cookie #" + call ).header( "Set-Cookie", "session=" + call );
+	}
+}
@@ -0,0 +1,55 @@
+package kikaha.urouting.it.completion;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import kikaha.core.test.KikahaServerRunner;
+import kikaha.urouting.it.Http;
+import okhttp3.Response;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Integration tests for routing methods returning a {@link java.util.concurrent.CompletionStage}.
+ */
+@RunWith( KikahaServerRunner.class )
+public class CompletionStageIntegrationTest {
+
+	static final String URL = "http://localhost:19999/it/completion-stage/";
+
+	@Test
+	public void ensureThatSendsTheValueOnceTheStageCompletes() throws IOException {
+		final Response response = Http.send( Http.url( URL + "value" ) );
+		assertEquals( 200, response.code() );
+		assertTrue( response.header( "Content-Type" ).startsWith( "text/plain" ) );
+		assertTrue( response.body().string().startsWith( "Hello from " ) );
+	}
+
+	@Test
+	public void ensureThatSendsTheResponseTheStageCompletedWith() throws IOException {
+		final Response response = Http.send( Http.url( URL + "response" ) );
+		assertEquals( 202, response.code() );
+		assertEquals( "Accepted", response.body().string() );
+	}
+
+	@Test
+	public void ensureThatSendsNoContentWhenTheStageCompletesWithNull() throws IOException {
+		final Response response = Http.send( Http.url( URL + "void" ) );
+		assertEquals( 204, response.code() );
+	}
+
+	@Test
+	public void ensureThatHandlesTheFailureTheStageCompletedWith() throws IOException {
+		final Response response = Http.send( Http.url( URL + "failure" ) );
+		assertEquals( 500, response.code() );
+		assertEquals( "Failed!", response.body().string() );
+	}
+
+	@Test
+	public void ensureThatTimesOutWhenTheStageDoesNotCompleteInTime() throws IOException {
+		final long start = System.currentTimeMillis();
+		final Response response = Http.send( Http.url( URL + "never" ) );
+		assertEquals( 504, response.code() );
+		assertTrue( System.currentTimeMillis() - start >= 500 );
+	}
+}
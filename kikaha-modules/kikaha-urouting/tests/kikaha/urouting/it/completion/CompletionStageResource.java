@@ -0,0 +1,50 @@
+package kikaha.urouting.it.completion;
+
+import kikaha.urouting.api.*;
+import kikaha.urouting.it.responses.FailureException;
+
+import javax.inject.Singleton;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ *
+ */
+@Path( "it/completion-stage" )
+@Singleton
+public class CompletionStageResource {
+
+	@GET
+	@Path( "value" )
+	@Produces( Mimes.PLAIN_TEXT )
+	public CompletableFuture<String> value(){
+		return CompletableFuture.supplyAsync( () -> "Hello from " + Thread.currentThread().getName() );
+	}
+
+	@GET
+	@Path( "response" )
+	public CompletionStage<Response> response(){
+		return CompletableFuture.supplyAsync( () -> Response.response( 202 ).entity( "Accepted" ) );
+	}
+
+	@GET
+	@Path( "void" )
+	public CompletableFuture<Void> nothing(){
+		return CompletableFuture.runAsync( () -> {} );
+	}
+
+	@GET
+	@NonBlocking
+	@Path( "failure" )
+	public CompletableFuture<String> failure(){
+		final CompletableFuture<String> future = new CompletableFuture<>();
+		future.completeExceptionally( new FailureException() );
+		return future;
+	}
+
+	@GET
+	@Path( "never" )
+	public CompletableFuture<String> never(){
+		return new CompletableFuture<>();
+	}
+}
@@ -0,0 +1,59 @@
+package kikaha.urouting.it.compression;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.zip.*;
+import kikaha.core.test.KikahaServerRunner;
+import kikaha.urouting.it.Http;
+import okhttp3.Response;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Integration tests for response compression of routing methods.
+ */
+@RunWith( KikahaServerRunner.class )
+public class CompressionIntegrationTest {
+
+	static final String URL = "http://localhost:19999/it/compression/";
+
+	@Test
+	public void ensureThatCompressesLargeResponsesWithGzip() throws IOException {
+		final Response response = Http.send( Http.url( URL + "large" ).header( "Accept-Encoding", "gzip, deflate" ) );
+		assertEquals( 200, response.code() );
+		assertEquals( "gzip", response.header( "Content-Encoding" ) );
+		assertEquals( "Accept-Encoding", response.header( "Vary" ) );
+		assertEquals( CompressionResource.LARGE_BODY, read( new GZIPInputStream( response.body().byteStream() ) ) );
+	}
+
+	@Test
+	public void ensureThatCompressesWithTheEncodingPreferredByTheClient() throws IOException {
+		final Response response = Http.send( Http.url( URL + "large" ).header( "Accept-Encoding", "gzip;q=0.5, deflate" ) );
+		assertEquals( "deflate", response.header( "Content-Encoding" ) );
+		assertEquals( CompressionResource.LARGE_BODY, read( new InflaterInputStream( response.body().byteStream() ) ) );
+	}
+
+	@Test
+	public void ensureThatDoesNotCompressSmallResponses() throws IOException {
+		final Response response = Http.send( Http.url( URL + "small" ).header( "Accept-Encoding", "gzip" ) );
+		assertNull( response.header( "Content-Encoding" ) );
+		assertEquals( "small", response.body().string() );
+	}
+
+	@Test
+	public void ensureThatDoesNotCompressResponsesOfUncompressedRoutes() throws IOException {
+		final Response response = Http.send( Http.url( URL + "uncompressed" ).header( "Accept-Encoding", "gzip" ) );
+		assertNull( response.header( "Content-Encoding" ) );
+		assertEquals( CompressionResource.LARGE_BODY, response.body().string() );
+	}
+
+	static String read( final InputStream input ) throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[ 1024 ];
+		int read;
+		while ( ( read = input.read( buffer ) ) > 0 )
+			output.write( buffer, 0, read );
+		return output.toString( "UTF-8" );
+	}
+}
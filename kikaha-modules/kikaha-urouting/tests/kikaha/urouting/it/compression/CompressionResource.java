@@ -0,0 +1,42 @@
+package kikaha.urouting.it.compression;
+
+import kikaha.urouting.api.*;
+
+import javax.inject.Singleton;
+
+/**
+ *
+ */
+@Path( "it/compression" )
+@Produces( Mimes.PLAIN_TEXT )
+@Singleton
+public class CompressionResource {
+
+	static final String LARGE_BODY = createLargeBody();
+
+	@GET
+	@Path( "large" )
+	public String large(){
+		return LARGE_BODY;
+	}
+
+	@GET
+	@Path( "small" )
+	public String small(){
+		return "small";
+	}
+
+	@GET
+	@Uncompressed
+	@Path( "uncompressed" )
+	public String uncompressed(){
+		return LARGE_BODY;
+	}
+
+	static String createLargeBody() {
+		final StringBuilder builder = new StringBuilder();
+		for ( int i = 0; i < 500; i++ )
+			builder.append( "Hello, compressed world! " );
+		return builder.toString();
+	}
+}
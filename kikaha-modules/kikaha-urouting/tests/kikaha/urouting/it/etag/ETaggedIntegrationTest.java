@@ -0,0 +1,89 @@
+package kikaha.urouting.it.etag;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import javax.inject.Inject;
+import kikaha.core.test.KikahaServerRunner;
+import kikaha.urouting.it.Http;
+import okhttp3.Response;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Integration tests for the {@code ETag} and {@code If-None-Match} support of routing methods.
+ */
+@RunWith( KikahaServerRunner.class )
+public class ETaggedIntegrationTest {
+
+	static final String URL = "http://localhost:19999/it/etag/";
+
+	@Inject
+	ETaggedResource resource;
+
+	@Test
+	public void ensureThatTagsTheResponseWithAChecksumOfItsBody() throws IOException {
+		final Response response = Http.send( Http.url( URL + "hashed/world" ) );
+		assertEquals( 200, response.code() );
+		assertEquals( "Hello, world", response.body().string() );
+		final String etag = response.header( "ETag" );
+		assertNotNull( etag );
+
+		final Response other = Http.send( Http.url( URL + "hashed/kikaha" ) );
+		assertNotEquals( etag, other.header( "ETag" ) );
+	}
+
+	@Test
+	public void ensureThatSendsNotModifiedWhenTheChecksumMatches() throws IOException {
+		final String etag = Http.send( Http.url( URL + "hashed/world" ) ).header( "ETag" );
+		final Response response = Http.send( Http.url( URL + "hashed/world" ).header( "If-None-Match", "\"other\", " + etag ) );
+		assertEquals( 304, response.code() );
+		assertEquals( etag, response.header( "ETag" ) );
+		assertEquals( "", response.body().string() );
+	}
+
+	@Test
+	public void ensureThatSendsTheBodyWhenTheChecksumDoesNotMatch() throws IOException {
+		final Response response = Http.send( Http.url( URL + "hashed/world" ).header( "If-None-Match", "\"outdated\"" ) );
+		assertEquals( 200, response.code() );
+		assertEquals( "Hello, world", response.body().string() );
+	}
+
+	@Test
+	public void ensureThatSkipsTheRouteWhenTheVersionMatches() throws IOException {
+		final Response response = Http.send( Http.url( URL + "versioned/12" ) );
+		assertEquals( 200, response.code() );
+		assertEquals( "\"120\"", response.header( "ETag" ) );
+		assertEquals( "Document 12", response.body().string() );
+
+		final int calls = resource.documentCalls.get();
+		final Response notModified = Http.send( Http.url( URL + "versioned/12" ).header( "If-None-Match", "W/\"120\"" ) );
+		assertEquals( 304, notModified.code() );
+		assertEquals( "", notModified.body().string() );
+		assertEquals( calls, resource.documentCalls.get() );
+	}
+
+	@Test
+	public void ensureThatDoesNotTagFailuresWithTheVersion() throws IOException {
+		final Response response = Http.send( Http.url( URL + "versioned/-1" ) );
+		assertNotEquals( 200, response.code() );
+		assertNull( response.header( "ETag" ) );
+	}
+
+	@Test
+	public void ensureThatUsesTheETagSentByTheRoute() throws IOException {
+		final Response response = Http.send( Http.url( URL + "tagged" ) );
+		assertEquals( "\"custom\"", response.header( "ETag" ) );
+		assertEquals( "tagged", response.body().string() );
+
+		final Response notModified = Http.send( Http.url( URL + "tagged" ).header( "If-None-Match", "\"custom\"" ) );
+		assertEquals( 304, notModified.code() );
+	}
+
+	@Test
+	public void ensureThatDoesNotTagRoutesNotAnnotatedWithETagged() throws IOException {
+		final Response response = Http.send( Http.url( URL + "untagged" ) );
+		assertNull( response.header( "ETag" ) );
+		assertEquals( "untagged", response.body().string() );
+	}
+}
@@ -0,0 +1,51 @@
+package kikaha.urouting.it.etag;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import kikaha.urouting.api.*;
+
+import javax.inject.Singleton;
+
+/**
+ *
+ */
+@Path( "it/etag" )
+@Produces( Mimes.PLAIN_TEXT )
+@Singleton
+public class ETaggedResource {
+
+	final AtomicInteger documentCalls = new AtomicInteger();
+
+	@GET
+	@ETagged
+	@Path( "hashed/{name}" )
+	public String hashed( @PathParam( "name" ) String name ){
+		return "Hello, " + name;
+	}
+
+	@GET
+	@ETagged( version = "documentVersion" )
+	@Path( "versioned/{id}" )
+	public String document( @PathParam( "id" ) Long id ){
+		documentCalls.incrementAndGet();
+		if ( id < 0 )
+			throw new IllegalArgumentException( "Invalid document: " + id );
+		return "Document " + id;
+	}
+
+	public long documentVersion( Long id ){
+		return id * 10;
+	}
+
+	@GET
+	@ETagged
+	@Path( "tagged" )
+	public Response tagged(){
+		return Response.ok( "tagged" ).header( "ETag", "\"custom\"" );
+	}
+
+	@GET
+	@Path( "untagged" )
+	public String untagged(){
+		return "untagged";
+	}
+}
@@ -0,0 +1,49 @@
+package kikaha.urouting.it.nonblocking;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import kikaha.core.test.KikahaServerRunner;
+import kikaha.urouting.api.Mimes;
+import kikaha.urouting.it.Http;
+import okhttp3.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Integration tests for routes annotated with {@link kikaha.urouting.api.NonBlocking}.
+ */
+@RunWith( KikahaServerRunner.class )
+public class NonBlockingIntegrationTest {
+
+	static final String URL = "http://localhost:19999/it/non-blocking/";
+
+	@Test
+	public void ensureThatNonBlockingRoutesRunOnTheIoThread() throws IOException {
+		final Response response = Http.send( Http.url( URL + "thread" ) );
+		assertEquals( 200, response.code() );
+		assertTrue( response.body().string().contains( "I/O" ) );
+	}
+
+	@Test
+	public void ensureThatOtherRoutesAreDispatchedToWorkerThreads() throws IOException {
+		final Response response = Http.send( Http.url( URL + "blocking-thread" ) );
+		assertEquals( 200, response.code() );
+		assertFalse( response.body().string().contains( "I/O" ) );
+	}
+
+	@Test
+	public void ensureThatNonBlockingRoutesCanReadTheRequestBody() throws IOException {
+		final RequestBody body = RequestBody.create( MediaType.parse( Mimes.PLAIN_TEXT ), "Hello" );
+		final Response response = Http.send( Http.url( URL + "echo" ).post( body ) );
+		assertEquals( 200, response.code() );
+		final String content = response.body().string();
+		assertTrue( content, content.startsWith( "Hello from " ) && content.contains( "I/O" ) );
+	}
+
+	@Test
+	public void ensureThatTheGuardFailsNonBlockingRoutesThatBlockTheIoThread() throws IOException {
+		final Response response = Http.send( Http.url( URL + "blocking-serializer" ) );
+		assertEquals( 500, response.code() );
+	}
+}
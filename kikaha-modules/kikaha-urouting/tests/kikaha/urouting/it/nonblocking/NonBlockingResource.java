@@ -0,0 +1,44 @@
+package kikaha.urouting.it.nonblocking;
+
+import kikaha.urouting.api.*;
+
+import javax.inject.Singleton;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ *
+ */
+@Path( "it/non-blocking" )
+@Singleton
+public class NonBlockingResource {
+
+	@GET
+	@NonBlocking
+	@Path( "thread" )
+	public String nonBlockingThreadName(){
+		return Thread.currentThread().getName();
+	}
+
+	@GET
+	@Path( "blocking-thread" )
+	public String blockingThreadName(){
+		return Thread.currentThread().getName();
+	}
+
+	@POST
+	@NonBlocking
+	@Path( "echo" )
+	@Consumes( Mimes.PLAIN_TEXT )
+	public String echo( String body ){
+		return body + " from " + Thread.currentThread().getName();
+	}
+
+	@GET
+	@NonBlocking
+	@Path( "blocking-serializer" )
+	@Produces( Mimes.PLAIN_TEXT )
+	public Map<String, Integer> serializedThroughAnOutputStream(){
+		return Collections.singletonMap( "id", 12 );
+	}
+}
@@ -0,0 +1,53 @@
+package kikaha.urouting.serializers;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link AcceptHeader}.
+ */
+public class AcceptHeaderTest {
+
+	final List<String> available = Arrays.asList( "text/plain", "text/html", "application/json" );
+
+	@Test
+	public void ensureThatPicksTheContentTypeWithTheHighestQuality() {
+		final AcceptHeader accept = AcceptHeader.parse( "text/plain;q=0.5, application/json" );
+		assertEquals( "application/json", accept.negotiate( available, "text/plain" ) );
+	}
+
+	@Test
+	public void ensureThatTheMostSpecificRangeDefinesTheQualityOfAContentType() {
+		final AcceptHeader accept = AcceptHeader.parse( "text/*;q=0.1, text/plain;q=0.9, */*;q=0.5" );
+		assertEquals( "text/plain", accept.negotiate( available, null ) );
+		assertEquals( "application/json", accept.negotiate( Arrays.asList( "text/html", "application/json" ), null ) );
+	}
+
+	@Test
+	public void ensureThatContentTypesWithZeroQualityAreNotAcceptable() {
+		final AcceptHeader accept = AcceptHeader.parse( "application/json;q=0, text/*;q=0" );
+		assertNull( accept.negotiate( available, "application/json" ) );
+	}
+
+	@Test
+	public void ensureThatPicksThePreferredContentTypeWhenTheClientAcceptsAnyOfThem() {
+		assertEquals( "text/html", AcceptHeader.parse( "*/*" ).negotiate( available, "text/html" ) );
+		assertEquals( "text/html", AcceptHeader.parse( "text/plain, text/html" ).negotiate( available, "text/html" ) );
+	}
+
+	@Test
+	public void ensureThatPicksTheFirstListedRangeOnTies() {
+		assertEquals( "text/html", AcceptHeader.parse( "text/html, application/json" ).negotiate( available, null ) );
+		assertEquals( "application/json", AcceptHeader.parse( "application/json, text/html" ).negotiate( available, null ) );
+	}
+
+	@Test
+	public void ensureThatIgnoresMalformedRanges() {
+		final AcceptHeader accept = AcceptHeader.parse( "garbage, */html, text/plain;q=abc, application/json;q=0.2" );
+		assertEquals( 1, accept.getRanges().size() );
+		assertEquals( "application/json", accept.negotiate( available, null ) );
+	}
+}
@@ -0,0 +1,83 @@
+package kikaha.urouting.serializers;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+import java.nio.ByteBuffer;
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.DefaultByteBufferPool;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import kikaha.core.test.HttpServerExchangeStub;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Unit tests for {@link PooledBufferOutputStream}.
+ */
+public class PooledBufferOutputStreamTest {
+
+	final DefaultByteBufferPool pool = new DefaultByteBufferPool( false, 8 );
+	final PooledBufferOutputStream output = new PooledBufferOutputStream( pool );
+
+	@After
+	public void closePool(){
+		pool.close();
+	}
+
+	@Test
+	public void ensureThatSpreadsTheWrittenBytesAmongPooledBuffers(){
+		output.write( "Hello pooled world".getBytes(), 0, 18 );
+		output.write( '!' );
+		final ByteBuffer[] buffers = output.flip();
+		assertEquals( 3, buffers.length );
+		assertEquals( 19, output.size() );
+		assertEquals( "Hello pooled world!", asString( buffers ) );
+	}
+
+	@Test
+	public void ensureThatSendsTheWrittenBytesWithTheirContentLength(){
+		final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
+		output.write( "Hello pooled world".getBytes(), 0, 18 );
+		output.send( exchange );
+
+		final ArgumentCaptor<ByteBuffer[]> buffers = ArgumentCaptor.forClass( ByteBuffer[].class );
+		verify( exchange.getResponseSender() ).send( buffers.capture(), any( IoCallback.class ) );
+		assertEquals( "Hello pooled world", asString( buffers.getValue() ) );
+		assertEquals( "18", exchange.getResponseHeaders().getFirst( Headers.CONTENT_LENGTH ) );
+	}
+
+	@Test
+	public void ensureThatGivesTheBuffersBackToThePoolOnceTheyWereSent(){
+		final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
+		output.write( "Hello pooled world".getBytes(), 0, 18 );
+		output.send( exchange );
+
+		final ArgumentCaptor<IoCallback> callback = ArgumentCaptor.forClass( IoCallback.class );
+		final Sender sender = exchange.getResponseSender();
+		verify( sender ).send( any( ByteBuffer[].class ), callback.capture() );
+		assertFalse( output.buffers.isEmpty() );
+		callback.getValue().onComplete( exchange, sender );
+		assertTrue( output.buffers.isEmpty() );
+	}
+
+	@Test
+	public void ensureThatKeepsTheBuffersWhenClosed() throws Exception {
+		output.write( 'a' );
+		output.close();
+		assertEquals( 1, output.buffers.size() );
+		output.release();
+		assertTrue( output.buffers.isEmpty() );
+	}
+
+	static String asString( final ByteBuffer[] buffers ){
+		final StringBuilder builder = new StringBuilder();
+		for ( final ByteBuffer buffer : buffers )
+			while ( buffer.hasRemaining() )
+				builder.append( (char)buffer.get() );
+		return builder.toString();
+	}
+}
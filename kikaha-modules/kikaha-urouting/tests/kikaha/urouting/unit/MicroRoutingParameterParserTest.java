@@ -0,0 +1,70 @@
+package kikaha.urouting.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.doReturn;
+
+import java.util.*;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeMirror;
+import kikaha.urouting.apt.MicroRoutingParameterParser;
+import kikaha.urouting.api.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith( MockitoJUnitRunner.class )
+public class MicroRoutingParameterParserTest {
+
+	final MicroRoutingParameterParser parser = new MicroRoutingParameterParser( (m, p) -> "body" );
+
+	@Mock
+	ExecutableElement method;
+
+	@Mock
+	VariableElement parameter;
+
+	@Mock
+	TypeMirror parameterType;
+
+	@Mock
+	PathParam pathAnnotation;
+
+	@Mock
+	QueryParam queryAnnotation;
+
+	@Test
+	public void ensureThatParsesPrimitiveParametersInPlace() {
+		defineMethodParameterAs( "long" );
+		doReturn( pathAnnotation ).when( parameter ).getAnnotation( PathParam.class );
+		doReturn( "id" ).when( pathAnnotation ).value();
+		final String parsed = parser.extractMethodParamFrom( method, parameter );
+		assertEquals( "Long.parseLong( methodDataProvider.getPathParam( exchange, \"id\" ) )", parsed );
+	}
+
+	@Test
+	public void ensureThatReadsStringParametersWithoutConverters() {
+		defineMethodParameterAs( String.class.getCanonicalName() );
+		doReturn( queryAnnotation ).when( parameter ).getAnnotation( QueryParam.class );
+		doReturn( "name" ).when( queryAnnotation ).value();
+		final String parsed = parser.extractMethodParamFrom( method, parameter );
+		assertEquals( "methodDataProvider.getQueryParam( exchange, \"name\" )", parsed );
+	}
+
+	@Test
+	public void ensureThatConvertsOtherParametersWithAConverterResolvedAtStartup() {
+		defineMethodParameterAs( Date.class.getCanonicalName() );
+		doReturn( queryAnnotation ).when( parameter ).getAnnotation( QueryParam.class );
+		doReturn( "since" ).when( queryAnnotation ).value();
+		doReturn( Collections.singletonList( parameter ) ).when( method ).getParameters();
+
+		final String parsed = parser.extractMethodParamFrom( method, parameter );
+		assertEquals( "methodDataProvider.getQueryParam( exchange, \"since\", java_util_DateConverter )", parsed );
+		assertEquals( Collections.singleton( "java.util.Date" ), MicroRoutingParameterParser.extractConvertedTypesFrom( method ) );
+	}
+
+	private void defineMethodParameterAs( final String type ) {
+		doReturn( parameterType ).when( parameter ).asType();
+		doReturn( type ).when( parameterType ).toString();
+	}
+}
@@ -2,13 +2,14 @@ package kikaha.urouting.unit;
 
 import kikaha.core.test.KikahaRunner;
 import kikaha.urouting.RoutingMethodExceptionHandler;
-import kikaha.urouting.api.Response;
+import kikaha.urouting.api.*;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import javax.inject.Inject;
+import java.util.*;
 
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.*;
 
 @RunWith( KikahaRunner.class )
 public class RoutingMethodExceptionHandlerTest {
@@ -22,4 +23,25 @@ public class RoutingMethodExceptionHandlerTest {
 		final Response handledResponse = handler.handle( nullPointerException );
 		assertNotNull( handledResponse );
 	}
+
+	@Test
+	public void ensureThatHandlesExceptionsWithTheHandlerOfTheirClosestSuperclass() {
+		final Response notAuthorized = Response.unauthorized();
+		final Map<Class<?>, ExceptionHandler<?>> handlers = new HashMap<>();
+		handlers.put( NotAuthorizedException.class, e -> notAuthorized );
+		final RoutingMethodExceptionHandler handler = new RoutingMethodExceptionHandler( handlers, e -> Response.serverError() );
+
+		assertSame( notAuthorized, handler.handle( new NotAuthorizedException() ) );
+		assertSame( notAuthorized, handler.handle( new TokenExpiredException() ) );
+		assertNotSame( notAuthorized, handler.handle( new IllegalStateException() ) );
+		assertNotSame( notAuthorized, handler.handle( new StackOverflowError() ) );
+	}
+
+	static class NotAuthorizedException extends RuntimeException {
+		NotAuthorizedException() {
+			super( "Not authorized" );
+		}
+	}
+
+	static class TokenExpiredException extends NotAuthorizedException {}
 }
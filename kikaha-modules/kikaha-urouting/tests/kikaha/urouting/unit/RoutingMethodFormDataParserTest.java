@@ -0,0 +1,46 @@
+package kikaha.urouting.unit;
+
+import static org.junit.Assert.*;
+import javax.inject.Inject;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.form.FormDataParser;
+import io.undertow.util.Headers;
+import kikaha.core.test.HttpServerExchangeStub;
+import kikaha.core.test.KikahaRunner;
+import kikaha.urouting.RoutingMethodFormDataParser;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Unit tests for {@link RoutingMethodFormDataParser}.
+ */
+@RunWith(KikahaRunner.class)
+public class RoutingMethodFormDataParserTest {
+
+	@Inject
+	RoutingMethodFormDataParser formDataParser;
+
+	@Test
+	public void ensureThatReadsTheFormParserLimitsFromConfig() {
+		assertNotNull( formDataParser.getFormParserFactory() );
+		assertEquals( -1, formDataParser.getMaxSize() );
+	}
+
+	@Test
+	public void ensureThatCreatesParsersForFormData() {
+		assertNotNull( formDataParser.createParser( createExchange( "application/x-www-form-urlencoded" ) ) );
+		assertNotNull( formDataParser.createParser( createExchange( "multipart/form-data; boundary=abc" ) ) );
+	}
+
+	@Test
+	public void ensureThatDoNotCreateParsersForRequestsWithoutFormData() {
+		final FormDataParser parser = formDataParser.createParser( createExchange( "application/json" ) );
+		assertNull( parser );
+	}
+
+	static HttpServerExchange createExchange( final String contentType ) {
+		final HttpServerExchange exchange = HttpServerExchangeStub.createHttpExchange();
+		exchange.getRequestHeaders().put( Headers.CONTENT_TYPE, contentType );
+		return exchange;
+	}
+}
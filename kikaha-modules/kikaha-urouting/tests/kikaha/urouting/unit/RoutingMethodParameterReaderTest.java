@@ -1,6 +1,7 @@
 package kikaha.urouting.unit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import java.io.IOException;
 import javax.inject.Inject;
@@ -46,6 +47,33 @@ public class RoutingMethodParameterReaderTest {
 		assertTrue( unserializer.isMethodCalled() );
 	}
 
+	@Test
+	public void ensureThatSmallBodiesAreNotStreamed() throws IOException {
+		final HttpServerExchange exchange = createExchange( "text/hello-stream" );
+		exchange.getRequestHeaders().put( Headers.CONTENT_LENGTH, 11 );
+		assertFalse( paramReader.shouldStreamBody( exchange ) );
+	}
+
+	@Test
+	public void ensureThatLargeBodiesAreStreamedWhenTheUnserializerIsAbleToParseThemAsTheyArrive() throws IOException {
+		final HttpServerExchange exchange = createExchange( "text/hello-stream" );
+		exchange.getRequestHeaders().put( Headers.CONTENT_LENGTH, paramReader.getMaxBufferedBodySize() + 1 );
+		assertTrue( paramReader.shouldStreamBody( exchange ) );
+	}
+
+	@Test
+	public void ensureThatLargeBodiesAreNotStreamedWhenTheUnserializerIsNotAbleToParseThemAsTheyArrive() throws IOException {
+		final HttpServerExchange exchange = createExchange( "text/hello" );
+		exchange.getRequestHeaders().put( Headers.CONTENT_LENGTH, paramReader.getMaxBufferedBodySize() + 1 );
+		assertFalse( paramReader.shouldStreamBody( exchange ) );
+	}
+
+	@Test
+	public void ensureThatBodiesOfUnknownSizeAreStreamed() throws IOException {
+		final HttpServerExchange exchange = createExchange( "text/hello-stream" );
+		assertTrue( paramReader.shouldStreamBody( exchange ) );
+	}
+
 	private HttpServerExchange createExchange(String contentType){
 		final HeaderMap requestHeaders = new HeaderMap();
 		final HttpServerExchange exchange = new HttpServerExchange( null, requestHeaders, new HeaderMap(), 0);
@@ -9,9 +9,9 @@ import org.junit.runner.RunWith;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.Collections;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  *
@@ -43,4 +43,40 @@ public class SerializerAndUnserializerProviderTest {
 	public void ensureThatFailsToRetrieveAnInvalidUnserializer() throws IOException {
 		provider.getUnserializerFor(Mimes.JSON);
 	}
+
+	@Test
+	public void ensureThatCanRetrieveAnUnserializerForContentTypesWithParameters() throws IOException {
+		final Unserializer unserializer = provider.getUnserializerFor( " TEXT/PLAIN ; charset=\"ISO-8859-1\"" );
+		assertTrue( PlainTextUnserializer.class.isInstance( unserializer ) );
+		assertEquals( "ISO-8859-1", provider.getCharsetFor( " TEXT/PLAIN ; charset=\"ISO-8859-1\"" ) );
+		assertNull( provider.getCharsetFor( Mimes.PLAIN_TEXT ) );
+	}
+
+	@Test
+	public void ensureThatCountsHowManyTimesEachContentTypeWasSeen() throws IOException {
+		final String contentType = Mimes.PLAIN_TEXT + "; charset=counted";
+		provider.getUnserializerFor( contentType );
+		provider.getUnserializerFor( contentType );
+		provider.getCharsetFor( contentType );
+		assertEquals( Long.valueOf( 2 ), provider.getContentTypeCounters().get( contentType ) );
+	}
+
+	@Test
+	public void ensureThatNegotiatesTheResponseContentTypeFromTheAcceptHeader() {
+		final String accept = Mimes.JSON + ";q=0.9, " + Mimes.PLAIN_TEXT + ";q=0.8";
+		assertEquals( Mimes.PLAIN_TEXT, provider.negotiateContentType( accept ) );
+		assertEquals( Long.valueOf( 1 ), provider.getAcceptCounters().get( accept ) );
+		assertNull( provider.negotiateContentType( Mimes.JSON ) );
+		assertNull( provider.negotiateContentType( null ) );
+	}
+
+	@Test
+	public void ensureThatStopsCachingOnceTheCacheIsFull() throws IOException {
+		final SerializerAndUnserializerProvider provider = new SerializerAndUnserializerProvider(
+			Collections.emptyMap(), Collections.singletonMap( Mimes.PLAIN_TEXT, new PlainTextUnserializer() ), null, 1 );
+		provider.getUnserializerFor( Mimes.PLAIN_TEXT );
+		provider.getUnserializerFor( Mimes.PLAIN_TEXT + "; charset=UTF-8" );
+		assertEquals( 1, provider.getContentTypeCounters().size() );
+		assertFalse( provider.getContentTypeCounters().containsKey( Mimes.PLAIN_TEXT + "; charset=UTF-8" ) );
+	}
 }
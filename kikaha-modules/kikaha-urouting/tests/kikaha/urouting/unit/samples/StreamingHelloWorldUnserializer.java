@@ -0,0 +1,28 @@
+package kikaha.urouting.unit.samples;
+
+import javax.inject.Singleton;
+import java.io.*;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.FileUtils;
+import kikaha.core.modules.http.ContentType;
+import kikaha.urouting.serializers.StreamingUnserializer;
+import kikaha.urouting.serializers.Unserializer;
+
+/**
+ * Prefixes the unserialized content with the way it was read: "bytes:" or "stream:".
+ */
+@Singleton
+@ContentType("text/hello-stream")
+@SuppressWarnings( "unchecked" )
+public class StreamingHelloWorldUnserializer implements Unserializer, StreamingUnserializer {
+
+	@Override
+	public <T> T unserialize( HttpServerExchange input, Class<T> targetClass, byte[] body, String encoding ) throws IOException {
+		return (T)( "bytes:" + new String( body, encoding ) );
+	}
+
+	@Override
+	public <T> T unserialize( HttpServerExchange input, Class<T> targetClass, InputStream body, String encoding ) throws IOException {
+		return (T)( "stream:" + FileUtils.readFile( body ) );
+	}
+}